@@ -0,0 +1,105 @@
+package sudoku.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import sudoku.model.BatchSolver;
+import sudoku.model.Board;
+import sudoku.model.EnforcedCellSaturator;
+import sudoku.model.EnforcedNumberSaturator;
+import sudoku.model.InvalidSudokuException;
+import sudoku.model.SudokuBoardSolver;
+import sudoku.model.SudokuSolver;
+
+/**
+ * A benchmark comparing the throughput of solving many random puzzles one
+ * call at a time, with a new solver and new solution strategies for every
+ * puzzle, to solving them as batch by a {@link BatchSolver} with a growing
+ * number of threads.
+ */
+public final class BatchBenchmark {
+
+    /**
+     * The default number of puzzles.
+     */
+    private static final int DEFAULT_PUZZLES = 20000;
+
+    /**
+     * The default share of cells given in the puzzles.
+     */
+    private static final double DEFAULT_CLUE_RATIO = 0.4;
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private BatchBenchmark() {
+        throw new UnsupportedOperationException(
+                "Illegal call of utility class constructor.");
+    }
+
+    /**
+     * Runs the benchmark and prints one line per way of solving.
+     *
+     * @param args Optionally the number of puzzles, the box size, the share
+     *        of given cells between 0 and 1 and the seed of the puzzles.
+     * @throws InvalidSudokuException If a generated puzzle is invalid, which
+     *         indicates a bug.
+     */
+    public static void main(String[] args) throws InvalidSudokuException {
+        int count = args.length > 0 ? Integer.parseInt(args[0])
+                : DEFAULT_PUZZLES;
+        int boxSize = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        double clueRatio = args.length > 2 ? Double.parseDouble(args[2])
+                : DEFAULT_CLUE_RATIO;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        if (count < 1 || boxSize < 1 || clueRatio < 0 || clueRatio > 1) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one puzzle with a positive box size, and the share of "
+                    + "given cells must be between 0 and 1!");
+        }
+        Random random = new Random(seed);
+        List<Board> puzzles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            puzzles.add(Puzzles.createBoard(boxSize, boxSize,
+                    Puzzles.createPuzzle(boxSize, boxSize, clueRatio,
+                            random)));
+        }
+
+        for (int run = 0; run < 2; run++) {
+            long start = System.nanoTime();
+            for (Board puzzle : puzzles) {
+                createSolver().findFirstSolution(puzzle);
+            }
+            if (run == 1) {
+                System.out.printf("%-22s %.0f puzzles/s%n",
+                        "solver per puzzle", count * 1e9
+                                / (System.nanoTime() - start));
+            }
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            BatchSolver batchSolver = new BatchSolver(threads,
+                    BatchBenchmark::createSolver);
+            batchSolver.solveAll(puzzles);
+            batchSolver.resetStatistics();
+            batchSolver.solveAll(puzzles);
+            System.out.printf("%-22s %s%n", "batch, " + threads
+                    + " threads", batchSolver.getStatistics());
+            batchSolver.shutdown();
+        }
+    }
+
+    /**
+     * Creates a solver with the enforced cell and enforced number strategies
+     * like the user interface does for every puzzle.
+     *
+     * @return The new solver.
+     */
+    private static SudokuSolver createSolver() {
+        SudokuSolver solver = new SudokuBoardSolver();
+        solver.addSaturator(new EnforcedCellSaturator());
+        solver.addSaturator(new EnforcedNumberSaturator());
+        return solver;
+    }
+}
@@ -0,0 +1,88 @@
+package sudoku.bench;
+
+import java.util.List;
+
+import sudoku.model.Board;
+import sudoku.model.ClueSymmetry;
+import sudoku.model.PuzzleGenerator;
+import sudoku.model.Structure;
+
+/**
+ * A benchmark measuring the throughput of a {@link PuzzleGenerator} with a
+ * growing number of threads, and the average number of clues of the
+ * puzzles.
+ */
+public final class GeneratorBenchmark {
+
+    /**
+     * The default number of puzzles.
+     */
+    private static final int DEFAULT_PUZZLES = 200;
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private GeneratorBenchmark() {
+        throw new UnsupportedOperationException(
+                "Illegal call of utility class constructor.");
+    }
+
+    /**
+     * Runs the benchmark and prints one line per number of threads.
+     *
+     * @param args Optionally the number of puzzles, the number of rows and of
+     *        columns per box, the symmetry of the clues, the target number of
+     *        clues and the seed.
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0])
+                : DEFAULT_PUZZLES;
+        int boxRows = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int boxCols = args.length > 2 ? Integer.parseInt(args[2]) : boxRows;
+        ClueSymmetry symmetry = args.length > 3
+                ? ClueSymmetry.valueOf(args[3]) : ClueSymmetry.NONE;
+        int targetClues = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+        if (count < 1) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one puzzle!");
+        }
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            PuzzleGenerator generator = new PuzzleGenerator(boxRows, boxCols,
+                    threads);
+            generator.setSymmetry(symmetry);
+            generator.setTargetClues(targetClues);
+            generator.generate(threads, seed);
+            long start = System.nanoTime();
+            List<Board> puzzles = generator.generate(count, seed);
+            long nanos = System.nanoTime() - start;
+            generator.shutdown();
+            System.out.printf("%2d threads: %.1f puzzles/s, %.1f clues on "
+                    + "average%n", threads, count * 1e9 / nanos,
+                    averageClues(puzzles));
+        }
+    }
+
+    /**
+     * Computes the average number of given cells of some puzzles.
+     *
+     * @param puzzles The puzzles.
+     * @return The average number of clues.
+     */
+    private static double averageClues(List<Board> puzzles) {
+        long clues = 0;
+        for (Board puzzle : puzzles) {
+            for (int row = 0; row < puzzle.getNumbers(); row++) {
+                for (int col = 0; col < puzzle.getNumbers(); col++) {
+                    if (puzzle.getCell(Structure.ROW, row, col)
+                            != Board.UNSET_CELL) {
+                        ++clues;
+                    }
+                }
+            }
+        }
+        return (double) clues / puzzles.size();
+    }
+}
@@ -0,0 +1,81 @@
+package sudoku.bench;
+
+import java.util.Random;
+
+import sudoku.model.Board;
+import sudoku.model.BoardFactory;
+import sudoku.model.InvalidSudokuException;
+import sudoku.model.PuzzleGenerator;
+import sudoku.model.Structure;
+
+/**
+ * This class creates the random puzzles the benchmarks are run on. Every
+ * puzzle is derived from a shuffled regular solution, so it is solvable, but
+ * it may have several solutions.
+ */
+final class Puzzles {
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private Puzzles() {
+        throw new UnsupportedOperationException(
+                "Illegal call of utility class constructor.");
+    }
+
+    /**
+     * Creates a board by {@link BoardFactory} and sets the given cells.
+     *
+     * @param boxRows The number of rows per box.
+     * @param boxCols The number of columns per box.
+     * @param puzzle The contents of the cells row by row, 0 for unset cells.
+     * @return The new board.
+     * @throws InvalidSudokuException If the puzzle is invalid.
+     */
+    static Board createBoard(int boxRows, int boxCols, int[][] puzzle)
+            throws InvalidSudokuException {
+        Board board = BoardFactory.createBoard(boxRows, boxCols);
+        for (int row = 0; row < puzzle.length; row++) {
+            for (int col = 0; col < puzzle.length; col++) {
+                if (puzzle[row][col] != 0) {
+                    board.setCell(Structure.ROW, row, col, puzzle[row][col]);
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Creates a puzzle by shuffling a regular solution and keeping every cell
+     * with probability {@code clueRatio}. The rows within a band of boxes,
+     * the bands, the columns within a stack of boxes, the stacks and the
+     * numbers are shuffled, which keeps the solution valid.
+     *
+     * @param boxRows The number of rows per box.
+     * @param boxCols The number of columns per box.
+     * @param clueRatio The probability of a cell to be given.
+     * @param random The source of randomness.
+     * @return The contents of the cells row by row, 0 for unset cells.
+     */
+    static int[][] createPuzzle(int boxRows, int boxCols, double clueRatio,
+                                Random random) {
+        int numbers = boxRows * boxCols;
+        int[] rows = PuzzleGenerator.shuffleBlocks(boxRows, boxCols,
+                random::nextInt);
+        int[] cols = PuzzleGenerator.shuffleBlocks(boxCols, boxRows,
+                random::nextInt);
+        int[] symbols = PuzzleGenerator.shuffle(numbers, random::nextInt);
+        int[][] puzzle = new int[numbers][numbers];
+        for (int row = 0; row < numbers; row++) {
+            int r = rows[row];
+            for (int col = 0; col < numbers; col++) {
+                if (random.nextDouble() < clueRatio) {
+                    int value = (boxCols * (r % boxRows) + r / boxRows
+                            + cols[col]) % numbers;
+                    puzzle[row][col] = symbols[value] + 1;
+                }
+            }
+        }
+        return puzzle;
+    }
+}
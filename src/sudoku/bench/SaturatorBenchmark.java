@@ -0,0 +1,257 @@
+package sudoku.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import sudoku.model.Board;
+import sudoku.model.ChangeSet;
+import sudoku.model.EnforcedCellSaturator;
+import sudoku.model.EnforcedNumberSaturator;
+import sudoku.model.FishSaturator;
+import sudoku.model.HiddenSubsetSaturator;
+import sudoku.model.InvalidSudokuException;
+import sudoku.model.LockedCandidatesSaturator;
+import sudoku.model.NakedSubsetSaturator;
+import sudoku.model.Outcome;
+import sudoku.model.Saturator;
+import sudoku.model.Structure;
+
+/**
+ * A benchmark reporting how many search nodes the solution strategies save
+ * and what they cost. Every strategy is added on its own to the enforced cell
+ * and enforced number strategies, and all of them are measured together. For
+ * every board size the first solutions of the same random puzzles are
+ * searched with every combination, counting the assignments tried by the
+ * search and measuring the time taken.
+ *
+ * The search is a plain depth first search branching on the cell with the
+ * fewest possibilities, which rolls the board back on backtracking. Unlike
+ * {@link sudoku.model.SudokuBoardSolver} it applies the strategies to classic
+ * Sudokus as well.
+ */
+public final class SaturatorBenchmark {
+
+    /**
+     * The box sizes measured by default, resulting in 6x6, 9x9, 12x12 and
+     * 16x16 boards.
+     */
+    private static final int[][] BOX_SIZES = {{2, 3}, {3, 3}, {3, 4}, {4, 4}};
+
+    /**
+     * The default share of cells given in the puzzles, which is low enough to
+     * make the search branch.
+     */
+    private static final double DEFAULT_CLUE_RATIO = 0.4;
+
+    /**
+     * The default number of puzzles per size.
+     */
+    private static final int DEFAULT_PUZZLES = 50;
+
+    /**
+     * The number of measured runs over the puzzles of a size, of which the
+     * fastest is reported.
+     */
+    private static final int RUNS = 3;
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private SaturatorBenchmark() {
+        throw new UnsupportedOperationException(
+                "Illegal call of utility class constructor.");
+    }
+
+    /**
+     * Runs the benchmark and prints one line per board size and combination
+     * of strategies.
+     *
+     * @param args Optionally the share of given cells between 0 and 1, the
+     *        number of puzzles per size and the seed of the puzzles.
+     * @throws InvalidSudokuException If a generated puzzle is invalid, which
+     *         indicates a bug.
+     */
+    public static void main(String[] args) throws InvalidSudokuException {
+        double clueRatio = args.length > 0 ? Double.parseDouble(args[0])
+                : DEFAULT_CLUE_RATIO;
+        int puzzles = args.length > 1 ? Integer.parseInt(args[1])
+                : DEFAULT_PUZZLES;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        if (clueRatio < 0 || clueRatio > 1 || puzzles < 1) {
+            throw new IllegalArgumentException("Error! The share of given "
+                    + "cells must be between 0 and 1 and there must be at "
+                    + "least one puzzle!");
+        }
+        Random random = new Random(seed);
+        System.out.printf("%-7s %-20s %11s %7s %11s%n", "size", "strategies",
+                "nodes", "saved", "ms");
+        for (int[] boxSize : BOX_SIZES) {
+            Board[] boards = new Board[puzzles];
+            for (int i = 0; i < puzzles; i++) {
+                boards[i] = Puzzles.createBoard(boxSize[0], boxSize[1],
+                        Puzzles.createPuzzle(boxSize[0], boxSize[1],
+                                clueRatio, random));
+            }
+            int numbers = boxSize[0] * boxSize[1];
+            long baseline = -1;
+            for (Map.Entry<String, List<Saturator>> strategies
+                    : createStrategies().entrySet()) {
+                CountingSearch search =
+                        new CountingSearch(strategies.getValue());
+                long[] times = new long[RUNS + 1];
+                for (int run = 0; run <= RUNS; run++) {
+                    search.nodes = 0;
+                    long start = System.nanoTime();
+                    for (Board board : boards) {
+                        if (!search.solve(board.clone())) {
+                            throw new IllegalStateException("Error! A "
+                                    + "generated puzzle has no solution!");
+                        }
+                    }
+                    times[run] = System.nanoTime() - start;
+                }
+                if (baseline == -1) {
+                    baseline = search.nodes;
+                }
+                Arrays.sort(times, 1, RUNS + 1);
+                System.out.printf("%-7s %-20s %11d %6.1f%% %11.2f%n",
+                        numbers + "x" + numbers, strategies.getKey(),
+                        search.nodes, baseline == 0 ? 0.0
+                                : 100.0 * (baseline - search.nodes) / baseline,
+                        times[1] / 1e6);
+            }
+        }
+    }
+
+    /**
+     * Creates the measured combinations of strategies, starting with the
+     * enforced cell and enforced number strategies alone as baseline.
+     *
+     * @return The combinations of strategies by their names.
+     */
+    private static Map<String, List<Saturator>> createStrategies() {
+        Saturator[] strategies = {new NakedSubsetSaturator(2),
+                new NakedSubsetSaturator(3), new HiddenSubsetSaturator(2),
+                new HiddenSubsetSaturator(3), new LockedCandidatesSaturator(),
+                new FishSaturator(2), new FishSaturator(3)};
+        String[] names = {"naked pairs", "naked triples", "hidden pairs",
+                "hidden triples", "locked candidates", "x-wing", "swordfish"};
+        Map<String, List<Saturator>> combinations = new LinkedHashMap<>();
+        combinations.put("singles", createSingles());
+        for (int i = 0; i < strategies.length; i++) {
+            List<Saturator> combination = createSingles();
+            combination.add(strategies[i]);
+            combinations.put("+ " + names[i], combination);
+        }
+        List<Saturator> all = createSingles();
+        all.addAll(Arrays.asList(strategies));
+        combinations.put("all", all);
+        return combinations;
+    }
+
+    /**
+     * Creates a list containing the enforced cell and the enforced number
+     * strategies.
+     *
+     * @return The new list.
+     */
+    private static List<Saturator> createSingles() {
+        List<Saturator> singles = new ArrayList<>();
+        singles.add(new EnforcedCellSaturator());
+        singles.add(new EnforcedNumberSaturator());
+        return singles;
+    }
+
+    /**
+     * A depth first search for the first solution of a board, which counts
+     * the assignments it tries.
+     */
+    private static final class CountingSearch {
+        private final List<Saturator> strategies;
+        private long nodes = 0;
+
+        /**
+         * Creates a new search applying {@code strategies} before every
+         * branching.
+         *
+         * @param strategies The strategies to apply, cheap ones first.
+         */
+        private CountingSearch(List<Saturator> strategies) {
+            this.strategies = strategies;
+        }
+
+        /**
+         * Searches the first solution of {@code board} by changing it in
+         * place.
+         *
+         * @param board The board to solve, which must support rolling back.
+         * @return {@code true} if {@code board} has been solved, {@code
+         *         false} if it is not solvable.
+         */
+        private boolean solve(Board board) {
+            if (!saturate(board)) {
+                return false;
+            }
+            if (board.isSolution()) {
+                return true;
+            }
+            int numbers = board.getNumbers();
+            int bestRow = -1;
+            int bestCol = -1;
+            int fewest = numbers + 1;
+            for (int row = 0; row < numbers; row++) {
+                for (int col = 0; col < numbers; col++) {
+                    int count = board.getPossibilityCount(Structure.ROW, row,
+                            col);
+                    if (board.getCell(Structure.ROW, row, col)
+                            == Board.UNSET_CELL && count < fewest) {
+                        fewest = count;
+                        bestRow = row;
+                        bestCol = col;
+                    }
+                }
+            }
+            int mark = board.mark();
+            int number = board.getNextPossibility(Structure.ROW, bestRow,
+                    bestCol, 1);
+            while (number != -1) {
+                ++nodes;
+                if (board.assign(Structure.ROW, bestRow, bestCol, number)
+                        != Outcome.CONTRADICTION && solve(board)) {
+                    return true;
+                }
+                board.rollback(mark);
+                board.drainChanges();
+                number = board.getNextPossibility(Structure.ROW, bestRow,
+                        bestCol, number + 1);
+            }
+            return false;
+        }
+
+        /**
+         * Applies the strategies to the changes of {@code board} until none
+         * of them changes it anymore.
+         *
+         * @param board The board to saturate.
+         * @return {@code true} if the board may still be solvable, {@code
+         *         false} if it is not solvable.
+         */
+        private boolean saturate(Board board) {
+            ChangeSet changes = board.drainChanges();
+            while (!changes.isEmpty()) {
+                for (Saturator strategy : strategies) {
+                    if (strategy.propagate(board, changes)
+                            == Outcome.CONTRADICTION) {
+                        return false;
+                    }
+                }
+                changes = board.drainChanges();
+            }
+            return true;
+        }
+    }
+}
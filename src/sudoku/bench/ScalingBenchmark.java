@@ -0,0 +1,150 @@
+package sudoku.bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import sudoku.model.Board;
+import sudoku.model.BoardFactory;
+import sudoku.model.EnforcedCellSaturator;
+import sudoku.model.EnforcedNumberSaturator;
+import sudoku.model.InvalidSudokuException;
+import sudoku.model.SudokuBoardSolver;
+import sudoku.model.SudokuSolver;
+
+/**
+ * A benchmark reporting how solving scales with the size of the board. For
+ * every size a random puzzle is derived from a shuffled regular solution, and
+ * the time to find its first solution as well as the memory taken by a board
+ * of that size are measured. The boards are created by {@link BoardFactory},
+ * so every size uses the representation chosen for it.
+ */
+public final class ScalingBenchmark {
+
+    /**
+     * The box sizes measured by default, resulting in 4x4, 9x9, 16x16, 25x25,
+     * 36x36 and 64x64 boards.
+     */
+    private static final int[][] BOX_SIZES =
+            {{2, 2}, {3, 3}, {4, 4}, {5, 5}, {6, 6}, {8, 8}};
+
+    /**
+     * The default share of cells given in the puzzles.
+     */
+    private static final double DEFAULT_CLUE_RATIO = 0.7;
+
+    /**
+     * The default number of measured solving runs per size.
+     */
+    private static final int DEFAULT_RUNS = 5;
+
+    /**
+     * The number of cells of all boards created to measure the memory of one
+     * board, which averages out the granularity of the heap statistics.
+     */
+    private static final int MEMORY_SAMPLE_CELLS = 500000;
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private ScalingBenchmark() {
+        throw new UnsupportedOperationException(
+                "Illegal call of utility class constructor.");
+    }
+
+    /**
+     * Runs the benchmark and prints one line per board size.
+     *
+     * @param args Optionally the share of given cells between 0 and 1, the
+     *        number of measured runs per size and the seed of the puzzles.
+     * @throws InvalidSudokuException If a generated puzzle is invalid, which
+     *         indicates a bug.
+     */
+    public static void main(String[] args) throws InvalidSudokuException {
+        double clueRatio = args.length > 0 ? Double.parseDouble(args[0])
+                : DEFAULT_CLUE_RATIO;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        if (clueRatio < 0 || clueRatio > 1 || runs < 1) {
+            throw new IllegalArgumentException("Error! The share of given "
+                    + "cells must be between 0 and 1 and there must be at "
+                    + "least one run!");
+        }
+        Random random = new Random(seed);
+        System.out.printf("%-7s %-17s %7s %7s %11s %11s%n", "size", "board",
+                "cells", "clues", "median ms", "bytes");
+        for (int[] boxSize : BOX_SIZES) {
+            int[][] puzzle = Puzzles.createPuzzle(boxSize[0], boxSize[1],
+                    clueRatio, random);
+            Board board = Puzzles.createBoard(boxSize[0], boxSize[1],
+                    puzzle);
+            int numbers = board.getNumbers();
+            System.out.printf("%-7s %-17s %7d %7d %11.2f %11d%n",
+                    numbers + "x" + numbers, board.getClass().getSimpleName(),
+                    numbers * numbers, board.getNumberOfSetCells(),
+                    measureSolvingTime(board, runs) / 1e6,
+                    measureMemory(boxSize[0], boxSize[1], puzzle));
+        }
+    }
+
+    /**
+     * Measures the median time to find the first solution of {@code board}
+     * after one run to warm up.
+     *
+     * @param board The puzzle to solve.
+     * @param runs The number of measured runs.
+     * @return The median time of the runs in nanoseconds.
+     */
+    private static long measureSolvingTime(Board board, int runs) {
+        SudokuSolver solver = new SudokuBoardSolver();
+        solver.addSaturator(new EnforcedCellSaturator());
+        solver.addSaturator(new EnforcedNumberSaturator());
+        if (solver.findFirstSolution(board) == null) {
+            throw new IllegalStateException("Error! A generated puzzle has no "
+                    + "solution!");
+        }
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            solver.findFirstSolution(board);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+
+    /**
+     * Estimates the heap memory taken by one board holding {@code puzzle} by
+     * creating many of them and comparing the used heap before and after.
+     *
+     * @param boxRows The number of rows per box.
+     * @param boxCols The number of columns per box.
+     * @param puzzle The puzzle set on the boards.
+     * @return The estimated number of bytes per board.
+     * @throws InvalidSudokuException If the puzzle is invalid.
+     */
+    private static long measureMemory(int boxRows, int boxCols,
+                                      int[][] puzzle)
+            throws InvalidSudokuException {
+        int cells = puzzle.length * puzzle.length;
+        Board[] boards = new Board[Math.max(4, MEMORY_SAMPLE_CELLS / cells)];
+        long before = getUsedMemory();
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = Puzzles.createBoard(boxRows, boxCols, puzzle);
+        }
+        long after = getUsedMemory();
+        return Math.max(0, (after - before) / boards.length);
+    }
+
+    /**
+     * Returns the used heap memory after collecting the garbage.
+     *
+     * @return The used heap memory in bytes.
+     */
+    private static long getUsedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
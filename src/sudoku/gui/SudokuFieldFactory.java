@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.text.ParseException;
 import java.util.Scanner;
 
@@ -45,30 +46,69 @@ public final class SudokuFieldFactory {
                     + "either null, does not exist anymore or the program lacks"
                     + "the permission to read it!");
         }
-        SudokuField field;
-        DisplayedSudoku sudoku;
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            Line line = readLine(reader, 0);
+        try (Reader reader = new FileReader(file)) {
+            DisplayedSudoku sudoku = parse(reader);
+            return new SudokuField(sudoku.getBoxRows(), sudoku.getBoxCols(),
+                    sudoku);
+        }
+    }
+
+    /**
+     * Reads a Sudoku in the format of the Sudoku files from a reader, e.g.,
+     * from the body of a request. The numbers given are not changeable.
+     *
+     * @param input The reader containing the Sudoku. Will not be closed.
+     * @return The Sudoku given by the reader.
+     * @throws IOException If an IO error occurs.
+     * @throws ParseException If the input is not using the expected format.
+     */
+    public static DisplayedSudoku parse(Reader input)
+            throws IOException, ParseException {
+        return parse(input, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads a Sudoku in the format of the Sudoku files from a reader, but
+     * rejects Sudokus with more than {@code maxNumbers} rows before they are
+     * created. This bounds the memory taken by untrusted input.
+     *
+     * @param input The reader containing the Sudoku. Will not be closed.
+     * @param maxNumbers The largest number of rows and columns accepted.
+     * @return The Sudoku given by the reader.
+     * @throws IOException If an IO error occurs.
+     * @throws ParseException If the input is not using the expected format or
+     *         the Sudoku is too large.
+     */
+    public static DisplayedSudoku parse(Reader input, int maxNumbers)
+            throws IOException, ParseException {
+        if (input == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "reader of a Sudoku!");
+        }
+        BufferedReader reader = new BufferedReader(input);
+        Line line = readLine(reader, 0);
+        if (line == null) {
+            invalidFileError(1);
+        }
+        int[] numbersOfRowsAndColumns =
+                parseRowsPerBoxAndColumnsPerBox(line.text, line.number);
+        int rowsPerBox = numbersOfRowsAndColumns[0];
+        int columnsPerBox = numbersOfRowsAndColumns[1];
+        if ((long) rowsPerBox * columnsPerBox > maxNumbers) {
+            invalidFileError(line.number);
+        }
+        DisplayedSudoku sudoku = new DisplayedSudoku(rowsPerBox,
+                columnsPerBox);
+        line = readLine(reader, line.number);
+        for (int currentRow = 0; currentRow < rowsPerBox * columnsPerBox;
+             currentRow++) {
             if (line == null) {
-                invalidFileError(1);
+                invalidFileError(currentRow + 1);
             }
-            int[] numbersOfRowsAndColumns =
-                    parseRowsPerBoxAndColumnsPerBox(line.text, 1);
-            int rowsPerBox = numbersOfRowsAndColumns[0];
-            int columnsPerBox = numbersOfRowsAndColumns[1];
-            sudoku = new DisplayedSudoku(rowsPerBox, columnsPerBox);
+            parseRow(line.text, sudoku, currentRow, line.number);
             line = readLine(reader, line.number);
-            for (int currentRow = 0; currentRow < rowsPerBox * columnsPerBox;
-                 currentRow++) {
-                if (line == null) {
-                    invalidFileError(currentRow + 1);
-                }
-                parseRow(line.text, sudoku, currentRow, line.number);
-                line = readLine(reader, line.number);
-            }
-            field = new SudokuField(rowsPerBox, columnsPerBox, sudoku);
         }
-        return field;
+        return sudoku;
     }
 
     /**
@@ -109,8 +149,8 @@ public final class SudokuFieldFactory {
     private static void parseRow(String line, DisplayedSudoku sudoku,
                                  int currentRow, int lineNumber)
             throws ParseException {
-        assert line != null && sudoku != null && currentRow > 0
-                && currentRow <= sudoku.getNumbers() && lineNumber >= 0;
+        assert line != null && sudoku != null && currentRow >= 0
+                && currentRow < sudoku.getNumbers() && lineNumber >= 0;
         Scanner rowScanner = new Scanner(line);
         int columnsPerRow = sudoku.getNumbers();
         int[] row = new int[columnsPerRow];
@@ -189,7 +229,7 @@ public final class SudokuFieldFactory {
         } else {
             invalidFileError(lineNumber);
         }
-        if (result[0] < 0 || result[1] < 0 || scanner.hasNext()) {
+        if (result[0] < 1 || result[1] < 1 || scanner.hasNext()) {
             invalidFileError(lineNumber);
         }
         scanner.close();
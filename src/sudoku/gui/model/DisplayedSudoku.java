@@ -1,9 +1,9 @@
 package sudoku.gui.model;
 
 import sudoku.model.Board;
+import sudoku.model.BoardFactory;
 import sudoku.model.InvalidSudokuException;
 import sudoku.model.Structure;
-import sudoku.model.SudokuBoard;
 
 import java.util.Observable;
 
@@ -48,6 +48,24 @@ public class DisplayedSudoku extends Observable implements DisplayData {
         }
     }
 
+    /**
+     * Gets the number of rows per box.
+     *
+     * @return The number of rows per box.
+     */
+    public int getBoxRows() {
+        return boxRows;
+    }
+
+    /**
+     * Gets the number of columns per box.
+     *
+     * @return The number of columns per box.
+     */
+    public int getBoxCols() {
+        return boxCols;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -131,7 +149,7 @@ public class DisplayedSudoku extends Observable implements DisplayData {
      */
     @Override
     public Board getSudoku() throws InvalidSudokuException {
-        Board sudoku = new SudokuBoard(boxRows, boxCols);
+        Board sudoku = BoardFactory.createBoard(boxRows, boxCols);
         for (int i = 0; i < cellsPerStructure; i++) {
             for (int j = 0; j < cellsPerStructure; j++) {
                 if (board[i][j] != Board.UNSET_CELL) {
@@ -0,0 +1,90 @@
+package sudoku.model;
+
+/**
+ * The outcome of solving one puzzle of a batch by a {@link BatchSolver}.
+ */
+public final class BatchResult {
+    private final long index;
+    private final Board puzzle;
+    private final Board solution;
+    private final SearchAbortedException abort;
+    private final long nanos;
+
+    /**
+     * Creates the outcome of solving a puzzle.
+     *
+     * @param index The position of the puzzle in the batch.
+     * @param puzzle The solved puzzle.
+     * @param solution The first solution, or {@code null} if there is none
+     *        or the search was aborted.
+     * @param abort The reason the search was aborted, or {@code null}.
+     * @param nanos The time taken to solve the puzzle in nanoseconds.
+     */
+    BatchResult(long index, Board puzzle, Board solution,
+                SearchAbortedException abort, long nanos) {
+        this.index = index;
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.abort = abort;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Gets the position of the puzzle in the batch, counting from 0.
+     *
+     * @return The index of the puzzle.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the puzzle which has been solved.
+     *
+     * @return The puzzle.
+     */
+    public Board getPuzzle() {
+        return puzzle;
+    }
+
+    /**
+     * Gets the first solution of the puzzle as found by {@link
+     * SudokuSolver#findFirstSolution(Board)}.
+     *
+     * @return The solution, or {@code null} if the puzzle is not solvable or
+     *         its search was aborted.
+     */
+    public Board getSolution() {
+        return solution;
+    }
+
+    /**
+     * Checks whether the search exceeded the search limits of the batch.
+     *
+     * @return {@code true} if the search was aborted, {@code false}
+     *         otherwise.
+     */
+    public boolean isAborted() {
+        return abort != null;
+    }
+
+    /**
+     * Gets the exception the search was aborted with, which tells how far it
+     * got.
+     *
+     * @return The exception, or {@code null} if the search was not aborted.
+     */
+    public SearchAbortedException getAbort() {
+        return abort;
+    }
+
+    /**
+     * Gets the time taken to solve the puzzle, not counting the time it
+     * waited for a thread.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+}
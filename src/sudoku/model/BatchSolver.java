@@ -0,0 +1,366 @@
+package sudoku.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A solver for large batches of independent puzzles, which finds the first
+ * solution of every puzzle like {@link SudokuSolver#findFirstSolution(Board)}
+ * on a fixed number of threads.
+ *
+ * Every thread creates its own solver once and keeps it for all puzzles it
+ * solves, so the solution strategies, the collected scheduling statistics and
+ * the search buffers of a {@link SudokuBoardSolver} are reused instead of
+ * being built for every puzzle.
+ *
+ * Puzzles are taken from their iterator in chunks only as far as the threads
+ * keep up, so batches may be far larger than the memory. The results are
+ * returned in the order of the puzzles or chunk by chunk in the order the
+ * chunks are finished, and the solver keeps statistics about its
+ * throughput.
+ */
+public class BatchSolver {
+
+    /**
+     * The number of puzzles handed to a thread at once, which saves most of
+     * the cost of handing over for small puzzles.
+     */
+    private static final int CHUNK_SIZE = 16;
+
+    /**
+     * The number of chunks per thread handed to the threads ahead of the
+     * results taken, which keeps them busy while results are consumed.
+     */
+    private static final int CHUNKS_AHEAD_PER_THREAD = 2;
+
+    private final int threads;
+    private final ThreadLocal<SudokuSolver> solvers;
+    private volatile SearchLimits searchLimits;
+    private ExecutorService executor;
+    private final LongAdder puzzles = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+    private final LongAdder solvingNanos = new LongAdder();
+    private volatile long statisticsStart;
+
+    /**
+     * Creates a new BatchSolver.
+     *
+     * @param threads The number of threads solving puzzles.
+     * @param solverFactory The factory creating the solver of every thread,
+     *        including its solution strategies. It is called once per thread.
+     */
+    public BatchSolver(int threads,
+                       Supplier<? extends SudokuSolver> solverFactory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one thread to solve puzzles!");
+        }
+        if (solverFactory == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "solver factory!");
+        }
+        this.threads = threads;
+        this.solvers = ThreadLocal.withInitial(() -> {
+            SudokuSolver solver = solverFactory.get();
+            if (solver == null) {
+                throw new IllegalStateException("Error! The solver factory "
+                        + "has not created a solver!");
+            }
+            return solver;
+        });
+        this.searchLimits = SearchLimits.NONE;
+        this.statisticsStart = System.nanoTime();
+    }
+
+    /**
+     * Sets the limits of the search for every single puzzle. A puzzle whose
+     * search exceeds them is reported as aborted instead of stopping the
+     * batch.
+     *
+     * @param limits The limits of the search per puzzle.
+     */
+    public void setSearchLimits(SearchLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "search limits!");
+        }
+        searchLimits = limits;
+    }
+
+    /**
+     * Solves all puzzles of a collection.
+     *
+     * @param puzzles The puzzles to solve. Will not be changed.
+     * @return The results in the order of the puzzles.
+     */
+    public List<BatchResult> solveAll(Collection<? extends Board> puzzles) {
+        if (puzzles == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "puzzles!");
+        }
+        List<BatchResult> results = new ArrayList<>(puzzles.size());
+        solve(puzzles.iterator(), true).forEachRemaining(results::add);
+        return results;
+    }
+
+    /**
+     * Solves the puzzles of an iterator lazily. The puzzles are taken from
+     * the iterator on the thread consuming the results, only a few chunks
+     * ahead of the results taken so far. Abandoning the returned iterator
+     * leaves those puzzles to be solved in the background.
+     *
+     * Waiting for a result throws a {@link SearchAbortedException} if the
+     * consuming thread is interrupted.
+     *
+     * @param puzzles The puzzles to solve, which must not be changed while
+     *        they are solved.
+     * @param ordered Indicator if the results are returned in the order of
+     *        the puzzles instead of the order they are finished in.
+     * @return An iterator over the results.
+     */
+    public Iterator<BatchResult> solve(Iterator<? extends Board> puzzles,
+                                       boolean ordered) {
+        if (puzzles == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "puzzles!");
+        }
+        return new ResultIterator(puzzles, ordered, getExecutor());
+    }
+
+    /**
+     * Gets the statistics of all puzzles finished since this solver was
+     * created or its statistics were last reset.
+     *
+     * @return A snapshot of the statistics.
+     */
+    public BatchStatistics getStatistics() {
+        return new BatchStatistics(puzzles.sum(), solved.sum(), aborted.sum(),
+                solvingNanos.sum(), System.nanoTime() - statisticsStart);
+    }
+
+    /**
+     * Resets the statistics, which starts measuring the throughput anew.
+     */
+    public void resetStatistics() {
+        puzzles.reset();
+        solved.reset();
+        aborted.reset();
+        solvingNanos.reset();
+        statisticsStart = System.nanoTime();
+    }
+
+    /**
+     * Stops the threads once they have solved the puzzles handed to them.
+     * Batches started before cannot hand further puzzles to them, following
+     * batches start new threads.
+     */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Gets the threads solving the puzzles, starting them if necessary.
+     *
+     * @return The executor of the threads.
+     */
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "sudoku-batch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Solves a single puzzle with the solver of the calling thread.
+     *
+     * @param index The position of the puzzle in its batch.
+     * @param puzzle The puzzle to solve.
+     * @return The result of the puzzle.
+     */
+    private BatchResult solvePuzzle(long index, Board puzzle) {
+        SudokuSolver solver = solvers.get();
+        solver.setSearchLimits(searchLimits);
+        long start = System.nanoTime();
+        Board solution = null;
+        SearchAbortedException abort = null;
+        try {
+            solution = solver.findFirstSolution(puzzle);
+        } catch (SearchAbortedException e) {
+            abort = e;
+        }
+        long nanos = System.nanoTime() - start;
+        puzzles.increment();
+        solvingNanos.add(nanos);
+        if (solution != null) {
+            solved.increment();
+        } else if (abort != null) {
+            aborted.increment();
+        }
+        return new BatchResult(index, puzzle, solution, abort, nanos);
+    }
+
+    /**
+     * Solves a chunk of puzzles with the solver of the calling thread.
+     *
+     * @param firstIndex The position of the first puzzle in its batch.
+     * @param chunk The puzzles to solve.
+     * @return The results of the puzzles in their order.
+     */
+    private List<BatchResult> solveChunk(long firstIndex, List<Board> chunk) {
+        List<BatchResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(solvePuzzle(firstIndex + i, chunk.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * An iterator handing chunks of puzzles to the threads and returning
+     * their results. It keeps a bounded number of chunks in flight.
+     */
+    private final class ResultIterator implements Iterator<BatchResult> {
+        private final Iterator<? extends Board> puzzles;
+        private final boolean ordered;
+        private final ExecutorService executor;
+
+        /*
+         * The pending chunks in the order of the puzzles if ordered, the
+         * chunks in the order they are finished otherwise, and the results
+         * of the chunk currently returned.
+         */
+        private final Queue<Future<List<BatchResult>>> pending =
+                new ArrayDeque<>();
+        private final CompletionService<List<BatchResult>> finished;
+        private Iterator<BatchResult> current = null;
+        private int inFlight = 0;
+        private long submitted = 0;
+
+        /**
+         * Creates an iterator over the results of a batch.
+         *
+         * @param puzzles The puzzles of the batch.
+         * @param ordered Indicator if the results are returned in the order
+         *        of the puzzles.
+         * @param executor The threads solving the puzzles.
+         */
+        private ResultIterator(Iterator<? extends Board> puzzles,
+                               boolean ordered, ExecutorService executor) {
+            this.puzzles = puzzles;
+            this.ordered = ordered;
+            this.executor = executor;
+            this.finished = ordered ? null
+                    : new ExecutorCompletionService<>(executor);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            if (current != null && current.hasNext()) {
+                return true;
+            }
+            submit();
+            return inFlight > 0;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public BatchResult next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Error! There are no more "
+                        + "puzzles!");
+            }
+            if (current == null || !current.hasNext()) {
+                current = takeChunk().iterator();
+            }
+            return current.next();
+        }
+
+        /**
+         * Waits for the next chunk of results.
+         *
+         * @return The results of the chunk.
+         */
+        private List<BatchResult> takeChunk() {
+            try {
+                Future<List<BatchResult>> chunk = ordered ? pending.element()
+                        : finished.take();
+                try {
+                    return chunk.get();
+                } finally {
+
+                    /*
+                     * An interrupted wait keeps the chunk pending, so the
+                     * next call still returns its results.
+                     */
+                    if (chunk.isDone()) {
+                        if (ordered) {
+                            pending.remove();
+                        }
+                        --inFlight;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SearchAbortedException(
+                        SearchAbortedException.Reason.INTERRUPTED, 0, 0, 0);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        /**
+         * Hands chunks of puzzles to the threads until enough are in flight.
+         */
+        private void submit() {
+            while (inFlight < threads * CHUNKS_AHEAD_PER_THREAD
+                    && puzzles.hasNext()) {
+                List<Board> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (chunk.size() < CHUNK_SIZE && puzzles.hasNext()) {
+                    Board puzzle = puzzles.next();
+                    if (puzzle == null) {
+                        throw new IllegalArgumentException("Error! Null has "
+                                + "been given as puzzle of a batch!");
+                    }
+                    chunk.add(puzzle);
+                }
+                long firstIndex = submitted;
+                submitted += chunk.size();
+                if (ordered) {
+                    pending.add(executor.submit(
+                            () -> solveChunk(firstIndex, chunk)));
+                } else {
+                    finished.submit(() -> solveChunk(firstIndex, chunk));
+                }
+                ++inFlight;
+            }
+        }
+    }
+}
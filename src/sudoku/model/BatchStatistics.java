@@ -0,0 +1,119 @@
+package sudoku.model;
+
+/**
+ * The aggregate statistics of a {@link BatchSolver} over all puzzles it
+ * solved since it was created or its statistics were last reset. They are a
+ * snapshot, i.e., they do not change while the solver goes on.
+ */
+public final class BatchStatistics {
+    private final long puzzles;
+    private final long solved;
+    private final long aborted;
+    private final long solvingNanos;
+    private final long elapsedNanos;
+
+    /**
+     * Creates the statistics of a batch solver.
+     *
+     * @param puzzles The number of finished puzzles.
+     * @param solved The number of puzzles a solution was found for.
+     * @param aborted The number of puzzles whose search was aborted.
+     * @param solvingNanos The time spent solving by all threads together in
+     *        nanoseconds.
+     * @param elapsedNanos The wall clock time since the statistics were
+     *        started in nanoseconds.
+     */
+    BatchStatistics(long puzzles, long solved, long aborted,
+                    long solvingNanos, long elapsedNanos) {
+        this.puzzles = puzzles;
+        this.solved = solved;
+        this.aborted = aborted;
+        this.solvingNanos = solvingNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the number of finished puzzles, whether they were solved, found
+     * to be unsolvable or aborted.
+     *
+     * @return The number of puzzles.
+     */
+    public long getPuzzles() {
+        return puzzles;
+    }
+
+    /**
+     * Gets the number of puzzles a solution was found for.
+     *
+     * @return The number of solved puzzles.
+     */
+    public long getSolved() {
+        return solved;
+    }
+
+    /**
+     * Gets the number of puzzles found to have no solution.
+     *
+     * @return The number of unsolvable puzzles.
+     */
+    public long getUnsolvable() {
+        return puzzles - solved - aborted;
+    }
+
+    /**
+     * Gets the number of puzzles whose search exceeded the search limits.
+     *
+     * @return The number of aborted puzzles.
+     */
+    public long getAborted() {
+        return aborted;
+    }
+
+    /**
+     * Gets the time spent solving by all threads together.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getSolvingNanos() {
+        return solvingNanos;
+    }
+
+    /**
+     * Gets the wall clock time since the statistics were started.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the average time spent solving a puzzle.
+     *
+     * @return The average time in nanoseconds, or 0 if no puzzle has been
+     *         finished yet.
+     */
+    public double getAverageNanos() {
+        return puzzles == 0 ? 0 : (double) solvingNanos / puzzles;
+    }
+
+    /**
+     * Gets the number of puzzles finished per second of wall clock time.
+     *
+     * @return The throughput, or 0 if no time has passed yet.
+     */
+    public double getThroughput() {
+        return elapsedNanos <= 0 ? 0 : puzzles * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%d puzzles (%d solved, %d unsolvable, %d "
+                + "aborted), %.0f puzzles/s, %.0f ns per puzzle", puzzles,
+                solved, getUnsolvable(), aborted, getThroughput(),
+                getAverageNanos());
+    }
+}
@@ -1,5 +1,7 @@
 package sudoku.model;
 
+import java.util.function.IntConsumer;
+
 /**
  * An interface for the representation and for solving of Sudokus, which
  * provides all methods for editing. It does not only manage numbers, but also
@@ -11,6 +13,11 @@ package sudoku.model;
  *
  * The addressing of cells is exclusively carried as per 3-tuples like
  * (structure, major, minor). See {@link Structure} for more details about that.
+ *
+ * Two boards are equal if they have the same size, contents and
+ * possibilities, even if they are of different implementations. Their hash
+ * codes are derived from {@link #getStateHash()}, so they change whenever the
+ * board is changed.
  */
 public interface Board extends Cloneable, Comparable<Board> {
 
@@ -45,6 +52,17 @@ public interface Board extends Cloneable, Comparable<Board> {
      */
     int getNumbers();
 
+    /**
+     * Gets the geometry of the board, which translates coordinates into cell
+     * indices and knows the cells of every structure. Boards of the same shape
+     * share the same geometry.
+     *
+     * @return The geometry of the board.
+     */
+    default SudokuGeometry getGeometry() {
+        return SudokuGeometry.of(getBoxRows(), getBoxColumns());
+    }
+
     /**
      * Specifies the content of a cell. This is exactly possible one time, i.e.,
      * the content of a already set cell cannot be overridden.
@@ -101,6 +119,228 @@ public interface Board extends Cloneable, Comparable<Board> {
      */
     int[] getPossibilities(Structure struct, int major, int minor);
 
+    /**
+     * Gets all possible values of a cell as bit mask, in which bit {@code
+     * number - 1} is set if {@code number} can be assigned to the cell without
+     * making the Sudoku invalid. If the cell is already set, 0 is returned.
+     * Unlike {@link #getPossibilities(Structure, int, int)} no array is
+     * allocated.
+     *
+     * Bit masks are only available for boards with at most 64 cells per
+     * structure. Larger boards have to use {@link #getNextPossibility(
+     * Structure, int, int, int)} or {@link #forEachPossibility(Structure, int,
+     * int, IntConsumer)}.
+     *
+     * @param struct The coordinate type of the cell.
+     * @param major The major coordinate component of the cell.
+     * @param minor The minor coordinate component of the cell.
+     * @return The bit mask of the left possible values of the cell.
+     * @throws UnsupportedOperationException If the board has more than 64
+     *         cells per structure.
+     */
+    default long getPossibilityMask(Structure struct, int major, int minor) {
+        if (getNumbers() > Long.SIZE) {
+            throw new UnsupportedOperationException("Error! Bit masks are "
+                    + "only available for boards with at most " + Long.SIZE
+                    + " cells per structure!");
+        }
+        long mask = 0;
+        int number = getNextPossibility(struct, major, minor, 1);
+        while (number != -1) {
+            mask |= 1L << (number - 1);
+            number = getNextPossibility(struct, major, minor, number + 1);
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the number of possible values of a cell. If the cell is already
+     * set, 0 is returned.
+     *
+     * @param struct The coordinate type of the cell.
+     * @param major The major coordinate component of the cell.
+     * @param minor The minor coordinate component of the cell.
+     * @return The number of left possible values of the cell.
+     */
+    default int getPossibilityCount(Structure struct, int major, int minor) {
+        int[] possibilities = getPossibilities(struct, major, minor);
+        return possibilities == null ? 0 : possibilities.length;
+    }
+
+    /**
+     * Gets the smallest possible value of a cell which is not smaller than
+     * {@code number}. Iterating over all possibilities of a cell therefore
+     * starts with {@code number} 1 and continues with the last result plus
+     * one until -1 is returned.
+     *
+     * @param struct The coordinate type of the cell.
+     * @param major The major coordinate component of the cell.
+     * @param minor The minor coordinate component of the cell.
+     * @param number The smallest number to consider, at least 1.
+     * @return The next possible value of the cell or -1 if there is none, in
+     *         particular if the cell is already set.
+     */
+    default int getNextPossibility(Structure struct, int major, int minor,
+                                   int number) {
+        if (number < 1) {
+            throw new IllegalArgumentException("Error! The numbers of a "
+                    + "Sudoku start with 1!");
+        }
+        int[] possibilities = getPossibilities(struct, major, minor);
+        if (possibilities != null) {
+            for (int possibility : possibilities) {
+                if (possibility >= number) {
+                    return possibility;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Passes all possible values of a cell in ascending order to {@code
+     * action}. Nothing is passed if the cell is already set.
+     *
+     * @param struct The coordinate type of the cell.
+     * @param major The major coordinate component of the cell.
+     * @param minor The minor coordinate component of the cell.
+     * @param action The action to perform for every possible value.
+     */
+    default void forEachPossibility(Structure struct, int major, int minor,
+                                    IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the action!");
+        }
+        int number = getNextPossibility(struct, major, minor, 1);
+        while (number != -1) {
+            action.accept(number);
+            number = getNextPossibility(struct, major, minor, number + 1);
+        }
+    }
+
+    /**
+     * Gets the index of the unset cell with the fewest possibilities, which
+     * is the first one in row major order if several cells have equally few.
+     * Unset cells without any possibility are ignored. Boards may keep their
+     * cells in buckets by the number of their possibilities, so that finding
+     * the cell does not need to scan the board.
+     *
+     * @return The index of the cell in the {@link SudokuGeometry} of the
+     *         board, or -1 if there is no unset cell with a possibility.
+     */
+    default int getCellWithFewestPossibilities() {
+        SudokuGeometry geometry = getGeometry();
+        int fewestCell = -1;
+        int fewest = getNumbers() + 1;
+        for (int cell = 0; cell < geometry.getCells() && fewest > 1; cell++) {
+            int possibilities = getPossibilityCount(Structure.ROW,
+                    geometry.getRow(cell), geometry.getColumn(cell));
+            if (possibilities > 0 && possibilities < fewest) {
+                fewest = possibilities;
+                fewestCell = cell;
+            }
+        }
+        return fewestCell;
+    }
+
+    /**
+     * Gets the number of cells whose content is set.
+     *
+     * @return The number of set cells.
+     */
+    default int getNumberOfSetCells() {
+        int setCells = 0;
+        for (int i = 0; i < getNumbers(); i++) {
+            for (int j = 0; j < getNumbers(); j++) {
+                if (getCell(Structure.ROW, i, j) != UNSET_CELL) {
+                    ++setCells;
+                }
+            }
+        }
+        return setCells;
+    }
+
+    /**
+     * Gets the positions within a structure which contain {@code number} or
+     * may still be set to it as bit mask, in which bit {@code minor} stands
+     * for the cell at position {@code minor} of the structure.
+     *
+     * Bit masks are only available for boards with at most 64 cells per
+     * structure. Larger boards have to use {@link #getNextPossiblePosition(
+     * Structure, int, int, int)}.
+     *
+     * @param struct The type of the structure.
+     * @param major The number of the structure.
+     * @param number The number whose positions are requested.
+     * @return The bit mask of the positions of {@code number}.
+     * @throws UnsupportedOperationException If the board has more than 64
+     *         cells per structure.
+     */
+    default long getPossiblePositionMask(Structure struct, int major,
+                                         int number) {
+        if (getNumbers() > Long.SIZE) {
+            throw new UnsupportedOperationException("Error! Bit masks are "
+                    + "only available for boards with at most " + Long.SIZE
+                    + " cells per structure!");
+        }
+        long mask = 0;
+        int minor = getNextPossiblePosition(struct, major, number, 0);
+        while (minor != -1) {
+            mask |= 1L << minor;
+            minor = getNextPossiblePosition(struct, major, number, minor + 1);
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the number of cells within a structure which contain {@code
+     * number} or may still be set to it. If this is 0, the board is not
+     * solvable anymore. If this is 1 and the cell is not yet set, the cell has
+     * to be set to {@code number}.
+     *
+     * @param struct The type of the structure.
+     * @param major The number of the structure.
+     * @param number The number whose positions are counted.
+     * @return The number of positions of {@code number}.
+     */
+    default int getPossiblePositionCount(Structure struct, int major,
+                                         int number) {
+        int count = 0;
+        int minor = getNextPossiblePosition(struct, major, number, 0);
+        while (minor != -1) {
+            ++count;
+            minor = getNextPossiblePosition(struct, major, number, minor + 1);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the smallest position within a structure which is not smaller
+     * than {@code minor} and whose cell contains {@code number} or may still
+     * be set to it.
+     *
+     * @param struct The type of the structure.
+     * @param major The number of the structure.
+     * @param number The number whose positions are requested.
+     * @param minor The smallest position to consider, at least 0.
+     * @return The next position of {@code number} or -1 if there is none.
+     */
+    default int getNextPossiblePosition(Structure struct, int major,
+                                        int number, int minor) {
+        if (number < 1 || number > getNumbers() || minor < 0) {
+            throw new IllegalArgumentException("Error! Tried to find a number "
+                    + "that may not be set or a negative position!");
+        }
+        for (int i = minor; i < getNumbers(); i++) {
+            if (getCell(struct, major, i) == number
+                    || getNextPossibility(struct, major, i, number) == number) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Removes a certain number from the possibilities of a cell.
      *
@@ -114,6 +354,133 @@ public interface Board extends Cloneable, Comparable<Board> {
     void removePossibility(Structure struct, int major, int minor,
                            int number) throws InvalidSudokuException;
 
+    /**
+     * Sets the content of a cell like {@link #setCell(Structure, int, int,
+     * int)}, but reports a contradiction by its result instead of an
+     * exception. This is meant for solvers, which run into contradictions all
+     * the time.
+     *
+     * @param struct The coordinate type of the cell.
+     * @param major The major coordinate component of the cell.
+     * @param minor The minor coordinate component of the cell.
+     * @param number The number to which the cell is fixed.
+     * @return {@link Outcome#UNCHANGED} if the cell already contains {@code
+     *         number}, {@link Outcome#CONTRADICTION} if the Sudoku changed to
+     *         unsolvable by setting the number, {@link Outcome#CHANGED}
+     *         otherwise.
+     */
+    default Outcome assign(Structure struct, int major, int minor,
+                           int number) {
+        int content = getCell(struct, major, minor);
+        if (content == number) {
+            return Outcome.UNCHANGED;
+        }
+        if (content != UNSET_CELL) {
+            return Outcome.CONTRADICTION;
+        }
+        try {
+            setCell(struct, major, minor, number);
+        } catch (InvalidSudokuException e) {
+            return Outcome.CONTRADICTION;
+        }
+        return Outcome.CHANGED;
+    }
+
+    /**
+     * Removes a certain number from the possibilities of a cell like {@link
+     * #removePossibility(Structure, int, int, int)}, but reports a
+     * contradiction by its result instead of an exception.
+     *
+     * @param struct The coordinate type of the cell.
+     * @param major The major coordinate component of the cell.
+     * @param minor The minor coordinate component of the cell.
+     * @param number The number to delete.
+     * @return {@link Outcome#UNCHANGED} if {@code number} was no possibility
+     *         of the cell, {@link Outcome#CONTRADICTION} if it was the only
+     *         one left, {@link Outcome#CHANGED} otherwise.
+     */
+    default Outcome eliminate(Structure struct, int major, int minor,
+                              int number) {
+        if (number < 1 || number > getNumbers()) {
+            throw new IllegalArgumentException("Error! Tried to remove the "
+                    + "possibility to set the number " + number + " that may "
+                    + "not be set!");
+        }
+        if (getNextPossibility(struct, major, minor, number) != number) {
+            return Outcome.UNCHANGED;
+        }
+        try {
+            removePossibility(struct, major, minor, number);
+        } catch (InvalidSudokuException e) {
+            return Outcome.CONTRADICTION;
+        }
+        return Outcome.CHANGED;
+    }
+
+    /**
+     * Gets the 64 bit Zobrist hash of the contents and possibilities of the
+     * board. Equal boards have equal hashes, regardless of their
+     * implementation, while different boards have equal hashes only by rare
+     * coincidence. Boards may keep the hash up to date with every change, so
+     * that getting it does not need to scan the board.
+     *
+     * @return The Zobrist hash of the board.
+     */
+    default long getStateHash() {
+        return ZobristHashing.hash(this);
+    }
+
+    /**
+     * Marks the current state of the board. All changes made afterwards can be
+     * undone by passing the returned mark to {@link #rollback(int)}, which
+     * takes time proportional to the number of changes instead of the size of
+     * the board. Marks may be nested, rolling back to a mark also discards all
+     * marks taken after it. Marks are only valid for the board they were taken
+     * on, not for its clones.
+     *
+     * @return The mark of the current state.
+     * @throws UnsupportedOperationException If the board does not support
+     *         rolling back.
+     */
+    default int mark() {
+        throw new UnsupportedOperationException("Error! This board does not "
+                + "support rolling back!");
+    }
+
+    /**
+     * Resets the board to the state it had when {@code mark} was returned by
+     * {@link #mark()}.
+     *
+     * @param mark A mark returned by {@link #mark()}, which has not been
+     *        discarded by rolling back to an earlier mark.
+     * @throws UnsupportedOperationException If the board does not support
+     *         rolling back.
+     */
+    default void rollback(int mark) {
+        throw new UnsupportedOperationException("Error! This board does not "
+                + "support rolling back!");
+    }
+
+    /**
+     * Hands over the cells and structures which changed since the last call of
+     * this method and starts recording anew. Whoever drains the changes takes
+     * over the responsibility to process them, e.g., by passing them to the
+     * saturators, since they are not reported again.
+     *
+     * The first call on a board, which includes every board created by
+     * copying another one, reports all cells as changed. Rolling back reports
+     * the cells that were restored. Clones start with the same pending changes
+     * as the original.
+     *
+     * The returned set stays valid until this method is called the next time.
+     *
+     * @return The changes since the last call, or {@code null} if the board
+     *         does not record its changes.
+     */
+    default ChangeSet drainChanges() {
+        return null;
+    }
+
     /**
      * Deep copies the board.
      *
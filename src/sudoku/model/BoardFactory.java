@@ -0,0 +1,37 @@
+package sudoku.model;
+
+/**
+ * This class creates empty boards using the representation best suited for
+ * the requested size.
+ */
+public final class BoardFactory {
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private BoardFactory() {
+        throw new UnsupportedOperationException(
+                "Illegal call of utility class constructor.");
+    }
+
+    /**
+     * Creates a new empty board with {@code boxRows} rows and {@code boxCols}
+     * columns per box. Boards with at most {@link FlatSudokuBoard#MAX_NUMBERS}
+     * cells per structure are backed by a {@link FlatSudokuBoard}, larger ones
+     * by a {@link WideSudokuBoard}.
+     *
+     * @param boxRows The number of rows per box.
+     * @param boxCols The number of columns per box.
+     * @return A new empty board of the given size.
+     */
+    public static Board createBoard(int boxRows, int boxCols) {
+        if (boxRows <= 0 || boxCols <= 0) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one row and one column per box!");
+        }
+        if (boxRows * boxCols <= FlatSudokuBoard.MAX_NUMBERS) {
+            return new FlatSudokuBoard(boxRows, boxCols);
+        }
+        return new WideSudokuBoard(boxRows, boxCols);
+    }
+}
@@ -0,0 +1,54 @@
+package sudoku.model;
+
+/**
+ * An interface which must be implemented by classes which decide how a
+ * backtracking search branches, i.e., which cell it sets next and in which
+ * order it tries the numbers possible there.
+ *
+ * Strategies are shared by all threads of a parallel search, so they must
+ * not keep any state between their calls unless it is thread safe.
+ */
+public interface BranchingStrategy {
+
+    /**
+     * Selects the cell to branch on. The board is saturated and neither
+     * solved nor found to be unsolvable, so it contains an unset cell and
+     * every unset cell has at least one possibility.
+     *
+     * @param board The board to branch on. Must not be changed.
+     * @return The index of an unset cell in the {@link SudokuGeometry} of
+     *         the board.
+     */
+    int selectCell(Board board);
+
+    /**
+     * Orders the numbers possible in a cell in the order they are tried.
+     *
+     * The default implementation tries the numbers in ascending order.
+     *
+     * @param board The board to branch on. Must not be changed.
+     * @param cell The index of the cell selected by {@link
+     *        #selectCell(Board)}.
+     * @param numbers The array to write the numbers to, which can hold all
+     *        numbers of the board.
+     * @return The number of numbers written, i.e., the number of
+     *         possibilities of the cell.
+     */
+    default int orderNumbers(Board board, int cell, int[] numbers) {
+        if (board == null || numbers == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the board or as the array of numbers!");
+        }
+        SudokuGeometry geometry = board.getGeometry();
+        int row = geometry.getRow(cell);
+        int col = geometry.getColumn(cell);
+        int count = 0;
+        int number = board.getNextPossibility(Structure.ROW, row, col, 1);
+        while (number != -1) {
+            numbers[count++] = number;
+            number = board.getNextPossibility(Structure.ROW, row, col,
+                    number + 1);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,47 @@
+package sudoku.model;
+
+/**
+ * A flag to stop searches from another thread. A search given the token by
+ * {@link SearchLimits#withCancellationToken(CancellationToken)} checks it
+ * regularly and throws a {@link SearchAbortedException} once it has been
+ * cancelled. A token cannot be reset, so every cancellable task needs its own
+ * one.
+ */
+public final class CancellationToken {
+    private final CancellationToken parent;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Creates a new CancellationToken which has not been cancelled.
+     */
+    public CancellationToken() {
+        this(null);
+    }
+
+    /**
+     * Creates a new CancellationToken which is also cancelled when {@code
+     * parent} is cancelled.
+     *
+     * @param parent The token cancelling this one too, or {@code null}.
+     */
+    CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Cancels all searches checking this token.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether this token has been cancelled.
+     *
+     * @return {@code true} if {@link #cancel()} has been called on this
+     *         token or its parent, {@code false} otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled || parent != null && parent.isCancelled();
+    }
+}
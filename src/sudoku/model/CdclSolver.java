@@ -0,0 +1,706 @@
+package sudoku.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A satisfiability solver for formulas in conjunctive normal form using
+ * conflict driven clause learning.
+ *
+ * Variables are numbered from 1, and literals are given as in the DIMACS
+ * format, i.e., {@code v} for variable {@code v} being true and {@code -v}
+ * for it being false. Internally the literal of variable {@code v} is {@code
+ * 2 * v} and its negation {@code 2 * v + 1}.
+ *
+ * Unit propagation watches two literals of every clause. Conflicts are
+ * analyzed up to the first unique implication point, and the learned clause
+ * is minimized by dropping literals implied by the others. Decisions take the
+ * unassigned variable with the highest activity, which is bumped for all
+ * variables involved in conflicts, and reuse the last value of the variable.
+ * The search restarts after a number of conflicts following the Luby
+ * sequence, and the less active half of the learned clauses is deleted
+ * whenever they grow too many.
+ *
+ * Clauses can be added between calls of {@link #solve(SearchBudget)}, which
+ * allows to enumerate all models by excluding every found one.
+ */
+final class CdclSolver {
+
+    /**
+     * The number of conflicts of the first restart interval, which is scaled
+     * by the Luby sequence.
+     */
+    private static final int RESTART_BASE = 100;
+    private static final double VARIABLE_DECAY = 0.95;
+    private static final double CLAUSE_DECAY = 0.999;
+    private static final double RESCALE_LIMIT = 1e100;
+
+    /**
+     * The growth of the allowed number of learned clauses per restart.
+     */
+    private static final double LEARNED_GROWTH = 1.1;
+
+    private static final byte TRUE = 1;
+    private static final byte FALSE = -1;
+    private static final byte UNASSIGNED = 0;
+
+    /**
+     * A clause of the formula. The first two literals are watched, and if the
+     * clause is the reason of an assignment, the assigned literal is the
+     * first one.
+     */
+    private static final class Clause {
+        private final int[] literals;
+        private final boolean learned;
+        private double activity = 0;
+        private boolean deleted = false;
+
+        /**
+         * Creates a clause.
+         *
+         * @param literals The internal literals of the clause.
+         * @param learned Indicator if the clause was learned from a conflict.
+         */
+        private Clause(int[] literals, boolean learned) {
+            this.literals = literals;
+            this.learned = learned;
+        }
+    }
+
+    private int variables = 0;
+    private boolean consistent = true;
+
+    /*
+     * Per literal its value, and per variable the decision level, the reason
+     * of its assignment, the last value, the activity, whether it is seen by
+     * the conflict analysis and its index in the heap of decision candidates.
+     */
+    private byte[] values = new byte[2];
+    private int[] levels = new int[1];
+    private Clause[] reasons = new Clause[1];
+    private boolean[] phases = new boolean[1];
+    private double[] activities = new double[1];
+    private boolean[] seen = new boolean[1];
+    private int[] heapIndices = new int[1];
+    private int[] heap = new int[1];
+    private int heapSize = 0;
+    private double variableIncrement = 1;
+    private double clauseIncrement = 1;
+
+    /*
+     * Per literal the clauses watching it, which are visited when the literal
+     * becomes false.
+     */
+    private Clause[][] watches = new Clause[2][];
+    private int[] watchCounts = new int[2];
+
+    private int[] trail = new int[1];
+    private int trailSize = 0;
+    private int propagated = 0;
+    private int[] levelStarts = new int[1];
+    private int level = 0;
+
+    private final List<Clause> learnedClauses = new ArrayList<>();
+    private int originalClauses = 0;
+    private double maxLearned = 0;
+    private boolean[] model = new boolean[1];
+
+    /**
+     * Creates a solver for the empty formula with no variables.
+     */
+    CdclSolver() {
+    }
+
+    /**
+     * Adds a new variable to the formula.
+     *
+     * @return The number of the new variable.
+     */
+    int newVariable() {
+        int variable = ++variables;
+        if (variable >= levels.length) {
+            int capacity = 2 * variable;
+            values = Arrays.copyOf(values, 2 * capacity);
+            watches = Arrays.copyOf(watches, 2 * capacity);
+            watchCounts = Arrays.copyOf(watchCounts, 2 * capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            activities = Arrays.copyOf(activities, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            heapIndices = Arrays.copyOf(heapIndices, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+            trail = Arrays.copyOf(trail, capacity);
+            levelStarts = Arrays.copyOf(levelStarts, capacity);
+            model = Arrays.copyOf(model, capacity);
+        }
+        heapIndices[variable] = -1;
+        insertIntoHeap(variable);
+        return variable;
+    }
+
+    /**
+     * Sets the value a variable takes when it is decided for the first time.
+     * Later decisions reuse the last value of the variable. Variables are
+     * initially decided to be false.
+     *
+     * @param variable The number of the variable.
+     * @param value The value to decide first.
+     */
+    void setInitialValue(int variable, boolean value) {
+        assert variable > 0 && variable <= variables;
+        phases[variable] = value;
+    }
+
+    /**
+     * Adds a clause to the formula. Literals of the same variable may occur
+     * repeatedly.
+     *
+     * @param clause The literals of the clause in DIMACS format.
+     * @return {@code false} if the formula is known to be unsatisfiable now,
+     *         {@code true} otherwise.
+     */
+    boolean addClause(int... clause) {
+        assert clause != null;
+        if (!consistent) {
+            return false;
+        }
+        backtrack(0);
+        int[] literals = new int[clause.length];
+        int size = 0;
+        for (int dimacs : clause) {
+            assert dimacs != 0 && Math.abs(dimacs) <= variables;
+            int literal = dimacs > 0 ? 2 * dimacs : -2 * dimacs + 1;
+            if (values[literal] == TRUE || contains(literals, size,
+                    literal ^ 1)) {
+                return true;
+            }
+            if (values[literal] == UNASSIGNED
+                    && !contains(literals, size, literal)) {
+                literals[size++] = literal;
+            }
+        }
+        if (size == 0) {
+            consistent = false;
+        } else if (size == 1) {
+            assign(literals[0], null);
+            consistent = propagate() == null;
+        } else {
+            attach(new Clause(Arrays.copyOf(literals, size), false));
+            ++originalClauses;
+        }
+        return consistent;
+    }
+
+    /**
+     * Searches for a model of the formula. Every decision is reported as node
+     * to {@code budget}. If the budget is exceeded, the solver backtracks to
+     * the top level, so it can still be used afterwards.
+     *
+     * @param budget The budget of the search.
+     * @return {@code true} if the formula is satisfiable, {@code false}
+     *         otherwise.
+     * @throws SearchAbortedException If the budget is exceeded.
+     */
+    boolean solve(SearchBudget budget) {
+        if (!consistent) {
+            return false;
+        }
+        maxLearned = Math.max(maxLearned, originalClauses / 3.0);
+        try {
+            for (int restart = 0; true; restart++) {
+                Boolean result = search(RESTART_BASE * luby(restart), budget);
+                if (result != null) {
+                    consistent = result;
+                    return result;
+                }
+                maxLearned *= LEARNED_GROWTH;
+            }
+        } catch (SearchAbortedException e) {
+            backtrack(0);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the value of a variable in the model found by the last successful
+     * call of {@link #solve(SearchBudget)}.
+     *
+     * @param variable The number of the variable.
+     * @return The value of the variable.
+     */
+    boolean getValue(int variable) {
+        assert variable > 0 && variable <= variables;
+        return model[variable];
+    }
+
+    /**
+     * Searches for a model until a number of conflicts occurred.
+     *
+     * @param conflictLimit The number of conflicts before giving up.
+     * @param budget The budget of the search.
+     * @return {@link Boolean#TRUE} if a model was found, {@link
+     *         Boolean#FALSE} if the formula is unsatisfiable, or {@code null}
+     *         if the search should be restarted.
+     */
+    private Boolean search(long conflictLimit, SearchBudget budget) {
+        long conflicts = 0;
+        List<Integer> learned = new ArrayList<>();
+        while (true) {
+            Clause conflict = propagate();
+            if (conflict != null) {
+                ++conflicts;
+                if (level == 0) {
+                    return Boolean.FALSE;
+                }
+                learned.clear();
+                int backtrackLevel = analyze(conflict, learned);
+                backtrack(backtrackLevel);
+                int[] literals = new int[learned.size()];
+                for (int i = 0; i < literals.length; i++) {
+                    literals[i] = learned.get(i);
+                }
+                if (literals.length == 1) {
+                    assign(literals[0], null);
+                } else {
+                    Clause clause = new Clause(literals, true);
+                    attach(clause);
+                    learnedClauses.add(clause);
+                    bumpClause(clause);
+                    assign(literals[0], clause);
+                }
+                variableIncrement /= VARIABLE_DECAY;
+                clauseIncrement /= CLAUSE_DECAY;
+            } else {
+                if (conflicts >= conflictLimit) {
+                    backtrack(0);
+                    return null;
+                }
+                if (learnedClauses.size() - trailSize >= maxLearned) {
+                    reduceLearnedClauses();
+                }
+                int variable = nextDecision();
+                if (variable == 0) {
+                    for (int v = 1; v <= variables; v++) {
+                        model[v] = values[2 * v] == TRUE;
+                    }
+                    backtrack(0);
+                    return Boolean.TRUE;
+                }
+                budget.visitNode();
+                levelStarts[level++] = trailSize;
+                assign(phases[variable] ? 2 * variable : 2 * variable + 1,
+                        null);
+            }
+        }
+    }
+
+    /**
+     * Propagates all assignments not propagated yet by visiting the clauses
+     * watching their negation.
+     *
+     * @return A clause with all literals false, or {@code null} if there is
+     *         no conflict.
+     */
+    private Clause propagate() {
+        while (propagated < trailSize) {
+            int falseLiteral = trail[propagated++] ^ 1;
+            Clause[] watching = watches[falseLiteral];
+            int count = watchCounts[falseLiteral];
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                Clause clause = watching[i];
+                if (clause.deleted) {
+                    continue;
+                }
+                int[] literals = clause.literals;
+                if (literals[0] == falseLiteral) {
+                    literals[0] = literals[1];
+                    literals[1] = falseLiteral;
+                }
+                if (values[literals[0]] != TRUE) {
+                    int k = 2;
+                    while (k < literals.length
+                            && values[literals[k]] == FALSE) {
+                        ++k;
+                    }
+                    if (k < literals.length) {
+                        literals[1] = literals[k];
+                        literals[k] = falseLiteral;
+                        watch(literals[1], clause);
+                        continue;
+                    }
+                    if (values[literals[0]] == FALSE) {
+                        watching[kept++] = clause;
+                        while (++i < count) {
+                            watching[kept++] = watching[i];
+                        }
+                        watchCounts[falseLiteral] = kept;
+                        propagated = trailSize;
+                        return clause;
+                    }
+                    assign(literals[0], clause);
+                }
+                watching[kept++] = clause;
+            }
+            watchCounts[falseLiteral] = kept;
+        }
+        return null;
+    }
+
+    /**
+     * Derives a clause from a conflict whose only literal of the current
+     * decision level is the first one.
+     *
+     * @param conflict The clause with all literals false.
+     * @param learned The list the literals of the derived clause are added
+     *        to. The literal of the highest level besides the first one is
+     *        put second.
+     * @return The decision level to backtrack to.
+     */
+    private int analyze(Clause conflict, List<Integer> learned) {
+        learned.add(0);
+        int open = 0;
+        int literal = -1;
+        int index = trailSize - 1;
+        Clause clause = conflict;
+        do {
+            if (clause.learned) {
+                bumpClause(clause);
+            }
+            int[] literals = clause.literals;
+            for (int i = literal == -1 ? 0 : 1; i < literals.length; i++) {
+                int variable = literals[i] >> 1;
+                if (!seen[variable] && levels[variable] > 0) {
+                    bumpVariable(variable);
+                    seen[variable] = true;
+                    if (levels[variable] == level) {
+                        ++open;
+                    } else {
+                        learned.add(literals[i]);
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                --index;
+            }
+            literal = trail[index--];
+            clause = reasons[literal >> 1];
+            seen[literal >> 1] = false;
+            --open;
+        } while (open > 0);
+        learned.set(0, literal ^ 1);
+
+        int kept = 1;
+        for (int i = 1; i < learned.size(); i++) {
+            if (!isImplied(learned.get(i))) {
+                Collections.swap(learned, kept++, i);
+            }
+        }
+        for (int i = 1; i < learned.size(); i++) {
+            seen[learned.get(i) >> 1] = false;
+        }
+        learned.subList(kept, learned.size()).clear();
+
+        int backtrackLevel = 0;
+        for (int i = 1; i < learned.size(); i++) {
+            int variableLevel = levels[learned.get(i) >> 1];
+            if (variableLevel > backtrackLevel) {
+                backtrackLevel = variableLevel;
+                learned.set(i, learned.set(1, learned.get(i)));
+            }
+        }
+        return backtrackLevel;
+    }
+
+    /**
+     * Checks whether a literal of a learned clause is implied by the other
+     * ones, i.e., all other literals of its reason are in the clause or
+     * assigned at the top level.
+     *
+     * @param literal The literal of the learned clause.
+     * @return {@code true} if the literal can be dropped, {@code false}
+     *         otherwise.
+     */
+    private boolean isImplied(int literal) {
+        Clause reason = reasons[literal >> 1];
+        if (reason == null) {
+            return false;
+        }
+        for (int i = 1; i < reason.literals.length; i++) {
+            int variable = reason.literals[i] >> 1;
+            if (!seen[variable] && levels[variable] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Undoes all assignments above a decision level and saves the values of
+     * the unassigned variables for later decisions.
+     *
+     * @param target The decision level to return to.
+     */
+    private void backtrack(int target) {
+        if (level <= target) {
+            return;
+        }
+        for (int i = trailSize - 1; i >= levelStarts[target]; i--) {
+            int variable = trail[i] >> 1;
+            phases[variable] = (trail[i] & 1) == 0;
+            values[trail[i]] = UNASSIGNED;
+            values[trail[i] ^ 1] = UNASSIGNED;
+            reasons[variable] = null;
+            if (heapIndices[variable] < 0) {
+                insertIntoHeap(variable);
+            }
+        }
+        trailSize = levelStarts[target];
+        propagated = trailSize;
+        level = target;
+    }
+
+    /**
+     * Makes a literal true.
+     *
+     * @param literal The internal literal.
+     * @param reason The clause implying the literal, or {@code null} for
+     *        decisions and top level facts.
+     */
+    private void assign(int literal, Clause reason) {
+        int variable = literal >> 1;
+        values[literal] = TRUE;
+        values[literal ^ 1] = FALSE;
+        levels[variable] = level;
+        reasons[variable] = reason;
+        trail[trailSize++] = literal;
+    }
+
+    /**
+     * Returns the unassigned variable with the highest activity.
+     *
+     * @return The variable, or 0 if all variables are assigned.
+     */
+    private int nextDecision() {
+        while (heapSize > 0) {
+            int variable = removeFromHeap();
+            if (values[2 * variable] == UNASSIGNED) {
+                return variable;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Deletes the less active half of the learned clauses which are no
+     * reasons of current assignments and have more than two literals.
+     */
+    private void reduceLearnedClauses() {
+        learnedClauses.sort((c1, c2) -> Double.compare(c1.activity,
+                c2.activity));
+        int kept = 0;
+        int half = learnedClauses.size() / 2;
+        for (int i = 0; i < learnedClauses.size(); i++) {
+            Clause clause = learnedClauses.get(i);
+            int first = clause.literals[0];
+            boolean locked = reasons[first >> 1] == clause
+                    && values[first] == TRUE;
+            if (i < half && !locked && clause.literals.length > 2) {
+                clause.deleted = true;
+            } else {
+                learnedClauses.set(kept++, clause);
+            }
+        }
+        learnedClauses.subList(kept, learnedClauses.size()).clear();
+    }
+
+    /**
+     * Lets a clause watch its first two literals.
+     *
+     * @param clause The clause.
+     */
+    private void attach(Clause clause) {
+        watch(clause.literals[0], clause);
+        watch(clause.literals[1], clause);
+    }
+
+    /**
+     * Adds a clause to the watchers of a literal.
+     *
+     * @param literal The watched literal.
+     * @param clause The watching clause.
+     */
+    private void watch(int literal, Clause clause) {
+        if (watches[literal] == null) {
+            watches[literal] = new Clause[4];
+        } else if (watchCounts[literal] == watches[literal].length) {
+            watches[literal] = Arrays.copyOf(watches[literal],
+                    2 * watchCounts[literal]);
+        }
+        watches[literal][watchCounts[literal]++] = clause;
+    }
+
+    /**
+     * Increases the activity of a variable involved in a conflict.
+     *
+     * @param variable The variable.
+     */
+    private void bumpVariable(int variable) {
+        activities[variable] += variableIncrement;
+        if (activities[variable] > RESCALE_LIMIT) {
+            for (int v = 1; v <= variables; v++) {
+                activities[v] /= RESCALE_LIMIT;
+            }
+            variableIncrement /= RESCALE_LIMIT;
+        }
+        if (heapIndices[variable] >= 0) {
+            siftUp(heapIndices[variable]);
+        }
+    }
+
+    /**
+     * Increases the activity of a learned clause involved in a conflict.
+     *
+     * @param clause The clause.
+     */
+    private void bumpClause(Clause clause) {
+        clause.activity += clauseIncrement;
+        if (clause.activity > RESCALE_LIMIT) {
+            for (Clause learned : learnedClauses) {
+                learned.activity /= RESCALE_LIMIT;
+            }
+            clauseIncrement /= RESCALE_LIMIT;
+        }
+    }
+
+    /**
+     * Inserts a variable into the heap of decision candidates.
+     *
+     * @param variable The variable.
+     */
+    private void insertIntoHeap(int variable) {
+        heap[heapSize] = variable;
+        heapIndices[variable] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    /**
+     * Removes the variable with the highest activity from the heap of
+     * decision candidates.
+     *
+     * @return The removed variable.
+     */
+    private int removeFromHeap() {
+        int top = heap[0];
+        heapIndices[top] = -1;
+        if (--heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndices[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Moves a variable up the heap while it is more active than its parent.
+     * Variables of equal activity are ordered by their number.
+     *
+     * @param index The index of the variable in the heap.
+     */
+    private void siftUp(int index) {
+        int variable = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isBefore(variable, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heapIndices[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = variable;
+        heapIndices[variable] = index;
+    }
+
+    /**
+     * Moves a variable down the heap while a child is more active.
+     *
+     * @param index The index of the variable in the heap.
+     */
+    private void siftDown(int index) {
+        int variable = heap[index];
+        while (2 * index + 1 < heapSize) {
+            int child = 2 * index + 1;
+            if (child + 1 < heapSize && isBefore(heap[child + 1],
+                    heap[child])) {
+                ++child;
+            }
+            if (!isBefore(heap[child], variable)) {
+                break;
+            }
+            heap[index] = heap[child];
+            heapIndices[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = variable;
+        heapIndices[variable] = index;
+    }
+
+    /**
+     * Checks whether a variable is to be decided before another one.
+     *
+     * @param variable The first variable.
+     * @param other The second variable.
+     * @return {@code true} if the first variable is more active, or equally
+     *         active with a smaller number, {@code false} otherwise.
+     */
+    private boolean isBefore(int variable, int other) {
+        return activities[variable] > activities[other]
+                || activities[variable] == activities[other]
+                && variable < other;
+    }
+
+    /**
+     * Checks whether the first {@code size} entries of an array contain a
+     * value.
+     *
+     * @param array The array.
+     * @param size The number of entries to check.
+     * @param value The value to search.
+     * @return {@code true} if the value is contained, {@code false}
+     *         otherwise.
+     */
+    private static boolean contains(int[] array, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an element of the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, ...
+     *
+     * @param index The index of the element, starting at 0.
+     * @return The element.
+     */
+    private static long luby(int index) {
+        long size = 1;
+        int exponent = 0;
+        while (size < index + 1) {
+            size = 2 * size + 1;
+            ++exponent;
+        }
+        long x = index;
+        while (size - 1 != x) {
+            size = (size - 1) / 2;
+            --exponent;
+            x %= size;
+        }
+        return 1L << exponent;
+    }
+}
@@ -0,0 +1,196 @@
+package sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * The cells and structures of a board which changed since a certain point in
+ * time. A cell changed if it was set or lost a possibility, a structure
+ * changed if one of its cells changed. Cells and structures are identified by
+ * their indices in the {@link SudokuGeometry} of the board, and every one of
+ * them is contained at most once, in the order it first changed.
+ *
+ * Change sets are recorded by boards and handed to saturators by {@link
+ * Board#drainChanges()}, so that the saturators only have to look at the
+ * parts of the board where new deductions may have become possible.
+ */
+public final class ChangeSet {
+    private final SudokuGeometry geometry;
+    private final int[] cells;
+    private final boolean[] containsCell;
+    private int cellCount = 0;
+    private final int[] units;
+    private final boolean[] containsUnit;
+    private int unitCount = 0;
+
+    /**
+     * Creates a new empty change set for boards of the shape {@code
+     * geometry}.
+     *
+     * @param geometry The geometry of the board whose changes are recorded.
+     */
+    ChangeSet(SudokuGeometry geometry) {
+        assert geometry != null;
+        this.geometry = geometry;
+        cells = new int[geometry.getCells()];
+        containsCell = new boolean[geometry.getCells()];
+        units = new int[geometry.getUnits()];
+        containsUnit = new boolean[geometry.getUnits()];
+    }
+
+    /**
+     * Creates a copy of {@code other}.
+     *
+     * @param other The change set to copy.
+     */
+    private ChangeSet(ChangeSet other) {
+        geometry = other.geometry;
+        cells = other.cells.clone();
+        containsCell = other.containsCell.clone();
+        cellCount = other.cellCount;
+        units = other.units.clone();
+        containsUnit = other.containsUnit.clone();
+        unitCount = other.unitCount;
+    }
+
+    /**
+     * Checks whether nothing changed.
+     *
+     * @return {@code true} if the set contains no cell, {@code false}
+     *         otherwise.
+     */
+    public boolean isEmpty() {
+        return cellCount == 0;
+    }
+
+    /**
+     * Gets the number of changed cells.
+     *
+     * @return The number of changed cells.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Gets the index of the {@code i}-th changed cell.
+     *
+     * @param i The number of the changed cell, from 0 to {@code
+     *        getCellCount() - 1}.
+     * @return The index of the cell.
+     */
+    public int getCell(int i) {
+        if (i < 0 || i >= cellCount) {
+            throw new IllegalArgumentException("Error! There is no changed "
+                    + "cell with number " + i + "!");
+        }
+        return cells[i];
+    }
+
+    /**
+     * Gets the number of changed structures.
+     *
+     * @return The number of changed structures.
+     */
+    public int getUnitCount() {
+        return unitCount;
+    }
+
+    /**
+     * Gets the index of the {@code i}-th changed structure.
+     *
+     * @param i The number of the changed structure, from 0 to {@code
+     *        getUnitCount() - 1}.
+     * @return The index of the structure.
+     */
+    public int getUnit(int i) {
+        if (i < 0 || i >= unitCount) {
+            throw new IllegalArgumentException("Error! There is no changed "
+                    + "structure with number " + i + "!");
+        }
+        return units[i];
+    }
+
+    /**
+     * Adds a cell and the structures containing it to the set.
+     *
+     * @param cell The index of the changed cell.
+     */
+    void add(int cell) {
+        if (containsCell[cell]) {
+            return;
+        }
+        containsCell[cell] = true;
+        cells[cellCount++] = cell;
+        addUnit(geometry.getUnit(Structure.ROW, geometry.getRow(cell)));
+        addUnit(geometry.getUnit(Structure.COL, geometry.getColumn(cell)));
+        addUnit(geometry.getUnit(Structure.BOX, geometry.getBox(cell)));
+    }
+
+    /**
+     * Adds all cells and structures of {@code other} to the set.
+     *
+     * @param other The change set to add, which belongs to a board of the
+     *        same shape.
+     */
+    void add(ChangeSet other) {
+        assert other.geometry == geometry;
+        for (int i = 0; i < other.cellCount; i++) {
+            add(other.cells[i]);
+        }
+    }
+
+    /**
+     * Adds all cells and structures to the set.
+     */
+    void addAll() {
+        for (int cell = 0; cell < cells.length; cell++) {
+            add(cell);
+        }
+    }
+
+    /**
+     * Removes all cells and structures from the set. This takes time
+     * proportional to the size of the set, not to the size of the board.
+     */
+    void clear() {
+        for (int i = 0; i < cellCount; i++) {
+            containsCell[cells[i]] = false;
+        }
+        for (int i = 0; i < unitCount; i++) {
+            containsUnit[units[i]] = false;
+        }
+        cellCount = 0;
+        unitCount = 0;
+    }
+
+    /**
+     * Creates an independent copy of this set.
+     *
+     * @return The copy.
+     */
+    ChangeSet copy() {
+        return new ChangeSet(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "cells " + Arrays.toString(Arrays.copyOf(cells, cellCount))
+                + ", structures "
+                + Arrays.toString(Arrays.copyOf(units, unitCount));
+    }
+
+    /**
+     * Adds a structure to the set.
+     *
+     * @param unit The index of the changed structure.
+     */
+    private void addUnit(int unit) {
+        if (!containsUnit[unit]) {
+            containsUnit[unit] = true;
+            units[unitCount++] = unit;
+        }
+    }
+}
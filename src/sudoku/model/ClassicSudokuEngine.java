@@ -0,0 +1,462 @@
+package sudoku.model;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A search specialized to classic Sudokus with 3x3 boxes, which keeps the
+ * whole candidate state of the board in 30 ints.
+ *
+ * The 81 cells are split into three bands of three rows, and every band is
+ * stored as 27 bit mask with bit {@code 9 * row + col} for the cell in the
+ * given row and column of the band. For every number there is one such mask
+ * per band with the cells the number may still be set into, and a further
+ * mask per band holds the set cells. A set cell keeps its content as only
+ * candidate. Setting a number removes it from the peers of the cell by three
+ * bitwise ands, and naked and hidden singles are found by combining the masks
+ * of all numbers or of all cells of a structure.
+ *
+ * The states of the search tree are stacked in a single array, so branching
+ * copies 30 ints and backtracking just drops the top state. An engine can be
+ * loaded with further boards after a search, which reuses its stack.
+ */
+final class ClassicSudokuEngine implements SolutionSearch {
+
+    /**
+     * The number of rows and columns of a box.
+     */
+    static final int BOX_SIZE = 3;
+
+    private static final int NUMBERS = BOX_SIZE * BOX_SIZE;
+    private static final int CELLS = NUMBERS * NUMBERS;
+    private static final int BANDS = BOX_SIZE;
+    private static final int BAND_CELLS = CELLS / BANDS;
+    private static final int FULL_BAND = (1 << BAND_CELLS) - 1;
+    private static final int FULL_ROW = (1 << NUMBERS) - 1;
+
+    /**
+     * The offset of the masks of the set cells within a state.
+     */
+    private static final int SET_CELLS = NUMBERS * BANDS;
+    private static final int STATE_SIZE = SET_CELLS + BANDS;
+
+    /**
+     * The masks of the rows of a band, of the columns within a band and of
+     * the boxes of a band.
+     */
+    private static final int[] ROWS = new int[BOX_SIZE];
+    private static final int[] COLUMNS = new int[NUMBERS];
+    private static final int[] BOXES = new int[BOX_SIZE];
+
+    /**
+     * For every cell its peers in every band.
+     */
+    private static final int[] PEERS = new int[CELLS * BANDS];
+
+    static {
+        for (int i = 0; i < BAND_CELLS; i++) {
+            int row = i / NUMBERS;
+            int col = i % NUMBERS;
+            ROWS[row] |= 1 << i;
+            COLUMNS[col] |= 1 << i;
+            BOXES[col / BOX_SIZE] |= 1 << i;
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            int band = cell / BAND_CELLS;
+            int i = cell % BAND_CELLS;
+            int col = i % NUMBERS;
+            for (int other = 0; other < BANDS; other++) {
+                PEERS[cell * BANDS + other] = COLUMNS[col];
+            }
+            PEERS[cell * BANDS + band] |= ROWS[i / NUMBERS]
+                    | BOXES[col / BOX_SIZE];
+            PEERS[cell * BANDS + band] &= ~(1 << i);
+        }
+    }
+
+    /**
+     * The number of states the stack has room for initially, which suffices
+     * for the search trees of nearly all Sudokus.
+     */
+    private static final int INITIAL_DEPTH = 16;
+
+    /*
+     * The stacked states, the state of depth d starting at index d *
+     * STATE_SIZE. The masks of number n in band b are at index (n - 1) *
+     * BANDS + b of a state.
+     */
+    private int[] states = new int[INITIAL_DEPTH * STATE_SIZE];
+
+    /*
+     * For every depth the branching cell and the candidates not tried yet.
+     */
+    private final int[] cells = new int[CELLS + 1];
+    private final int[] untried = new int[CELLS + 1];
+    private boolean solvable = false;
+
+    /**
+     * Creates an engine without a board, which has to be loaded by {@link
+     * #load(Board)} before searching.
+     */
+    ClassicSudokuEngine() {
+    }
+
+    /**
+     * Creates the search for the solutions of {@code board}, which must have
+     * 3x3 boxes. The contents and the remaining possibilities of the board
+     * are taken over.
+     *
+     * @param board The Sudoku to solve. Will not be changed.
+     */
+    ClassicSudokuEngine(Board board) {
+        load(board);
+    }
+
+    /**
+     * Replaces the Sudoku to search by {@code board}, which must have 3x3
+     * boxes. The contents and the remaining possibilities of the board are
+     * taken over.
+     *
+     * @param board The Sudoku to solve. Will not be changed.
+     */
+    void load(Board board) {
+        assert board != null && board.getBoxRows() == BOX_SIZE
+                && board.getBoxColumns() == BOX_SIZE;
+        Arrays.fill(states, SET_CELLS, STATE_SIZE, 0);
+        for (int i = 0; i < SET_CELLS; i++) {
+            states[i] = FULL_BAND;
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            int row = cell / NUMBERS;
+            int col = cell % NUMBERS;
+            if (board.getCell(Structure.ROW, row, col) == Board.UNSET_CELL) {
+                long possible = board.getPossibilityMask(Structure.ROW, row,
+                        col);
+                int bit = 1 << (cell % BAND_CELLS);
+                for (int i = cell / BAND_CELLS; i < SET_CELLS; i += BANDS) {
+                    if ((possible & 1) == 0) {
+                        states[i] &= ~bit;
+                    }
+                    possible >>>= 1;
+                }
+            }
+        }
+        boolean valid = true;
+        for (int cell = 0; cell < CELLS && valid; cell++) {
+            int content = board.getCell(Structure.ROW, cell / NUMBERS,
+                    cell % NUMBERS);
+            if (content != Board.UNSET_CELL) {
+                valid = assign(0, cell, content);
+            }
+        }
+        solvable = valid && propagate(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The search always branches on the first unset cell with the fewest
+     * numbers left and tries them in ascending order.
+     */
+    @Override
+    public long search(long limit, Consumer<int[]> solutions,
+                       SearchBudget budget) {
+        if (!solvable || limit <= 0) {
+            return 0;
+        }
+        int depth = 0;
+        long found = 0;
+        boolean descend = true;
+        while (true) {
+            int state = depth * STATE_SIZE;
+            if (descend) {
+                if (isSolved(state)) {
+                    ++found;
+                    budget.foundSolutions(1);
+                    if (solutions != null) {
+                        solutions.accept(getContents(state));
+                    }
+                    if (found == limit) {
+                        return found;
+                    }
+                    untried[depth] = 0;
+                } else {
+                    cells[depth] = chooseCell(state);
+                    untried[depth] = getCandidates(state, cells[depth]);
+                }
+            }
+            descend = false;
+            while (untried[depth] != 0 && !descend) {
+                int number = Integer.numberOfTrailingZeros(untried[depth])
+                        + 1;
+                untried[depth] &= untried[depth] - 1;
+                budget.visitNode();
+                if (state + 2 * STATE_SIZE > states.length) {
+                    states = Arrays.copyOf(states, 2 * states.length);
+                }
+                System.arraycopy(states, state, states, state + STATE_SIZE,
+                        STATE_SIZE);
+                descend = assign(state + STATE_SIZE, cells[depth], number)
+                        && propagate(state + STATE_SIZE);
+            }
+            if (descend) {
+                ++depth;
+            } else if (depth == 0) {
+                return found;
+            } else {
+                --depth;
+            }
+        }
+    }
+
+    /**
+     * Sets {@code number} into {@code cell} and removes it from the peers of
+     * the cell.
+     *
+     * @param state The index of the state to change.
+     * @param cell The index of the cell.
+     * @param number The number to set.
+     * @return {@code true} if the number was still possible in the cell,
+     *         {@code false} if setting it is a contradiction.
+     */
+    private boolean assign(int state, int cell, int number) {
+        int band = cell / BAND_CELLS;
+        int bit = 1 << (cell % BAND_CELLS);
+        int own = state + (number - 1) * BANDS;
+        if ((states[own + band] & bit) == 0) {
+            return false;
+        }
+        for (int i = band; i < SET_CELLS; i += BANDS) {
+            states[state + i] &= ~bit;
+        }
+        for (int other = 0; other < BANDS; other++) {
+            states[own + other] &= ~PEERS[cell * BANDS + other];
+        }
+        states[own + band] |= bit;
+        states[state + SET_CELLS + band] |= bit;
+        return true;
+    }
+
+    /**
+     * Sets all naked and hidden singles until there are none left.
+     *
+     * @param state The index of the state to change.
+     * @return {@code false} if a cell or a number in a structure has no
+     *         possibility left, {@code true} otherwise.
+     */
+    private boolean propagate(int state) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int band = 0; band < BANDS; band++) {
+                int atLeastOne = 0;
+                int atLeastTwo = 0;
+                for (int i = band; i < SET_CELLS; i += BANDS) {
+                    int candidates = states[state + i];
+                    atLeastTwo |= atLeastOne & candidates;
+                    atLeastOne |= candidates;
+                }
+                if (atLeastOne != FULL_BAND) {
+                    return false;
+                }
+                int singles = atLeastOne & ~atLeastTwo
+                        & ~states[state + SET_CELLS + band];
+                while (singles != 0) {
+                    int i = Integer.numberOfTrailingZeros(singles);
+                    singles &= singles - 1;
+                    int cell = band * BAND_CELLS + i;
+                    int number = getFirstCandidate(state, cell);
+                    if (number > NUMBERS || !assign(state, cell, number)) {
+                        return false;
+                    }
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                int hiddenSingles = setHiddenSingles(state);
+                if (hiddenSingles < 0) {
+                    return false;
+                }
+                changed = hiddenSingles > 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets every number that is possible in only one unset cell of a
+     * structure into that cell.
+     *
+     * @param state The index of the state to change.
+     * @return The number of set cells, or -1 if a number has no possibility
+     *         left in a structure.
+     */
+    private int setHiddenSingles(int state) {
+        int set = 0;
+        for (int number = 1; number <= NUMBERS; number++) {
+            int own = state + (number - 1) * BANDS;
+            for (int band = 0; band < BANDS; band++) {
+                int candidates = states[own + band];
+                int singles = 0;
+                for (int i = 0; i < BOX_SIZE; i++) {
+                    int inRow = candidates & ROWS[i];
+                    int inBox = candidates & BOXES[i];
+                    if (inRow == 0 || inBox == 0) {
+                        return -1;
+                    }
+                    singles |= (isSingle(inRow) ? inRow : 0)
+                            | (isSingle(inBox) ? inBox : 0);
+                }
+                singles &= ~states[state + SET_CELLS + band];
+                while (singles != 0) {
+                    int cell = band * BAND_CELLS
+                            + Integer.numberOfTrailingZeros(singles);
+                    singles &= singles - 1;
+                    if (!assign(state, cell, number)) {
+                        return -1;
+                    }
+                    ++set;
+                }
+            }
+
+            /*
+             * Fold the rows of every band onto each other to get the columns
+             * the number is possible in at least once and at least twice.
+             */
+            int atLeastOnce = 0;
+            int atLeastTwice = 0;
+            for (int band = 0; band < BANDS; band++) {
+                int candidates = states[own + band];
+                for (int i = 0; i < BOX_SIZE; i++) {
+                    int inRow = candidates >>> (i * NUMBERS) & FULL_ROW;
+                    atLeastTwice |= atLeastOnce & inRow;
+                    atLeastOnce |= inRow;
+                }
+            }
+            if (atLeastOnce != FULL_ROW) {
+                return -1;
+            }
+            int singleColumns = atLeastOnce & ~atLeastTwice;
+            while (singleColumns != 0) {
+                int col = Integer.numberOfTrailingZeros(singleColumns);
+                singleColumns &= singleColumns - 1;
+                for (int band = 0; band < BANDS; band++) {
+                    int inColumn = states[own + band] & COLUMNS[col]
+                            & ~states[state + SET_CELLS + band];
+                    if (inColumn != 0) {
+                        if (!assign(state, band * BAND_CELLS + Integer
+                                .numberOfTrailingZeros(inColumn), number)) {
+                            return -1;
+                        }
+                        ++set;
+                    }
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Returns the first unset cell with two possible numbers, or the first
+     * unset cell with the fewest possible numbers if there is none.
+     *
+     * @param state The index of the state to search through.
+     * @return The index of the cell to branch on.
+     */
+    private int chooseCell(int state) {
+        for (int band = 0; band < BANDS; band++) {
+            int atLeastOne = 0;
+            int atLeastTwo = 0;
+            int atLeastThree = 0;
+            for (int i = band; i < SET_CELLS; i += BANDS) {
+                int candidates = states[state + i];
+                atLeastThree |= atLeastTwo & candidates;
+                atLeastTwo |= atLeastOne & candidates;
+                atLeastOne |= candidates;
+            }
+            int pairs = atLeastTwo & ~atLeastThree;
+            if (pairs != 0) {
+                return band * BAND_CELLS + Integer.numberOfTrailingZeros(pairs);
+            }
+        }
+        int best = -1;
+        int fewest = NUMBERS + 1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int count = Integer.bitCount(getCandidates(state, cell));
+            if (count > 1 && count < fewest) {
+                best = cell;
+                fewest = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the possible numbers of a cell as bit mask, in which bit {@code
+     * number - 1} stands for {@code number}.
+     *
+     * @param state The index of the state.
+     * @param cell The index of the cell.
+     * @return The bit mask of the possible numbers.
+     */
+    private int getCandidates(int state, int cell) {
+        int band = cell / BAND_CELLS;
+        int bit = 1 << (cell % BAND_CELLS);
+        int candidates = 0;
+        for (int number = 0; number < NUMBERS; number++) {
+            if ((states[state + number * BANDS + band] & bit) != 0) {
+                candidates |= 1 << number;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the smallest possible number of a cell.
+     *
+     * @param state The index of the state.
+     * @param cell The index of the cell.
+     * @return The smallest possible number, or {@code NUMBERS + 1} if there
+     *         is none.
+     */
+    private int getFirstCandidate(int state, int cell) {
+        return Integer.numberOfTrailingZeros(getCandidates(state, cell)
+                | 1 << NUMBERS) + 1;
+    }
+
+    /**
+     * Checks whether all cells are set.
+     *
+     * @param state The index of the state.
+     * @return {@code true} if all cells are set, {@code false} otherwise.
+     */
+    private boolean isSolved(int state) {
+        return (states[state + SET_CELLS] & states[state + SET_CELLS + 1]
+                & states[state + SET_CELLS + 2]) == FULL_BAND;
+    }
+
+    /**
+     * Returns the contents of all cells of a solved state.
+     *
+     * @param state The index of the state.
+     * @return The contents of the cells in row major order.
+     */
+    private int[] getContents(int state) {
+        int[] contents = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            contents[cell] = getFirstCandidate(state, cell);
+        }
+        return contents;
+    }
+
+    /**
+     * Checks whether a bit mask has exactly one bit set.
+     *
+     * @param mask The bit mask.
+     * @return {@code true} if exactly one bit is set, {@code false}
+     *         otherwise.
+     */
+    private static boolean isSingle(int mask) {
+        return mask != 0 && (mask & (mask - 1)) == 0;
+    }
+}
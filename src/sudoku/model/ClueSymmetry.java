@@ -0,0 +1,102 @@
+package sudoku.model;
+
+/**
+ * The symmetry patterns the given cells of a generated puzzle may follow.
+ * Every pattern maps a cell to its image, and the cells reached by mapping a
+ * cell repeatedly form its orbit, which is either given or unset as a whole.
+ */
+public enum ClueSymmetry {
+
+    /**
+     * No symmetry, every cell is its own orbit.
+     */
+    NONE {
+        @Override
+        int map(int row, int col, int numbers) {
+            return row * numbers + col;
+        }
+    },
+
+    /**
+     * Point symmetry at the center, i.e., invariance under rotation by 180
+     * degrees.
+     */
+    CENTRAL {
+        @Override
+        int map(int row, int col, int numbers) {
+            return (numbers - 1 - row) * numbers + numbers - 1 - col;
+        }
+    },
+
+    /**
+     * Invariance under rotation by 90 degrees.
+     */
+    QUARTER_TURN {
+        @Override
+        int map(int row, int col, int numbers) {
+            return col * numbers + numbers - 1 - row;
+        }
+    },
+
+    /**
+     * Mirror symmetry at the horizontal center line.
+     */
+    HORIZONTAL {
+        @Override
+        int map(int row, int col, int numbers) {
+            return (numbers - 1 - row) * numbers + col;
+        }
+    },
+
+    /**
+     * Mirror symmetry at the vertical center line.
+     */
+    VERTICAL {
+        @Override
+        int map(int row, int col, int numbers) {
+            return row * numbers + numbers - 1 - col;
+        }
+    },
+
+    /**
+     * Mirror symmetry at the main diagonal.
+     */
+    DIAGONAL {
+        @Override
+        int map(int row, int col, int numbers) {
+            return col * numbers + row;
+        }
+    };
+
+    /**
+     * Maps a cell to its image under the symmetry.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @param numbers The number of rows and columns of the board.
+     * @return The index of the image in row major order.
+     */
+    abstract int map(int row, int col, int numbers);
+
+    /**
+     * Gets the orbit of a cell, i.e., the cells which have to be given
+     * together with it.
+     *
+     * @param cell The index of the cell in row major order.
+     * @param numbers The number of rows and columns of the board.
+     * @return The indices of the cells of the orbit, starting with {@code
+     *         cell}.
+     */
+    int[] getOrbit(int cell, int numbers) {
+        int[] orbit = new int[4];
+        int size = 0;
+        int image = cell;
+        do {
+            orbit[size++] = image;
+            image = map(image / numbers, image % numbers, numbers);
+        } while (image != cell);
+        int[] result = new int[size];
+        System.arraycopy(orbit, 0, result, 0, size);
+        return result;
+    }
+}
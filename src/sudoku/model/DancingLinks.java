@@ -0,0 +1,307 @@
+package sudoku.model;
+
+import java.util.function.Consumer;
+
+/**
+ * The exact cover problem of a Sudoku, solved by Knuth's Algorithm X with
+ * dancing links.
+ *
+ * The matrix has one column for every constraint, i.e., every cell has to be
+ * filled, and every number has to occur once in every row, column and box.
+ * It has one row for every number that may still be set into an unset cell,
+ * which covers the four constraints the number satisfies there. The contents
+ * of the set cells cover their constraints from the start.
+ *
+ * The links are stored in parallel arrays of node indices instead of node
+ * objects. Node 0 is the root, the nodes 1 to the number of constraints are
+ * the column headers, followed by the four nodes of every matrix row.
+ */
+class DancingLinks implements SolutionSearch {
+    private static final int ROOT = 0;
+    private static final int NODES_PER_ROW = Structure.values().length + 1;
+
+    private final SudokuGeometry geometry;
+    private final int[] givens;
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+
+    /*
+     * For column headers the number of nodes left in the column, for the
+     * other nodes the matrix row they belong to.
+     */
+    private final int[] sizeOrRow;
+    private final int[] rowCells;
+    private final int[] rowNumbers;
+    private boolean solvable = true;
+
+    /**
+     * Creates the exact cover matrix of {@code board}.
+     *
+     * @param board The Sudoku to solve. Will not be changed.
+     */
+    DancingLinks(Board board) {
+        assert board != null;
+        geometry = board.getGeometry();
+        int cells = geometry.getCells();
+        int columns = NODES_PER_ROW * cells;
+        givens = new int[cells];
+        int rows = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            int row = geometry.getRow(cell);
+            int col = geometry.getColumn(cell);
+            int content = board.getCell(Structure.ROW, row, col);
+            givens[cell] = content == Board.UNSET_CELL ? 0 : content;
+            if (content == Board.UNSET_CELL) {
+                rows += board.getPossibilityCount(Structure.ROW, row, col);
+            }
+        }
+        int nodes = 1 + columns + NODES_PER_ROW * rows;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        sizeOrRow = new int[nodes];
+        rowCells = new int[rows];
+        rowNumbers = new int[rows];
+        for (int header = ROOT; header <= columns; header++) {
+            left[header] = header == ROOT ? columns : header - 1;
+            right[header] = header == columns ? ROOT : header + 1;
+            up[header] = header;
+            down[header] = header;
+            column[header] = header;
+        }
+        int next = columns + 1;
+        int matrixRow = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (givens[cell] != 0) {
+                continue;
+            }
+            int row = geometry.getRow(cell);
+            int col = geometry.getColumn(cell);
+            int number = board.getNextPossibility(Structure.ROW, row, col, 1);
+            while (number != -1) {
+                rowCells[matrixRow] = cell;
+                rowNumbers[matrixRow] = number;
+                int first = next;
+                for (int i = 0; i < NODES_PER_ROW; i++) {
+                    int node = next++;
+                    appendToColumn(node, getConstraint(i, cell, number));
+                    sizeOrRow[node] = matrixRow;
+                    left[node] = i == 0 ? first + NODES_PER_ROW - 1 : node - 1;
+                    right[node] = i == NODES_PER_ROW - 1 ? first : node + 1;
+                }
+                ++matrixRow;
+                number = board.getNextPossibility(Structure.ROW, row, col,
+                        number + 1);
+            }
+        }
+        for (int cell = 0; cell < cells && solvable; cell++) {
+            if (givens[cell] != 0) {
+                for (int i = 0; i < NODES_PER_ROW && solvable; i++) {
+                    int header = getConstraint(i, cell, givens[cell]);
+                    if (left[right[header]] != header) {
+                        solvable = false;
+                    } else {
+                        cover(header);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The search always branches on the constraint with the fewest rows
+     * left.
+     */
+    @Override
+    public long search(long limit, Consumer<int[]> solutions,
+                       SearchBudget budget) {
+        if (!solvable || limit <= 0) {
+            return 0;
+        }
+        int[] chosen = new int[geometry.getCells() + 1];
+        int[] branched = new int[geometry.getCells() + 1];
+        int depth = 0;
+        long found = 0;
+        boolean descend = true;
+        while (true) {
+            if (descend) {
+                if (right[ROOT] == ROOT) {
+                    ++found;
+                    budget.foundSolutions(1);
+                    if (solutions != null) {
+                        solutions.accept(getContents(chosen, depth));
+                    }
+                    if (found == limit) {
+                        break;
+                    }
+                } else {
+                    int header = chooseColumn();
+                    if (sizeOrRow[header] > 0) {
+                        budget.visitNode();
+                        cover(header);
+                        branched[depth] = header;
+                        chosen[depth] = down[header];
+                        select(chosen[depth]);
+                        ++depth;
+                        continue;
+                    }
+                }
+            }
+            if (depth == 0) {
+                break;
+            }
+            --depth;
+            deselect(chosen[depth]);
+            chosen[depth] = down[chosen[depth]];
+            if (chosen[depth] == branched[depth]) {
+                uncover(branched[depth]);
+                descend = false;
+            } else {
+                budget.visitNode();
+                select(chosen[depth]);
+                ++depth;
+                descend = true;
+            }
+        }
+        for (int i = depth - 1; i >= 0; i--) {
+            deselect(chosen[i]);
+            uncover(branched[i]);
+        }
+        return found;
+    }
+
+    /**
+     * Returns the contents of all cells given the chosen matrix rows.
+     *
+     * @param chosen The nodes of the chosen matrix rows.
+     * @param depth The number of chosen matrix rows.
+     * @return The contents of the cells in row major order.
+     */
+    private int[] getContents(int[] chosen, int depth) {
+        int[] contents = givens.clone();
+        for (int i = 0; i < depth; i++) {
+            int matrixRow = sizeOrRow[chosen[i]];
+            contents[rowCells[matrixRow]] = rowNumbers[matrixRow];
+        }
+        return contents;
+    }
+
+    /**
+     * Returns the first column header with the fewest nodes.
+     *
+     * @return The chosen column header.
+     */
+    private int chooseColumn() {
+        int best = right[ROOT];
+        for (int header = right[best]; header != ROOT;
+             header = right[header]) {
+            if (sizeOrRow[header] < sizeOrRow[best]) {
+                best = header;
+                if (sizeOrRow[best] <= 1) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Covers all other columns of the matrix row of {@code node}.
+     *
+     * @param node A node of the chosen matrix row.
+     */
+    private void select(int node) {
+        for (int other = right[node]; other != node; other = right[other]) {
+            cover(column[other]);
+        }
+    }
+
+    /**
+     * Undoes {@link #select(int)}.
+     *
+     * @param node The node {@link #select(int)} was called with.
+     */
+    private void deselect(int node) {
+        for (int other = left[node]; other != node; other = left[other]) {
+            uncover(column[other]);
+        }
+    }
+
+    /**
+     * Removes a column from the header list and all matrix rows having a node
+     * in it from the other columns.
+     *
+     * @param header The header of the column.
+     */
+    private void cover(int header) {
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+        for (int row = down[header]; row != header; row = down[row]) {
+            for (int node = right[row]; node != row; node = right[node]) {
+                down[up[node]] = down[node];
+                up[down[node]] = up[node];
+                --sizeOrRow[column[node]];
+            }
+        }
+    }
+
+    /**
+     * Undoes {@link #cover(int)}.
+     *
+     * @param header The header of the column.
+     */
+    private void uncover(int header) {
+        for (int row = up[header]; row != header; row = up[row]) {
+            for (int node = left[row]; node != row; node = left[node]) {
+                ++sizeOrRow[column[node]];
+                down[up[node]] = node;
+                up[down[node]] = node;
+            }
+        }
+        right[left[header]] = header;
+        left[right[header]] = header;
+    }
+
+    /**
+     * Appends {@code node} to the bottom of a column.
+     *
+     * @param node The node to append.
+     * @param header The header of the column.
+     */
+    private void appendToColumn(int node, int header) {
+        column[node] = header;
+        up[node] = up[header];
+        down[node] = header;
+        down[up[header]] = node;
+        up[header] = node;
+        ++sizeOrRow[header];
+    }
+
+    /**
+     * Returns the column header of the {@code i}-th constraint satisfied by
+     * setting {@code number} into {@code cell}: the cell itself, or the
+     * number in the row, the column or the box of the cell.
+     *
+     * @param i The number of the constraint, from 0 to 3.
+     * @param cell The index of the cell.
+     * @param number The number set into the cell.
+     * @return The column header of the constraint.
+     */
+    private int getConstraint(int i, int cell, int number) {
+        int cells = geometry.getCells();
+        int numbers = geometry.getNumbers();
+        if (i == 0) {
+            return 1 + cell;
+        }
+        Structure struct = Structure.values()[i - 1];
+        return 1 + i * cells + geometry.getMajor(struct, cell) * numbers
+                + number - 1;
+    }
+}
@@ -0,0 +1,137 @@
+package sudoku.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A Sudoku solver which encodes the board as exact cover problem and solves
+ * it by Knuth's Algorithm X with dancing links. The matrix is built from the
+ * contents and the remaining possibilities of the given board, so the
+ * solutions respect all possibilities removed before.
+ *
+ * Branching always happens on the constraint with the fewest candidates left,
+ * which combines the enforced cell and the enforced number strategies, and
+ * backtracking only relinks nodes instead of copying boards. This makes it
+ * considerably faster than {@link SudokuBoardSolver} for enumerating all
+ * solutions of sparse puzzles.
+ *
+ * The registered solution strategies are only used by {@link
+ * #saturate(Board)}, the search itself does not need them.
+ */
+public class DancingLinksSolver implements SudokuSolver {
+    private final SudokuBoardSolver saturationSolver;
+    private SearchLimits searchLimits;
+
+    /**
+     * Creates a new DancingLinksSolver with no solution strategy.
+     */
+    public DancingLinksSolver() {
+        saturationSolver = new SudokuBoardSolver();
+        searchLimits = SearchLimits.NONE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addSaturator(Saturator saturator) {
+        saturationSolver.addSaturator(saturator);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setSearchLimits(SearchLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "search limits!");
+        }
+        searchLimits = limits;
+        saturationSolver.setSearchLimits(limits);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Board saturate(Board board) {
+        return saturationSolver.saturate(board);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Board findFirstSolution(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        List<Board> solution = getSolvedSudokus(board, 1);
+        return solution.isEmpty() ? null : solution.get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Board> findAllSolutions(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        List<Board> solutions = getSolvedSudokus(board, Long.MAX_VALUE);
+        Collections.sort(solutions);
+        return solutions;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The lexicographic order requires branching on the cells in row major
+     * order, so the solutions are searched like by {@link
+     * SudokuBoardSolver} using the registered solution strategies.
+     */
+    @Override
+    public Iterator<Board> iterateSolutions(Board board) {
+        return saturationSolver.iterateSolutions(board);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long countSolutions(Board board, long limit) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Error! The limit of "
+                    + "solutions must not be negative!");
+        }
+        return new DancingLinks(board).search(limit, null,
+                new SearchBudget(searchLimits));
+    }
+
+    /**
+     * Returns a list containing at most {@code limit} solutions of {@code
+     * board} in the order they are found.
+     *
+     * @param board The board to be solved.
+     * @param limit The greatest number of solutions to find.
+     * @return A list containing solved boards.
+     */
+    private List<Board> getSolvedSudokus(Board board, long limit) {
+        assert board != null;
+        List<Board> solutions = new ArrayList<>();
+        new DancingLinks(board).search(limit,
+                contents -> solutions.add(
+                        SolutionSearch.toBoard(board, contents)),
+                new SearchBudget(searchLimits));
+        return solutions;
+    }
+}
@@ -0,0 +1,62 @@
+package sudoku.model;
+
+/**
+ * A branching strategy selecting the cell with the fewest possibilities and,
+ * among cells with equally few, the one with the most unset peers, known as
+ * degree heuristic. Setting such a cell constrains the most other cells. The
+ * numbers are tried in ascending order.
+ *
+ * Unlike {@link FewestPossibilitiesBranching} this strategy scans all cells
+ * and counts the unset peers of the candidates.
+ */
+public class DegreeBranching implements BranchingStrategy {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int selectCell(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the board to branch on!");
+        }
+        SudokuGeometry geometry = board.getGeometry();
+        int bestCell = -1;
+        int fewest = board.getNumbers() + 1;
+        int mostUnsetPeers = -1;
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            int possibilities = board.getPossibilityCount(Structure.ROW,
+                    geometry.getRow(cell), geometry.getColumn(cell));
+            if (possibilities == 0 || possibilities > fewest) {
+                continue;
+            }
+            int unsetPeers = countUnsetPeers(board, cell);
+            if (possibilities < fewest || unsetPeers > mostUnsetPeers) {
+                fewest = possibilities;
+                mostUnsetPeers = unsetPeers;
+                bestCell = cell;
+            }
+        }
+        return bestCell;
+    }
+
+    /**
+     * Counts the peers of a cell which are not set yet.
+     *
+     * @param board The board the cell is on.
+     * @param cell The index of the cell.
+     * @return The number of unset peers.
+     */
+    private static int countUnsetPeers(Board board, int cell) {
+        SudokuGeometry geometry = board.getGeometry();
+        int unsetPeers = 0;
+        for (int i = 0; i < geometry.getPeerCount(); i++) {
+            int peer = geometry.getPeer(cell, i);
+            if (board.getCell(Structure.ROW, geometry.getRow(peer),
+                    geometry.getColumn(peer)) == Board.UNSET_CELL) {
+                ++unsetPeers;
+            }
+        }
+        return unsetPeers;
+    }
+}
@@ -16,25 +16,74 @@ public class EnforcedCellSaturator implements Saturator {
             throw new IllegalArgumentException("Error! Null has been given"
                     + "as the board to saturate!");
         }
-        boolean boardHasChanged = false;
+        Outcome outcome = Outcome.UNCHANGED;
         int numberOfCellsPerStructure = board.getNumbers();
-        for (int i = 0; i < numberOfCellsPerStructure; i++) {
-            for (int j = 0; j < numberOfCellsPerStructure; j++) {
-                int[] possibleContentInCell = board.getPossibilities(
-                        Structure.ROW, i, j);
-                if (possibleContentInCell != null) {
-                    if (possibleContentInCell.length == 1) {
-                        try {
-                            board.setCell(Structure.ROW, i, j,
-                                    possibleContentInCell[0]);
-                        } catch (InvalidSudokuException e) {
-                            throw new UnsolvableSudokuException();
-                        }
-                        boardHasChanged = true;
-                    }
-                }
+        for (int i = 0; i < numberOfCellsPerStructure
+                && outcome != Outcome.CONTRADICTION; i++) {
+            for (int j = 0; j < numberOfCellsPerStructure
+                    && outcome != Outcome.CONTRADICTION; j++) {
+                outcome = outcome.and(setEnforcedCell(i, j, board));
             }
         }
-        return boardHasChanged;
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException();
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board, ChangeSet changes)
+            throws UnsolvableSudokuException {
+        Outcome outcome = propagate(board, changes);
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException();
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the changed cells are checked, since only those may have lost
+     * their second last possibility.
+     */
+    @Override
+    public Outcome propagate(Board board, ChangeSet changes) {
+        if (board == null || changes == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate or as its changes!");
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        SudokuGeometry geometry = board.getGeometry();
+        for (int i = 0; i < changes.getCellCount()
+                && outcome != Outcome.CONTRADICTION; i++) {
+            int cell = changes.getCell(i);
+            outcome = outcome.and(setEnforcedCell(geometry.getRow(cell),
+                    geometry.getColumn(cell), board));
+        }
+        return outcome;
+    }
+
+    /**
+     * Sets the cell in row {@code row} and column {@code col} to its last
+     * possibility if only one is left.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @param board The board the cell is on.
+     * @return {@link Outcome#CHANGED} if the cell was set, {@link
+     *         Outcome#CONTRADICTION} if setting it made the Sudoku invalid,
+     *         {@link Outcome#UNCHANGED} otherwise.
+     */
+    private Outcome setEnforcedCell(int row, int col, Board board) {
+        assert board != null;
+        if (board.getPossibilityCount(Structure.ROW, row, col) != 1) {
+            return Outcome.UNCHANGED;
+        }
+        return board.assign(Structure.ROW, row, col,
+                board.getNextPossibility(Structure.ROW, row, col, 1));
     }
 }
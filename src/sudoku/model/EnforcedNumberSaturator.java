@@ -16,65 +16,109 @@ public class EnforcedNumberSaturator implements Saturator {
             throw new IllegalArgumentException("Error! Null has been given"
                     + "as the board to saturate!");
         }
-        boolean boardHasChanged = false;
+        Outcome outcome = Outcome.UNCHANGED;
         int numberOfCellsPerStructure = board.getNumbers();
-        int[] lastOccurrence = new int[board.getNumbers()];
-
-        /*
-         * The position in this is indexing a counter that gives the number of
-         * times position + 1 may be inserted into the cells of the structure.
-         */
-        int[] possibleContentCounters;
         for (Structure structure : Structure.values()) {
             for (int i = 0; i < numberOfCellsPerStructure; i++) {
-                possibleContentCounters =
-                        getPossibilityCounters(structure, i, board,
-                                lastOccurrence);
-                for (int j = 0; j < numberOfCellsPerStructure; j++) {
-                    if (possibleContentCounters[j] == 1) {
-                        try {
-                            board.setCell(structure, i, lastOccurrence[j],
-                                    j + 1);
-                        } catch (InvalidSudokuException e) {
-                            throw new UnsolvableSudokuException("Error! "
-                                    + "Setting a cell made the Sudoku "
-                                    + "invalid!");
-                        }
-                        boardHasChanged = true;
-                    }
+                outcome = outcome.and(setEnforcedNumbers(structure, i, board));
+                if (outcome == Outcome.CONTRADICTION) {
+                    throw new UnsolvableSudokuException("Error! A number "
+                            + "cannot be set anywhere in a structure or "
+                            + "setting it made the Sudoku invalid!");
                 }
-
             }
         }
-        return boardHasChanged;
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board, ChangeSet changes)
+            throws UnsolvableSudokuException {
+        Outcome outcome = propagate(board, changes);
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException("Error! A number cannot be "
+                    + "set anywhere in a structure or setting it made the "
+                    + "Sudoku invalid!");
+        }
+        return outcome == Outcome.CHANGED;
     }
 
     /**
-     * Returns the possibility counters for all numbers that may be filled into
-     * the Sudoku and saves their last occurrence into {@code lastOccurrence}
-     * for the specified structure.
+     * {@inheritDoc}
+     *
+     * Only the changed structures are checked, since only those may have lost
+     * the second last position for a number.
+     */
+    @Override
+    public Outcome propagate(Board board, ChangeSet changes) {
+        if (board == null || changes == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate or as its changes!");
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        SudokuGeometry geometry = board.getGeometry();
+        for (int i = 0; i < changes.getUnitCount()
+                && outcome != Outcome.CONTRADICTION; i++) {
+            int unit = changes.getUnit(i);
+            outcome = outcome.and(setEnforcedNumbers(
+                    geometry.getUnitStructure(unit),
+                    geometry.getUnitMajor(unit), board));
+        }
+        return outcome;
+    }
+
+    /**
+     * Sets every number into the specified structure for which there is only
+     * one cell left which may contain it.
      *
      * @param struct The structure that should be analyzed.
      * @param major The number of the structure.
      * @param board The board the structure is on.
-     * @param lastOccurence The array the last occurrences should be saved to.
-     * @return The possibility counters.
+     * @return {@link Outcome#CHANGED} if a number was set, {@link
+     *         Outcome#CONTRADICTION} if a number cannot be set anywhere in
+     *         the structure or setting it made the Sudoku invalid, {@link
+     *         Outcome#UNCHANGED} otherwise.
      */
-    private int[] getPossibilityCounters(Structure struct, int major,
-                                        Board board, int[] lastOccurence) {
-        assert board != null && major >= 0 && major < board.getNumbers()
-                && lastOccurence != null;
-        int[] counters = new int[board.getNumbers()];
-        for (int i = 0; i < board.getNumbers(); i++) {
-            int[] possibilities = board.getPossibilities(struct, major, i);
-            if (possibilities == null) {
-                continue;
-            }
-            for (int possibility : possibilities) {
-                ++counters[possibility - 1];
-                lastOccurence[possibility - 1] = i;
-            }
+    private Outcome setEnforcedNumbers(Structure struct, int major,
+                                       Board board) {
+        assert board != null && major >= 0 && major < board.getNumbers();
+        Outcome outcome = Outcome.UNCHANGED;
+        for (int number = 1; number <= board.getNumbers()
+                && outcome != Outcome.CONTRADICTION; number++) {
+            outcome = outcome.and(setEnforcedNumber(struct, major, number,
+                    board));
+        }
+        return outcome;
+    }
+
+    /**
+     * Sets {@code number} into the specified structure if there is only one
+     * cell left which may contain it.
+     *
+     * @param struct The structure that should be analyzed.
+     * @param major The number of the structure.
+     * @param number The number to set.
+     * @param board The board the structure is on.
+     * @return {@link Outcome#CHANGED} if the number was set, {@link
+     *         Outcome#CONTRADICTION} if the number cannot be set anywhere in
+     *         the structure or setting it made the Sudoku invalid, {@link
+     *         Outcome#UNCHANGED} otherwise.
+     */
+    private Outcome setEnforcedNumber(Structure struct, int major, int number,
+                                      Board board) {
+        assert board != null && major >= 0 && major < board.getNumbers();
+        int positions = board.getPossiblePositionCount(struct, major, number);
+        if (positions == 0) {
+            return Outcome.CONTRADICTION;
+        }
+        if (positions > 1) {
+            return Outcome.UNCHANGED;
         }
-        return counters;
+        return board.assign(struct, major,
+                board.getNextPossiblePosition(struct, major, number, 0),
+                number);
     }
 }
@@ -0,0 +1,26 @@
+package sudoku.model;
+
+/**
+ * A branching strategy selecting the cell with the fewest possibilities,
+ * known as minimum remaining values heuristic, and trying its numbers in
+ * ascending order. Among cells with equally few possibilities the first one
+ * in row major order is selected.
+ *
+ * The cell is found by {@link Board#getCellWithFewestPossibilities()}, which
+ * takes constant time on boards keeping their cells in buckets, like {@link
+ * FlatSudokuBoard}.
+ */
+public class FewestPossibilitiesBranching implements BranchingStrategy {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int selectCell(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the board to branch on!");
+        }
+        return board.getCellWithFewestPossibilities();
+    }
+}
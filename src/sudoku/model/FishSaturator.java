@@ -0,0 +1,171 @@
+package sudoku.model;
+
+/**
+ * A class holding the algorithm to solve a Sudoku by the basic fish
+ * strategies. Therefore it is checked for every number if there are as many
+ * rows as columns, such that the number may only be set into these columns
+ * within these rows, e.g., two rows in which the number may only be set into
+ * the same two columns. Since the number has to be set once into every one of
+ * the rows, it occupies the columns, so it is removed from the possibilities
+ * of the other cells of the columns. The same holds with rows and columns
+ * exchanged.
+ *
+ * The strategy is applied to fishes of a fixed size, X-Wings, Swordfishes or
+ * Jellyfishes, and leaves boards with more than 64 cells per structure
+ * unchanged.
+ */
+public class FishSaturator implements Saturator {
+
+    /**
+     * The greatest size of the fishes which can be searched.
+     */
+    public static final int MAX_SIZE = 4;
+
+    private final int size;
+
+    /**
+     * Creates a new FishSaturator searching for fishes of {@code size} rows
+     * or columns.
+     *
+     * @param size The number of rows or columns of the fishes, from 2 for
+     *        X-Wings to {@link #MAX_SIZE} for Jellyfishes.
+     */
+    public FishSaturator(int size) {
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Error! The size of the "
+                    + "fishes must be between 2 and " + MAX_SIZE + "!");
+        }
+        this.size = size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board) throws UnsolvableSudokuException {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate!");
+        }
+        Outcome outcome = removeFishes(board);
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException("Error! A number may only be "
+                    + "set into fewer columns of some rows than rows!");
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board, ChangeSet changes)
+            throws UnsolvableSudokuException {
+        Outcome outcome = propagate(board, changes);
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException("Error! A number may only be "
+                    + "set into fewer columns of some rows than rows!");
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * A fish spans rows and columns all over the board and the changes do
+     * not tell which numbers lost a position, so the whole board is checked
+     * whenever something changed.
+     */
+    @Override
+    public Outcome propagate(Board board, ChangeSet changes) {
+        if (board == null || changes == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate or as its changes!");
+        }
+        return changes.isEmpty() ? Outcome.UNCHANGED : removeFishes(board);
+    }
+
+    /**
+     * Removes the numbers of every fish from the possibilities of the other
+     * cells of the covered rows or columns.
+     *
+     * @param board The board to analyze.
+     * @return {@link Outcome#CHANGED} if a possibility was removed, {@link
+     *         Outcome#CONTRADICTION} if a number may only be set into fewer
+     *         columns of some rows than rows, or vice versa, or removing a
+     *         possibility made the Sudoku invalid, {@link Outcome#UNCHANGED}
+     *         otherwise.
+     */
+    private Outcome removeFishes(Board board) {
+        assert board != null;
+        if (!LockedSets.isApplicable(board)) {
+            return Outcome.UNCHANGED;
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        for (int number = 1; number <= board.getNumbers()
+                && outcome != Outcome.CONTRADICTION; number++) {
+            outcome = outcome.and(removeFishes(Structure.ROW, Structure.COL,
+                    number, board));
+            if (outcome != Outcome.CONTRADICTION) {
+                outcome = outcome.and(removeFishes(Structure.COL,
+                        Structure.ROW, number, board));
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Removes {@code number} from the possibilities of the cells of the
+     * covered lines of every fish with base lines of type {@code base} which
+     * do not belong to the base lines.
+     *
+     * @param base The type of the base lines, either rows or columns.
+     * @param cover The other type of lines.
+     * @param number The number to find the fishes for.
+     * @param board The board to analyze.
+     * @return The outcome like {@link #removeFishes(Board)}.
+     */
+    private Outcome removeFishes(Structure base, Structure cover, int number,
+                                 Board board) {
+        assert board != null && base != cover;
+        int numbers = board.getNumbers();
+        int[] lines = new int[numbers];
+        long[] masks = new long[numbers];
+        int count = 0;
+        int missing = 0;
+        for (int line = 0; line < numbers; line++) {
+            long mask = board.getPossiblePositionMask(base, line, number);
+            if (Long.bitCount(mask) == 1 && board.getCell(base, line,
+                    Long.numberOfTrailingZeros(mask)) == number) {
+                continue;
+            }
+            ++missing;
+            if (Long.bitCount(mask) <= size) {
+                lines[count] = line;
+                masks[count++] = mask;
+            }
+        }
+        if (missing <= size) {
+            return Outcome.UNCHANGED;
+        }
+        return LockedSets.forEach(masks, count, size, (members, covered) -> {
+            long fish = 0;
+            for (long left = members; left != 0; left &= left - 1) {
+                fish |= 1L << lines[Long.numberOfTrailingZeros(left)];
+            }
+            Outcome outcome = Outcome.UNCHANGED;
+            for (long left = covered; left != 0
+                    && outcome != Outcome.CONTRADICTION; left &= left - 1) {
+                int coverLine = Long.numberOfTrailingZeros(left);
+                long removed = board.getPossiblePositionMask(cover, coverLine,
+                        number) & ~fish;
+                for (; removed != 0 && outcome != Outcome.CONTRADICTION;
+                        removed &= removed - 1) {
+                    outcome = outcome.and(board.eliminate(cover, coverLine,
+                            Long.numberOfTrailingZeros(removed), number));
+                }
+            }
+            return outcome;
+        });
+    }
+}
@@ -0,0 +1,917 @@
+package sudoku.model;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+
+/**
+ * A board storing its cells in flat primitive arrays instead of one object per
+ * cell. The content of every cell is kept in a {@code byte[]} and the
+ * remaining possibilities of every cell are packed into a single {@code long},
+ * where bit {@code number - 1} is set if {@code number} may still be set into
+ * the cell. Thus, cloning a board only copies two arrays.
+ *
+ * Cells are indexed in row major order, i.e., the cell in row {@code row} and
+ * column {@code col} is stored at index {@code row * getNumbers() + col}.
+ *
+ * Because of the packed representation at most {@link #MAX_NUMBERS} numbers
+ * per structure are supported.
+ *
+ * For every structure and every number the board keeps a bit mask of the
+ * positions in the structure which contain the number or may still be set to
+ * it, as well as the number of set cells and the Zobrist hash of the board.
+ * These are updated with every change, so they can be queried without
+ * scanning the board. Likewise, the unset cells are kept in buckets by the
+ * number of their possibilities, where every bucket is a two level bit set
+ * of cell indices, so the cell with the fewest possibilities is found in
+ * constant time.
+ *
+ * Once {@link #mark()} has been called, every change of a cell is recorded on
+ * an undo trail, so that {@link #rollback(int)} can restore earlier states in
+ * place.
+ *
+ * Once {@link #drainChanges()} has been called, the changed cells are
+ * collected for the next call, so saturation only has to revisit them.
+ */
+public class FlatSudokuBoard implements Board {
+
+    /**
+     * The greatest number of cells per structure this board can hold.
+     */
+    public static final int MAX_NUMBERS = Long.SIZE;
+
+    /**
+     * The value stored in {@link #contents} for a cell which is not yet set.
+     */
+    private static final byte UNSET = 0;
+
+    /**
+     * The cell entry on the trail recording a change of the last set cell.
+     */
+    private static final int LAST_CELL_SET_ENTRY = Integer.MIN_VALUE;
+
+    private final SudokuGeometry geometry;
+    private final int numberOfFieldsPerStructure;
+    private final long allPossibilities;
+    private byte[] contents;
+    private long[] possibilities;
+
+    /*
+     * Indexed by unit * numbers + number - 1, the bit at position minor is set
+     * if the cell at minor in the unit contains number or may be set to it.
+     */
+    private long[] positions;
+
+    /*
+     * The buckets of the unset cells by their number of possibilities. Bucket
+     * b holds the cells with b + 1 possibilities: the bit of every cell is set
+     * in the words of the bucket starting at index b * bucketWords, the bit of
+     * every non-empty word in bucketSummaries[b], and the bit of every
+     * non-empty bucket in nonEmptyBuckets.
+     */
+    private final int bucketWords;
+    private long[] buckets;
+    private long[] bucketSummaries;
+    private long nonEmptyBuckets = 0;
+    private int setCells = 0;
+    private long hash = 0;
+    private int lastCellSet = -1;
+
+    /*
+     * The undo trail. Each entry consists of a cell and its former value. A
+     * cell index i denotes a change of the possibilities, ~i a change of the
+     * content of cell i, and LAST_CELL_SET_ENTRY a change of lastCellSet.
+     */
+    private boolean trailing = false;
+    private int trailSize = 0;
+    private int[] trailCells = new int[0];
+    private long[] trailValues = new long[0];
+
+    /*
+     * The changes recorded since the last call of drainChanges() and the set
+     * handed out by it, which is reused for recording after the next call.
+     * Both are null as long as the changes are not asked for.
+     */
+    private ChangeSet changes = null;
+    private ChangeSet drainedChanges = null;
+
+    /**
+     * Creates a new empty FlatSudokuBoard that contains {@code boxRows} rows
+     * and {@code boxCols} columns per box resulting in {@code boxRows *
+     * boxCols} cells per row and per column.
+     *
+     * @param boxRows The number of rows of a box.
+     * @param boxCols The number of columns of a box.
+     */
+    public FlatSudokuBoard(int boxRows, int boxCols) {
+        if (boxRows <= 0 || boxCols <= 0) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one row and one column per box!");
+        }
+        if (boxRows * boxCols > MAX_NUMBERS) {
+            throw new IllegalArgumentException("Error! A FlatSudokuBoard "
+                    + "supports at most " + MAX_NUMBERS + " cells per "
+                    + "structure!");
+        }
+        geometry = SudokuGeometry.of(boxRows, boxCols);
+        numberOfFieldsPerStructure = boxRows * boxCols;
+        allPossibilities = numberOfFieldsPerStructure == Long.SIZE ? -1L
+                : (1L << numberOfFieldsPerStructure) - 1;
+        contents = new byte[geometry.getCells()];
+        possibilities = new long[geometry.getCells()];
+        Arrays.fill(possibilities, allPossibilities);
+        positions = new long[geometry.getUnits() * numberOfFieldsPerStructure];
+        Arrays.fill(positions, allPossibilities);
+        bucketWords = (geometry.getCells() + Long.SIZE - 1) / Long.SIZE;
+        buckets = new long[numberOfFieldsPerStructure * bucketWords];
+        bucketSummaries = new long[numberOfFieldsPerStructure];
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            moveToBucket(cell, 0, numberOfFieldsPerStructure);
+        }
+    }
+
+    /**
+     * Creates a FlatSudokuBoard with the same size, contents and possibilities
+     * as {@code board}.
+     *
+     * @param board The board to copy.
+     * @return A new board equal to {@code board}.
+     */
+    public static FlatSudokuBoard copyOf(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the board to copy!");
+        }
+        FlatSudokuBoard copy = new FlatSudokuBoard(board.getBoxRows(),
+                board.getBoxColumns());
+        SudokuGeometry geometry = copy.geometry;
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            int row = geometry.getRow(cell);
+            int col = geometry.getColumn(cell);
+            int content = board.getCell(Structure.ROW, row, col);
+            if (content != Board.UNSET_CELL) {
+                copy.contents[cell] = (byte) content;
+            }
+            copy.possibilities[cell] =
+                    board.getPossibilityMask(Structure.ROW, row, col);
+        }
+        copy.recount();
+        int[] lastCellSet = board.getLastCellSet();
+        if (lastCellSet != null) {
+            copy.lastCellSet = geometry.getCellIndex(Structure.ROW,
+                    lastCellSet[0], lastCellSet[1]);
+        }
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getBoxRows() {
+        return geometry.getBoxRows();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getBoxColumns() {
+        return geometry.getBoxColumns();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumbers() {
+        return numberOfFieldsPerStructure;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setCell(Structure struct, int major, int minor, int number)
+            throws InvalidSudokuException {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to set the number "
+                    + number + "that is less than 1 or greater than "
+                    + numberOfFieldsPerStructure + ", the biggest number "
+                    + "that may be set!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        if (contents[cell] != UNSET && contents[cell] != number) {
+            throw new InvalidSudokuException("Error! Tried to override the "
+                    + "content of an already set cell!");
+        }
+        if (contents[cell] == UNSET
+                && (possibilities[cell] & (1L << (number - 1))) == 0) {
+            throw new InvalidSudokuException("Error! Tried to set a number "
+                    + "in a cell that is not possible there anymore!");
+        }
+        if (assign(cell, number) == Outcome.CONTRADICTION) {
+            throw new InvalidSudokuException("Error! All possibilities "
+                    + "would be removed from an unset cell!");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Outcome assign(Structure struct, int major, int minor,
+                          int number) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to set the number "
+                    + number + "that is less than 1 or greater than "
+                    + numberOfFieldsPerStructure + ", the biggest number "
+                    + "that may be set!");
+        }
+        return assign(geometry.getCellIndex(struct, major, minor), number);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getLastCellSet() {
+        if (lastCellSet < 0) {
+            return null;
+        }
+        return new int[] {geometry.getRow(lastCellSet),
+                geometry.getColumn(lastCellSet)};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getCell(Structure struct, int major, int minor) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to get the "
+                    + "content of a cell that is not on the board!");
+        }
+        int content = contents[geometry.getCellIndex(struct, major, minor)];
+        return content == UNSET ? Board.UNSET_CELL : content;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSolution() {
+        return setCells == contents.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfSetCells() {
+        return setCells;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getPossibilities(Structure struct, int major, int minor) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to get the "
+                    + "possibilities of a cell that is not on the board!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        if (contents[cell] != UNSET) {
+            return null;
+        }
+        long mask = possibilities[cell];
+        int[] result = new int[Long.bitCount(mask)];
+        for (int i = 0; mask != 0; i++) {
+            result[i] = Long.numberOfTrailingZeros(mask) + 1;
+            mask &= mask - 1;
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPossibilityMask(Structure struct, int major, int minor) {
+        return possibilities[geometry.getCellIndex(struct, major, minor)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPossibilityCount(Structure struct, int major, int minor) {
+        return Long.bitCount(
+                possibilities[geometry.getCellIndex(struct, major, minor)]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getCellWithFewestPossibilities() {
+        if (nonEmptyBuckets == 0) {
+            return -1;
+        }
+        int bucket = Long.numberOfTrailingZeros(nonEmptyBuckets);
+        int word = Long.numberOfTrailingZeros(bucketSummaries[bucket]);
+        return word * Long.SIZE + Long.numberOfTrailingZeros(
+                buckets[bucket * bucketWords + word]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNextPossibility(Structure struct, int major, int minor,
+                                  int number) {
+        if (number < 1) {
+            throw new IllegalArgumentException("Error! The numbers of a "
+                    + "Sudoku start with 1!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        if (number > numberOfFieldsPerStructure) {
+            return -1;
+        }
+        long left = possibilities[cell] & (-1L << (number - 1));
+        return left == 0 ? -1 : Long.numberOfTrailingZeros(left) + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachPossibility(Structure struct, int major, int minor,
+                                   IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the action!");
+        }
+        long mask = possibilities[geometry.getCellIndex(struct, major, minor)];
+        while (mask != 0) {
+            action.accept(Long.numberOfTrailingZeros(mask) + 1);
+            mask &= mask - 1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPossiblePositionMask(Structure struct, int major,
+                                        int number) {
+        return positions[getPositionIndex(struct, major, number)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPossiblePositionCount(Structure struct, int major,
+                                        int number) {
+        return Long.bitCount(
+                positions[getPositionIndex(struct, major, number)]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNextPossiblePosition(Structure struct, int major, int number,
+                                       int minor) {
+        long mask = positions[getPositionIndex(struct, major, number)];
+        if (minor < 0) {
+            throw new IllegalArgumentException("Error! The positions within a "
+                    + "structure start with 0!");
+        }
+        if (minor >= numberOfFieldsPerStructure) {
+            return -1;
+        }
+        long left = mask & (-1L << minor);
+        return left == 0 ? -1 : Long.numberOfTrailingZeros(left);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removePossibility(Structure struct, int major, int minor,
+                                  int number) throws InvalidSudokuException {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to remove the "
+                    + "possibility to set the number " + number + "that is less"
+                    + "than 1 or greater than " + numberOfFieldsPerStructure
+                    + ", the biggest number that may be set!");
+        }
+        if (removePossibility(geometry.getCellIndex(struct, major, minor),
+                1L << (number - 1)) == Outcome.CONTRADICTION) {
+            throw new InvalidSudokuException("Error! All possibilities "
+                    + "would be removed from an unset cell!");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Outcome eliminate(Structure struct, int major, int minor,
+                             int number) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to remove the "
+                    + "possibility to set the number " + number + "that is less"
+                    + "than 1 or greater than " + numberOfFieldsPerStructure
+                    + ", the biggest number that may be set!");
+        }
+        return removePossibility(geometry.getCellIndex(struct, major, minor),
+                1L << (number - 1));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getStateHash() {
+        return hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int mark() {
+        trailing = true;
+        return trailSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void rollback(int mark) {
+        if (mark < 0 || mark > trailSize) {
+            throw new IllegalArgumentException("Error! The mark " + mark
+                    + " is not valid for this board!");
+        }
+        while (trailSize > mark) {
+            --trailSize;
+            int entry = trailCells[trailSize];
+            long value = trailValues[trailSize];
+            if (entry == LAST_CELL_SET_ENTRY) {
+                lastCellSet = (int) value;
+            } else if (entry < 0) {
+                int cell = ~entry;
+                long former = getHeldNumbers(cell);
+                int formerBucket = getBucket(cell);
+                if (contents[cell] != UNSET) {
+                    --setCells;
+                    hash ^= ZobristHashing.getContentKey(cell, contents[cell]);
+                }
+                contents[cell] = (byte) value;
+                if (contents[cell] != UNSET) {
+                    ++setCells;
+                    hash ^= ZobristHashing.getContentKey(cell, contents[cell]);
+                }
+                updatePositions(cell, former, getHeldNumbers(cell));
+                moveToBucket(cell, formerBucket, getBucket(cell));
+            } else {
+                long former = getHeldNumbers(entry);
+                int formerBucket = getBucket(entry);
+                hash ^= ZobristHashing.getPossibilityKeys(entry,
+                        possibilities[entry] ^ value);
+                possibilities[entry] = value;
+                updatePositions(entry, former, getHeldNumbers(entry));
+                moveToBucket(entry, formerBucket, getBucket(entry));
+                if (changes != null) {
+                    changes.add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ChangeSet drainChanges() {
+        if (changes == null) {
+            changes = new ChangeSet(geometry);
+            changes.addAll();
+        }
+        if (drainedChanges == null) {
+            drainedChanges = new ChangeSet(geometry);
+        } else {
+            drainedChanges.clear();
+        }
+        ChangeSet drained = changes;
+        changes = drainedChanges;
+        drainedChanges = drained;
+        return drained;
+    }
+
+    /**
+     * Deep copies the board. The clone starts without any marks but with the
+     * pending changes of this board.
+     *
+     * @return The cloned board.
+     */
+    @Override
+    public Board clone() {
+        FlatSudokuBoard clone;
+        try {
+            clone = (FlatSudokuBoard) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new Error("Error! Interface Cloneable not implemented in a "
+                    + "superclass of FlatSudokuBoard!");
+        }
+        clone.contents = this.contents.clone();
+        clone.possibilities = this.possibilities.clone();
+        clone.positions = this.positions.clone();
+        clone.buckets = this.buckets.clone();
+        clone.bucketSummaries = this.bucketSummaries.clone();
+        clone.trailing = false;
+        clone.trailSize = 0;
+        clone.trailCells = new int[0];
+        clone.trailValues = new long[0];
+        clone.changes = changes == null ? null : changes.copy();
+        clone.drainedChanges = null;
+        return clone;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Board
+                && ZobristHashing.equal(this, (Board) other);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return ZobristHashing.toHashCode(hash);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getStringRepresentation(" ");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(Board other) {
+        if (other == null || this.getNumbers() != other.getNumbers()) {
+            throw new IllegalArgumentException("Error! The other board has to "
+                    + "have the same size as this!");
+        }
+        for (int i = 0; i < numberOfFieldsPerStructure; i++) {
+            for (int j = 0; j < numberOfFieldsPerStructure; j++) {
+                int comparisonOfCells = compareCellsByContent(
+                        getCell(Structure.ROW, i, j),
+                        other.getCell(Structure.ROW, i, j));
+                if (comparisonOfCells != 0) {
+                    return comparisonOfCells;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String prettyPrint() {
+        return getStringRepresentation("\n");
+    }
+
+    /**
+     * Sets the cell with index {@code cell} to {@code number} and removes the
+     * number from the possibilities of all peers. The peers are not changed
+     * anymore once one of them ran out of possibilities.
+     *
+     * @param cell The index of the cell.
+     * @param number The number to set.
+     * @return {@link Outcome#UNCHANGED} if the cell already contained the
+     *         number, {@link Outcome#CONTRADICTION} if the cell contained
+     *         another number, the number was no possibility of the cell or
+     *         a peer ran out of possibilities, {@link Outcome#CHANGED}
+     *         otherwise.
+     */
+    private Outcome assign(int cell, int number) {
+        if (contents[cell] != UNSET) {
+            return contents[cell] == number ? Outcome.UNCHANGED
+                    : Outcome.CONTRADICTION;
+        }
+        long bit = 1L << (number - 1);
+        long former = possibilities[cell];
+        if ((former & bit) == 0) {
+            return Outcome.CONTRADICTION;
+        }
+        record(~cell, contents[cell]);
+        record(cell, former);
+        contents[cell] = (byte) number;
+        possibilities[cell] = 0;
+        ++setCells;
+        hash ^= ZobristHashing.getContentKey(cell, number)
+                ^ ZobristHashing.getPossibilityKeys(cell, former);
+        updatePositions(cell, former, bit);
+        moveToBucket(cell, Long.bitCount(former), 0);
+        record(LAST_CELL_SET_ENTRY, lastCellSet);
+        lastCellSet = cell;
+        if (changes != null) {
+            changes.add(cell);
+        }
+        for (int i = 0; i < geometry.getPeerCount(); i++) {
+            if (removePossibility(geometry.getPeer(cell, i), bit)
+                    == Outcome.CONTRADICTION) {
+                return Outcome.CONTRADICTION;
+            }
+        }
+        return Outcome.CHANGED;
+    }
+
+    /**
+     * Removes the possibilities given as bit mask from the cell with index
+     * {@code cell}. Nothing happens if the cell is already set.
+     *
+     * @param cell The index of the cell.
+     * @param bits The possibilities to remove.
+     * @return {@link Outcome#CONTRADICTION} if the last possibility of an
+     *         unset cell was removed, {@link Outcome#CHANGED} if a
+     *         possibility was removed, {@link Outcome#UNCHANGED} otherwise.
+     */
+    private Outcome removePossibility(int cell, long bits) {
+        long current = possibilities[cell];
+        long remaining = current & ~bits;
+        if (remaining == current) {
+            return remaining == 0 && contents[cell] == UNSET
+                    ? Outcome.CONTRADICTION : Outcome.UNCHANGED;
+        }
+        record(cell, current);
+        possibilities[cell] = remaining;
+        hash ^= ZobristHashing.getPossibilityKeys(cell, current & bits);
+        if (changes != null) {
+            changes.add(cell);
+        }
+        if (contents[cell] == UNSET) {
+            updatePositions(cell, current, remaining);
+            moveToBucket(cell, Long.bitCount(current),
+                    Long.bitCount(remaining));
+            if (remaining == 0) {
+                return Outcome.CONTRADICTION;
+            }
+        }
+        return Outcome.CHANGED;
+    }
+
+    /**
+     * Returns the numbers a cell contains or may still be set to as bit mask.
+     *
+     * @param cell The index of the cell.
+     * @return The bit mask of the content or the possibilities of the cell.
+     */
+    private long getHeldNumbers(int cell) {
+        return contents[cell] == UNSET ? possibilities[cell]
+                : 1L << (contents[cell] - 1);
+    }
+
+    /**
+     * Updates the position masks of the structures containing {@code cell}
+     * after the numbers it contains or may be set to changed from {@code
+     * former} to {@code current}.
+     *
+     * @param cell The index of the changed cell.
+     * @param former The bit mask of the numbers held before the change.
+     * @param current The bit mask of the numbers held after the change.
+     */
+    private void updatePositions(int cell, long former, long current) {
+        long removed = former & ~current;
+        long added = current & ~former;
+        if ((removed | added) == 0) {
+            return;
+        }
+        int row = geometry.getRow(cell);
+        int col = geometry.getColumn(cell);
+        int rowOffset = geometry.getUnit(Structure.ROW, row)
+                * numberOfFieldsPerStructure - 1;
+        int colOffset = geometry.getUnit(Structure.COL, col)
+                * numberOfFieldsPerStructure - 1;
+        int boxOffset = geometry.getUnit(Structure.BOX, geometry.getBox(cell))
+                * numberOfFieldsPerStructure - 1;
+        long rowBit = 1L << col;
+        long colBit = 1L << row;
+        long boxBit = 1L << geometry.getPositionInBox(cell);
+        while (removed != 0) {
+            int number = Long.numberOfTrailingZeros(removed) + 1;
+            removed &= removed - 1;
+            positions[rowOffset + number] &= ~rowBit;
+            positions[colOffset + number] &= ~colBit;
+            positions[boxOffset + number] &= ~boxBit;
+        }
+        while (added != 0) {
+            int number = Long.numberOfTrailingZeros(added) + 1;
+            added &= added - 1;
+            positions[rowOffset + number] |= rowBit;
+            positions[colOffset + number] |= colBit;
+            positions[boxOffset + number] |= boxBit;
+        }
+    }
+
+    /**
+     * Returns the number of possibilities which determines the bucket of a
+     * cell.
+     *
+     * @param cell The index of the cell.
+     * @return The number of possibilities of the cell if it is unset, 0 if it
+     *         is set and thus in no bucket.
+     */
+    private int getBucket(int cell) {
+        return contents[cell] == UNSET ? Long.bitCount(possibilities[cell])
+                : 0;
+    }
+
+    /**
+     * Moves a cell from the bucket of the cells with {@code former}
+     * possibilities to the one of the cells with {@code current}
+     * possibilities, where 0 stands for no bucket.
+     *
+     * @param cell The index of the cell.
+     * @param former The former number of possibilities of the cell.
+     * @param current The current number of possibilities of the cell.
+     */
+    private void moveToBucket(int cell, int former, int current) {
+        if (former == current) {
+            return;
+        }
+        int word = cell / Long.SIZE;
+        long bit = 1L << cell;
+        if (former > 0) {
+            int index = (former - 1) * bucketWords + word;
+            buckets[index] &= ~bit;
+            if (buckets[index] == 0) {
+                bucketSummaries[former - 1] &= ~(1L << word);
+                if (bucketSummaries[former - 1] == 0) {
+                    nonEmptyBuckets &= ~(1L << (former - 1));
+                }
+            }
+        }
+        if (current > 0) {
+            buckets[(current - 1) * bucketWords + word] |= bit;
+            bucketSummaries[current - 1] |= 1L << word;
+            nonEmptyBuckets |= 1L << (current - 1);
+        }
+    }
+
+    /**
+     * Recomputes the number of set cells, the position masks, the buckets and
+     * the hash from the contents and possibilities of all cells.
+     */
+    private void recount() {
+        setCells = 0;
+        hash = 0;
+        Arrays.fill(positions, 0);
+        Arrays.fill(buckets, 0);
+        Arrays.fill(bucketSummaries, 0);
+        nonEmptyBuckets = 0;
+        for (int cell = 0; cell < contents.length; cell++) {
+            moveToBucket(cell, 0, getBucket(cell));
+            if (contents[cell] != UNSET) {
+                ++setCells;
+                hash ^= ZobristHashing.getContentKey(cell, contents[cell]);
+            }
+            hash ^= ZobristHashing.getPossibilityKeys(cell,
+                    allPossibilities & ~possibilities[cell]);
+            updatePositions(cell, 0, getHeldNumbers(cell));
+        }
+    }
+
+    /**
+     * Returns the index of the position mask of {@code number} in the given
+     * structure.
+     *
+     * @param struct The type of the structure.
+     * @param major The number of the structure.
+     * @param number The number whose positions are requested.
+     * @return The index within {@link #positions}.
+     */
+    private int getPositionIndex(Structure struct, int major, int number) {
+        if (struct == null || major < 0
+                || major >= numberOfFieldsPerStructure || number < 1
+                || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to access a "
+                    + "structure that is not on the board or a number that "
+                    + "may not be set!");
+        }
+        return geometry.getUnit(struct, major) * numberOfFieldsPerStructure
+                + number - 1;
+    }
+
+    /**
+     * Records the former value of a cell entry on the undo trail if a mark has
+     * been taken.
+     *
+     * @param entry The encoded cell entry.
+     * @param value The value before the change.
+     */
+    private void record(int entry, long value) {
+        if (!trailing) {
+            return;
+        }
+        if (trailSize == trailCells.length) {
+            int capacity = Math.max(16, 2 * trailSize);
+            trailCells = Arrays.copyOf(trailCells, capacity);
+            trailValues = Arrays.copyOf(trailValues, capacity);
+        }
+        trailCells[trailSize] = entry;
+        trailValues[trailSize] = value;
+        ++trailSize;
+    }
+
+    /**
+     * Returns whether a position specified by major coordinate {@code pos1} and
+     * minor coordinate {@code pos2} is identifying a cell within the Sudoku or
+     * not.
+     *
+     * @param pos1 The major coordinate.
+     * @param pos2 The minor coordinate.
+     * @return whether pos1 and pos2 specify the position of a cell or not.
+     */
+    private boolean isValidPosition(int pos1, int pos2) {
+        return pos1 >= 0 && pos1 < numberOfFieldsPerStructure && pos2 >= 0
+                && pos2 < numberOfFieldsPerStructure;
+    }
+
+    private String getStringRepresentation(String delimiter) {
+        assert delimiter != null;
+        StringJoiner boardAsString = new StringJoiner(delimiter);
+        for (int i = 0; i < numberOfFieldsPerStructure; i++) {
+            StringJoiner rowAsString = new StringJoiner(" ");
+            for (int j = 0; j < numberOfFieldsPerStructure; j++) {
+                int content = contents[i * numberOfFieldsPerStructure + j];
+                rowAsString.add(content == UNSET ? "."
+                        : Integer.toString(content));
+            }
+            boardAsString.add(rowAsString.toString());
+        }
+        return boardAsString.toString();
+    }
+
+    /**
+     * Compares two contents of cells according to ascending numbers. {@link
+     * #UNSET_CELL} is treated to be larger than any other number.
+     *
+     * @param content1 The content of the first cell.
+     * @param content2 The content of the second cell.
+     * @return -1 if content1 is smaller, 0 if equal, and 1 if bigger.
+     */
+    private static int compareCellsByContent(int content1, int content2) {
+        if (content1 == Board.UNSET_CELL) {
+            return content2 == content1 ? 0 : 1;
+        }
+        if (content2 == Board.UNSET_CELL) {
+            return -1;
+        }
+        if (content1 == content2) {
+            return 0;
+        }
+        return content1 < content2 ? -1 : 1;
+    }
+}
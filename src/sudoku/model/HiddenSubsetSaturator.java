@@ -0,0 +1,162 @@
+package sudoku.model;
+
+/**
+ * A class holding the algorithm to solve a Sudoku by the hidden subset
+ * strategy. Therefore it is checked for every structure if there are as many
+ * numbers as cells, such that the numbers may only be set into these cells,
+ * e.g., two numbers which may only be set into the same two cells. If so all
+ * other numbers are removed from the possibilities of the cells.
+ *
+ * The strategy is applied to subsets of a fixed size, hidden pairs, triples
+ * or quads, and leaves boards with more than 64 cells per structure
+ * unchanged.
+ */
+public class HiddenSubsetSaturator implements Saturator {
+
+    /**
+     * The greatest size of the subsets which can be searched.
+     */
+    public static final int MAX_SIZE = 4;
+
+    private final int size;
+
+    /**
+     * Creates a new HiddenSubsetSaturator searching for subsets of {@code
+     * size} numbers.
+     *
+     * @param size The number of numbers of the subsets, from 2 for pairs to
+     *        {@link #MAX_SIZE} for quads.
+     */
+    public HiddenSubsetSaturator(int size) {
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Error! The size of the "
+                    + "subsets must be between 2 and " + MAX_SIZE + "!");
+        }
+        this.size = size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board) throws UnsolvableSudokuException {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate!");
+        }
+        if (!LockedSets.isApplicable(board)) {
+            return false;
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        for (Structure struct : Structure.values()) {
+            for (int major = 0; major < board.getNumbers()
+                    && outcome != Outcome.CONTRADICTION; major++) {
+                outcome = outcome.and(removeOthersFromHiddenSubsets(struct,
+                        major, board));
+            }
+        }
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException("Error! Some numbers may only "
+                    + "be set into fewer cells of a structure than numbers!");
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board, ChangeSet changes)
+            throws UnsolvableSudokuException {
+        Outcome outcome = propagate(board, changes);
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException("Error! Some numbers may only "
+                    + "be set into fewer cells of a structure than numbers!");
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the changed structures are checked, since only those may have got
+     * a new subset.
+     */
+    @Override
+    public Outcome propagate(Board board, ChangeSet changes) {
+        if (board == null || changes == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate or as its changes!");
+        }
+        if (!LockedSets.isApplicable(board)) {
+            return Outcome.UNCHANGED;
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        SudokuGeometry geometry = board.getGeometry();
+        for (int i = 0; i < changes.getUnitCount()
+                && outcome != Outcome.CONTRADICTION; i++) {
+            int unit = changes.getUnit(i);
+            outcome = outcome.and(removeOthersFromHiddenSubsets(
+                    geometry.getUnitStructure(unit),
+                    geometry.getUnitMajor(unit), board));
+        }
+        return outcome;
+    }
+
+    /**
+     * Removes all other numbers from the possibilities of the cells of every
+     * hidden subset of the specified structure.
+     *
+     * @param struct The structure that should be analyzed.
+     * @param major The number of the structure.
+     * @param board The board the structure is on.
+     * @return {@link Outcome#CHANGED} if a possibility was removed, {@link
+     *         Outcome#CONTRADICTION} if some numbers may only be set into
+     *         fewer cells than numbers or removing a possibility made the
+     *         Sudoku invalid, {@link Outcome#UNCHANGED} otherwise.
+     */
+    private Outcome removeOthersFromHiddenSubsets(Structure struct, int major,
+                                                 Board board) {
+        assert board != null && major >= 0 && major < board.getNumbers();
+        int numbers = board.getNumbers();
+        int[] missingNumbers = new int[numbers];
+        long[] masks = new long[numbers];
+        int count = 0;
+        int missing = 0;
+        for (int number = 1; number <= numbers; number++) {
+            long mask = board.getPossiblePositionMask(struct, major, number);
+            if (Long.bitCount(mask) == 1 && board.getCell(struct, major,
+                    Long.numberOfTrailingZeros(mask)) == number) {
+                continue;
+            }
+            ++missing;
+            if (Long.bitCount(mask) <= size) {
+                missingNumbers[count] = number;
+                masks[count++] = mask;
+            }
+        }
+        if (missing <= size) {
+            return Outcome.UNCHANGED;
+        }
+        return LockedSets.forEach(masks, count, size, (members, covered) -> {
+            long subset = 0;
+            for (long left = members; left != 0; left &= left - 1) {
+                subset |= 1L << (missingNumbers[Long.numberOfTrailingZeros(
+                        left)] - 1);
+            }
+            Outcome outcome = Outcome.UNCHANGED;
+            for (long cells = covered; cells != 0
+                    && outcome != Outcome.CONTRADICTION; cells &= cells - 1) {
+                int minor = Long.numberOfTrailingZeros(cells);
+                long removed = board.getPossibilityMask(struct, major, minor)
+                        & ~subset;
+                for (; removed != 0 && outcome != Outcome.CONTRADICTION;
+                        removed &= removed - 1) {
+                    outcome = outcome.and(board.eliminate(struct, major, minor,
+                            Long.numberOfTrailingZeros(removed) + 1));
+                }
+            }
+            return outcome;
+        });
+    }
+}
@@ -74,21 +74,35 @@ class IntelligentSudokuCell implements Cloneable {
      * @throws InvalidSudokuException if {@code number} may not be set.
      */
     void setContent(int number) throws InvalidSudokuException {
+        if (!setContentIfPossible(number)) {
+            throw new InvalidSudokuException("Error! Tried to set a number "
+                    + "in a cell that is not possible there anymore!");
+        }
+    }
+
+    /**
+     * Sets the content of the cell like {@link #setContent(int)}, but reports
+     * an impossible number by the result instead of an exception.
+     *
+     * @param number The number that should be set into this cell.
+     * @return {@code false} if {@code number} may not be set, {@code true}
+     *         otherwise.
+     */
+    boolean setContentIfPossible(int number) {
         if (number < 1 || number > maxNumber) {
             throw new IllegalArgumentException("Error! " + number + "is no "
                     + "valid number for a Sudoku cell!");
         }
         if (isFixed) {
-            return;
+            return true;
         }
-        if (positionInSetIsPossibleContent.get(number - 1)) {
-            content = number;
-            isFixed = true;
-            positionInSetIsPossibleContent.clear();
-        } else {
-            throw new InvalidSudokuException("Error! Tried to set a number "
-                    + "in a cell that is not possible there anymore!");
+        if (!positionInSetIsPossibleContent.get(number - 1)) {
+            return false;
         }
+        content = number;
+        isFixed = true;
+        positionInSetIsPossibleContent.clear();
+        return true;
     }
 
     /**
@@ -131,30 +145,68 @@ class IntelligentSudokuCell implements Cloneable {
         int[] possibilities = new
                 int[positionInSetIsPossibleContent.cardinality()];
         int currentPositionInArray = 0;
-        for (int i = 0; i < positionInSetIsPossibleContent.length(); i++) {
-            if (positionInSetIsPossibleContent.get(i)) {
-                possibilities[currentPositionInArray] = i + 1;
-                ++currentPositionInArray;
-            }
+        for (int i = positionInSetIsPossibleContent.nextSetBit(0); i >= 0;
+             i = positionInSetIsPossibleContent.nextSetBit(i + 1)) {
+            possibilities[currentPositionInArray] = i + 1;
+            ++currentPositionInArray;
         }
         return possibilities;
     }
 
+    /**
+     * Returns the number of numbers that may still be inserted into this cell
+     * or 0 if the cell is already set.
+     *
+     * @return the number of possible contents of this cell.
+     */
+    int getPossibilityCount() {
+        return isFixed ? 0 : positionInSetIsPossibleContent.cardinality();
+    }
+
+    /**
+     * Returns the smallest number not smaller than {@code number} that may
+     * still be inserted into this cell or -1 if there is none.
+     *
+     * @param number The smallest number to consider.
+     * @return the next number that may be inserted into this cell.
+     */
+    int getNextPossibleContent(int number) {
+        assert number >= 1;
+        if (isFixed || number > maxNumber) {
+            return -1;
+        }
+        int next = positionInSetIsPossibleContent.nextSetBit(number - 1);
+        return next == -1 ? -1 : next + 1;
+    }
+
     /**
      * Removes the possibility to insert {@code number} into {@code this}.
      *
      * @param number The number that should no longer be able to be inserted.
      */
     void removePossibility(int number) throws InvalidSudokuException {
+        if (!removePossibilityIfLeft(number)) {
+            throw new InvalidSudokuException("Error! All possibilities "
+                    + "would be removed from an unset cell!");
+        }
+    }
+
+    /**
+     * Removes the possibility to insert {@code number} into {@code this} like
+     * {@link #removePossibility(int)}, but reports that no possibility is
+     * left by the result instead of an exception.
+     *
+     * @param number The number that should no longer be able to be inserted.
+     * @return {@code false} if the cell is not set and has no possibility
+     *         left, {@code true} otherwise.
+     */
+    boolean removePossibilityIfLeft(int number) {
         if (number < 1 || number > maxNumber) {
             throw new IllegalArgumentException("Error! " + number + "is no "
                     + "valid number for a Sudoku cell!");
         }
         positionInSetIsPossibleContent.clear(number - 1);
-        if (!isFixed && positionInSetIsPossibleContent.isEmpty()) {
-            throw new InvalidSudokuException("Error! All possibilities "
-                    + "would be removed from an unset cell!");
-        }
+        return isFixed || !positionInSetIsPossibleContent.isEmpty();
     }
 
     /**
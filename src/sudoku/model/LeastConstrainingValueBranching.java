@@ -0,0 +1,51 @@
+package sudoku.model;
+
+/**
+ * A branching strategy selecting the cell with the fewest possibilities like
+ * {@link FewestPossibilitiesBranching}, but trying first the numbers which
+ * are possible in the fewest unset peers, known as least constraining value
+ * heuristic. Setting such a number removes the fewest possibilities from
+ * other cells, which makes it more likely to lead to a solution. Numbers
+ * possible in equally many peers are tried in ascending order.
+ */
+public class LeastConstrainingValueBranching
+        extends FewestPossibilitiesBranching {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int orderNumbers(Board board, int cell, int[] numbers) {
+        int count = super.orderNumbers(board, cell, numbers);
+        SudokuGeometry geometry = board.getGeometry();
+        int[] constrainedPeers = new int[count];
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < geometry.getPeerCount(); j++) {
+                int peer = geometry.getPeer(cell, j);
+                if (board.getNextPossibility(Structure.ROW,
+                        geometry.getRow(peer), geometry.getColumn(peer),
+                        numbers[i]) == numbers[i]) {
+                    ++constrainedPeers[i];
+                }
+            }
+        }
+
+        /*
+         * Insertion sort, which is stable and fast for the few possibilities
+         * of the cells branched on.
+         */
+        for (int i = 1; i < count; i++) {
+            int number = numbers[i];
+            int constrained = constrainedPeers[i];
+            int j = i - 1;
+            while (j >= 0 && constrainedPeers[j] > constrained) {
+                numbers[j + 1] = numbers[j];
+                constrainedPeers[j + 1] = constrainedPeers[j];
+                --j;
+            }
+            numbers[j + 1] = number;
+            constrainedPeers[j + 1] = constrained;
+        }
+        return count;
+    }
+}
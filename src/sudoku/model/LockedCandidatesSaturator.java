@@ -0,0 +1,158 @@
+package sudoku.model;
+
+/**
+ * A class holding the algorithm to solve a Sudoku by the locked candidates
+ * strategy. Therefore it is checked for every box and number if the number
+ * may only be set into one row or column of the box, which is called a
+ * pointing pair or triple. If so the number is removed from the
+ * possibilities of the other cells of the row or column. The other way
+ * round, if a number may only be set into one box within a row or column,
+ * the number is removed from the possibilities of the other cells of the
+ * box, which is called box line reduction.
+ */
+public class LockedCandidatesSaturator implements Saturator {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board) throws UnsolvableSudokuException {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate!");
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        for (Structure struct : Structure.values()) {
+            for (int major = 0; major < board.getNumbers()
+                    && outcome != Outcome.CONTRADICTION; major++) {
+                outcome = outcome.and(removeLockedCandidates(struct, major,
+                        board));
+            }
+        }
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException("Error! Removing a locked "
+                    + "candidate made the Sudoku invalid!");
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board, ChangeSet changes)
+            throws UnsolvableSudokuException {
+        Outcome outcome = propagate(board, changes);
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException("Error! Removing a locked "
+                    + "candidate made the Sudoku invalid!");
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the changed structures are checked, since only those may have got
+     * new locked candidates.
+     */
+    @Override
+    public Outcome propagate(Board board, ChangeSet changes) {
+        if (board == null || changes == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate or as its changes!");
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        SudokuGeometry geometry = board.getGeometry();
+        for (int i = 0; i < changes.getUnitCount()
+                && outcome != Outcome.CONTRADICTION; i++) {
+            int unit = changes.getUnit(i);
+            outcome = outcome.and(removeLockedCandidates(
+                    geometry.getUnitStructure(unit),
+                    geometry.getUnitMajor(unit), board));
+        }
+        return outcome;
+    }
+
+    /**
+     * Removes every number which may only be set into the intersection of
+     * the specified structure with another one from the possibilities of the
+     * other cells of the other structure.
+     *
+     * @param struct The structure that should be analyzed.
+     * @param major The number of the structure.
+     * @param board The board the structure is on.
+     * @return {@link Outcome#CHANGED} if a possibility was removed, {@link
+     *         Outcome#CONTRADICTION} if removing a possibility made the
+     *         Sudoku invalid, {@link Outcome#UNCHANGED} otherwise.
+     */
+    private Outcome removeLockedCandidates(Structure struct, int major,
+                                           Board board) {
+        assert board != null && major >= 0 && major < board.getNumbers();
+        Outcome outcome = Outcome.UNCHANGED;
+        if (struct == Structure.BOX) {
+            for (int number = 1; number <= board.getNumbers()
+                    && outcome != Outcome.CONTRADICTION; number++) {
+                outcome = outcome.and(removeLockedCandidate(struct, major,
+                        Structure.ROW, number, board));
+                outcome = outcome.and(removeLockedCandidate(struct, major,
+                        Structure.COL, number, board));
+            }
+        } else {
+            for (int number = 1; number <= board.getNumbers()
+                    && outcome != Outcome.CONTRADICTION; number++) {
+                outcome = outcome.and(removeLockedCandidate(struct, major,
+                        Structure.BOX, number, board));
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Removes {@code number} from the possibilities of the cells of a
+     * structure of type {@code target} outside the specified structure, if
+     * all possible positions of {@code number} in the specified structure
+     * lie in that one structure of type {@code target}.
+     *
+     * @param struct The structure that should be analyzed.
+     * @param major The number of the structure.
+     * @param target The type of the structure to remove the number from.
+     * @param number The number to remove.
+     * @param board The board the structures are on.
+     * @return {@link Outcome#CHANGED} if a possibility was removed, {@link
+     *         Outcome#CONTRADICTION} if removing a possibility made the
+     *         Sudoku invalid, {@link Outcome#UNCHANGED} otherwise.
+     */
+    private Outcome removeLockedCandidate(Structure struct, int major,
+                                          Structure target, int number,
+                                          Board board) {
+        assert board != null && struct != target;
+        SudokuGeometry geometry = board.getGeometry();
+        int minor = board.getNextPossiblePosition(struct, major, number, 0);
+        if (minor == -1 || board.getCell(struct, major, minor) == number) {
+            return Outcome.UNCHANGED;
+        }
+        int targetMajor = geometry.getMajor(target,
+                geometry.getCellIndex(struct, major, minor));
+        minor = board.getNextPossiblePosition(struct, major, number,
+                minor + 1);
+        while (minor != -1) {
+            if (geometry.getMajor(target, geometry.getCellIndex(struct, major,
+                    minor)) != targetMajor) {
+                return Outcome.UNCHANGED;
+            }
+            minor = board.getNextPossiblePosition(struct, major, number,
+                    minor + 1);
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        for (int i = 0; i < board.getNumbers()
+                && outcome != Outcome.CONTRADICTION; i++) {
+            int cell = geometry.getCellIndex(target, targetMajor, i);
+            if (geometry.getMajor(struct, cell) != major) {
+                outcome = outcome.and(board.eliminate(target, targetMajor, i,
+                        number));
+            }
+        }
+        return outcome;
+    }
+}
@@ -0,0 +1,113 @@
+package sudoku.model;
+
+/**
+ * This class provides the search for locked sets shared by the subset and
+ * fish strategies. A locked set consists of {@code size} candidates whose
+ * bit masks together cover only {@code size} bits, e.g., two cells of a
+ * structure which may only contain the same two numbers. Since every
+ * candidate has to take one of the covered bits and no two candidates may
+ * take the same one, the covered bits are taken by the locked set and by
+ * nothing else. Fewer covered bits than candidates make the Sudoku
+ * unsolvable.
+ *
+ * All strategies using locked sets need bit masks, so they leave boards with
+ * more than 64 cells per structure unchanged.
+ */
+final class LockedSets {
+
+    /**
+     * An action applied to every found locked set.
+     */
+    @FunctionalInterface
+    interface Action {
+
+        /**
+         * Draws the conclusions of a locked set.
+         *
+         * @param members The indices of the candidates of the locked set as
+         *        bit mask.
+         * @param covered The bits covered by the candidates.
+         * @return The outcome of the changes made to the board.
+         */
+        Outcome apply(long members, long covered);
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private LockedSets() {
+        throw new UnsupportedOperationException(
+                "Illegal call of utility class constructor.");
+    }
+
+    /**
+     * Checks whether the locked set strategies can be applied on a board.
+     *
+     * @param board The board to check.
+     * @return {@code true} if the board has bit masks, {@code false}
+     *         otherwise.
+     */
+    static boolean isApplicable(Board board) {
+        return board.getNumbers() <= Long.SIZE;
+    }
+
+    /**
+     * Applies {@code action} to every locked set of {@code size} candidates.
+     * Candidates covering more than {@code size} bits are not passed, since
+     * they cannot be part of a locked set of that size. The masks are not
+     * updated while searching, which keeps the conclusions valid, since the
+     * masks only lose bits by the changes made.
+     *
+     * @param masks The bit masks of the candidates.
+     * @param count The number of candidates, at most 64.
+     * @param size The number of candidates of a locked set.
+     * @param action The action to apply to every locked set.
+     * @return {@link Outcome#CONTRADICTION} if some candidates cover fewer
+     *         bits than their number or an action found a contradiction,
+     *         {@link Outcome#CHANGED} if an action changed the board, {@link
+     *         Outcome#UNCHANGED} otherwise.
+     */
+    static Outcome forEach(long[] masks, int count, int size, Action action) {
+        assert masks != null && count <= Long.SIZE && action != null;
+        if (count < size) {
+            return Outcome.UNCHANGED;
+        }
+        return forEach(masks, count, size, action, 0, 0, 0, 0);
+    }
+
+    /**
+     * Extends the chosen candidates by every candidate from index {@code
+     * first} on and applies {@code action} to every complete locked set.
+     *
+     * @param masks The bit masks of the candidates.
+     * @param count The number of candidates.
+     * @param size The number of candidates of a locked set.
+     * @param action The action to apply to every locked set.
+     * @param first The index of the first candidate that may be chosen.
+     * @param chosen The number of chosen candidates.
+     * @param members The chosen candidates as bit mask.
+     * @param covered The bits covered by the chosen candidates.
+     * @return The outcome like {@link #forEach(long[], int, int, Action)}.
+     */
+    private static Outcome forEach(long[] masks, int count, int size,
+                                   Action action, int first, int chosen,
+                                   long members, long covered) {
+        if (chosen == size) {
+            return action.apply(members, covered);
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        for (int i = first; i <= count - size + chosen
+                && outcome != Outcome.CONTRADICTION; i++) {
+            long union = covered | masks[i];
+            int bits = Long.bitCount(union);
+            if (bits <= chosen) {
+                return Outcome.CONTRADICTION;
+            }
+            if (bits <= size) {
+                outcome = outcome.and(forEach(masks, count, size, action,
+                        i + 1, chosen + 1, members | 1L << i, union));
+            }
+        }
+        return outcome;
+    }
+}
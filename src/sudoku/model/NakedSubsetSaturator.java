@@ -0,0 +1,160 @@
+package sudoku.model;
+
+/**
+ * A class holding the algorithm to solve a Sudoku by the naked subset
+ * strategy. Therefore it is checked for every structure if there are as many
+ * cells as numbers, such that the cells may only contain these numbers, e.g.,
+ * two cells which may only contain the same two numbers. If so the numbers
+ * are removed from the possibilities of the other cells of the structure.
+ *
+ * The strategy is applied to subsets of a fixed size, naked pairs, triples or
+ * quads, and leaves boards with more than 64 cells per structure unchanged.
+ */
+public class NakedSubsetSaturator implements Saturator {
+
+    /**
+     * The greatest size of the subsets which can be searched.
+     */
+    public static final int MAX_SIZE = 4;
+
+    private final int size;
+
+    /**
+     * Creates a new NakedSubsetSaturator searching for subsets of {@code
+     * size} cells.
+     *
+     * @param size The number of cells of the subsets, from 2 for pairs to
+     *        {@link #MAX_SIZE} for quads.
+     */
+    public NakedSubsetSaturator(int size) {
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Error! The size of the "
+                    + "subsets must be between 2 and " + MAX_SIZE + "!");
+        }
+        this.size = size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board) throws UnsolvableSudokuException {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate!");
+        }
+        if (!LockedSets.isApplicable(board)) {
+            return false;
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        for (Structure struct : Structure.values()) {
+            for (int major = 0; major < board.getNumbers()
+                    && outcome != Outcome.CONTRADICTION; major++) {
+                outcome = outcome.and(removeNakedSubsets(struct, major,
+                        board));
+            }
+        }
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException("Error! Some cells of a "
+                    + "structure may only contain fewer numbers than cells!");
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean saturate(Board board, ChangeSet changes)
+            throws UnsolvableSudokuException {
+        Outcome outcome = propagate(board, changes);
+        if (outcome == Outcome.CONTRADICTION) {
+            throw new UnsolvableSudokuException("Error! Some cells of a "
+                    + "structure may only contain fewer numbers than cells!");
+        }
+        return outcome == Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the changed structures are checked, since only those may have got
+     * a new subset.
+     */
+    @Override
+    public Outcome propagate(Board board, ChangeSet changes) {
+        if (board == null || changes == null) {
+            throw new IllegalArgumentException("Error! Null has been given"
+                    + "as the board to saturate or as its changes!");
+        }
+        if (!LockedSets.isApplicable(board)) {
+            return Outcome.UNCHANGED;
+        }
+        Outcome outcome = Outcome.UNCHANGED;
+        SudokuGeometry geometry = board.getGeometry();
+        for (int i = 0; i < changes.getUnitCount()
+                && outcome != Outcome.CONTRADICTION; i++) {
+            int unit = changes.getUnit(i);
+            outcome = outcome.and(removeNakedSubsets(
+                    geometry.getUnitStructure(unit),
+                    geometry.getUnitMajor(unit), board));
+        }
+        return outcome;
+    }
+
+    /**
+     * Removes the numbers of every naked subset of the specified structure
+     * from the possibilities of its other cells.
+     *
+     * @param struct The structure that should be analyzed.
+     * @param major The number of the structure.
+     * @param board The board the structure is on.
+     * @return {@link Outcome#CHANGED} if a possibility was removed, {@link
+     *         Outcome#CONTRADICTION} if some cells may only contain fewer
+     *         numbers than cells or removing a possibility made the Sudoku
+     *         invalid, {@link Outcome#UNCHANGED} otherwise.
+     */
+    private Outcome removeNakedSubsets(Structure struct, int major,
+                                       Board board) {
+        assert board != null && major >= 0 && major < board.getNumbers();
+        int numbers = board.getNumbers();
+        int[] minors = new int[numbers];
+        long[] masks = new long[numbers];
+        int count = 0;
+        int unset = 0;
+        for (int minor = 0; minor < numbers; minor++) {
+            long mask = board.getPossibilityMask(struct, major, minor);
+            if (mask != 0) {
+                ++unset;
+                if (Long.bitCount(mask) <= size) {
+                    minors[count] = minor;
+                    masks[count++] = mask;
+                }
+            }
+        }
+        if (unset <= size) {
+            return Outcome.UNCHANGED;
+        }
+        return LockedSets.forEach(masks, count, size, (members, covered) -> {
+            long subset = 0;
+            for (long left = members; left != 0; left &= left - 1) {
+                subset |= 1L << minors[Long.numberOfTrailingZeros(left)];
+            }
+            Outcome outcome = Outcome.UNCHANGED;
+            for (int minor = 0; minor < numbers
+                    && outcome != Outcome.CONTRADICTION; minor++) {
+                if ((subset & 1L << minor) == 0) {
+                    long removed = board.getPossibilityMask(struct, major,
+                            minor) & covered;
+                    for (; removed != 0 && outcome != Outcome.CONTRADICTION;
+                            removed &= removed - 1) {
+                        outcome = outcome.and(board.eliminate(struct, major,
+                                minor, Long.numberOfTrailingZeros(removed)
+                                        + 1));
+                    }
+                }
+            }
+            return outcome;
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package sudoku.model;
+
+/**
+ * The result of changing a board by the exception-free methods used while
+ * solving, like {@link Board#assign(Structure, int, int, int)} or {@link
+ * Saturator#propagate(Board, ChangeSet)}. Unlike the checked exceptions of
+ * the public methods, reporting a contradiction this way costs no more than
+ * returning from a method.
+ */
+public enum Outcome {
+
+    /**
+     * The board was not changed.
+     */
+    UNCHANGED,
+
+    /**
+     * The board was changed and may still be solvable.
+     */
+    CHANGED,
+
+    /**
+     * The change made the board unsolvable. The board may have been changed
+     * partially and should be discarded or rolled back.
+     */
+    CONTRADICTION;
+
+    /**
+     * Combines this outcome with the outcome of a subsequent change of the
+     * same board. A contradiction outweighs a change, which outweighs no
+     * change.
+     *
+     * @param other The outcome of the subsequent change.
+     * @return The outcome of both changes together.
+     */
+    public Outcome and(Outcome other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the other outcome!");
+        }
+        return other.ordinal() > ordinal() ? other : this;
+    }
+
+}
@@ -0,0 +1,574 @@
+package sudoku.model;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+
+/**
+ * A board whose clones share their data until it is changed. The cells are
+ * stored in chunks, one per box, each holding the contents and the packed
+ * possibilities of the cells of its box. Cloning only copies the references
+ * to the chunks, which are then shared by the original and the clone. Before a
+ * shared chunk is changed, it is copied, so every board copies exactly the
+ * boxes it modifies and keeps sharing all others.
+ *
+ * Setting a cell changes its box as well as the boxes of its peers which still
+ * had the number as possibility, so branching on large boards copies only a
+ * small part of the board.
+ *
+ * Like {@link FlatSudokuBoard} at most {@link FlatSudokuBoard#MAX_NUMBERS}
+ * numbers per structure are supported.
+ */
+public class PersistentSudokuBoard implements Board {
+
+    /**
+     * The value stored in {@link #contents} for a cell which is not yet set.
+     */
+    private static final byte UNSET = 0;
+
+    private final SudokuGeometry geometry;
+    private final int numberOfFieldsPerStructure;
+    private byte[][] contents;
+    private long[][] possibilities;
+
+    /*
+     * Whether the chunk of a box is exclusively owned by this board and may
+     * thus be changed in place.
+     */
+    private boolean[] owned;
+    private int setCells = 0;
+    private long hash = 0;
+    private int lastCellSet = -1;
+
+    /**
+     * Creates a new empty PersistentSudokuBoard that contains {@code boxRows}
+     * rows and {@code boxCols} columns per box resulting in {@code boxRows *
+     * boxCols} cells per row and per column.
+     *
+     * @param boxRows The number of rows of a box.
+     * @param boxCols The number of columns of a box.
+     */
+    public PersistentSudokuBoard(int boxRows, int boxCols) {
+        if (boxRows <= 0 || boxCols <= 0) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one row and one column per box!");
+        }
+        if (boxRows * boxCols > FlatSudokuBoard.MAX_NUMBERS) {
+            throw new IllegalArgumentException("Error! A PersistentSudokuBoard "
+                    + "supports at most " + FlatSudokuBoard.MAX_NUMBERS
+                    + " cells per structure!");
+        }
+        geometry = SudokuGeometry.of(boxRows, boxCols);
+        numberOfFieldsPerStructure = boxRows * boxCols;
+        long allPossibilities = numberOfFieldsPerStructure == Long.SIZE ? -1L
+                : (1L << numberOfFieldsPerStructure) - 1;
+        contents = new byte[numberOfFieldsPerStructure]
+                [numberOfFieldsPerStructure];
+        possibilities = new long[numberOfFieldsPerStructure]
+                [numberOfFieldsPerStructure];
+        owned = new boolean[numberOfFieldsPerStructure];
+        for (int i = 0; i < numberOfFieldsPerStructure; i++) {
+            Arrays.fill(possibilities[i], allPossibilities);
+            owned[i] = true;
+        }
+    }
+
+    /**
+     * Creates a PersistentSudokuBoard with the same size, contents and
+     * possibilities as {@code board}.
+     *
+     * @param board The board to copy.
+     * @return A new board equal to {@code board}.
+     */
+    public static PersistentSudokuBoard copyOf(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the board to copy!");
+        }
+        PersistentSudokuBoard copy = new PersistentSudokuBoard(
+                board.getBoxRows(), board.getBoxColumns());
+        SudokuGeometry geometry = copy.geometry;
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            int row = geometry.getRow(cell);
+            int col = geometry.getColumn(cell);
+            int box = geometry.getBox(cell);
+            int position = geometry.getPositionInBox(cell);
+            int content = board.getCell(Structure.ROW, row, col);
+            if (content != Board.UNSET_CELL) {
+                copy.contents[box][position] = (byte) content;
+                ++copy.setCells;
+            }
+            copy.possibilities[box][position] =
+                    board.getPossibilityMask(Structure.ROW, row, col);
+        }
+        int[] lastCellSet = board.getLastCellSet();
+        if (lastCellSet != null) {
+            copy.lastCellSet = geometry.getCellIndex(Structure.ROW,
+                    lastCellSet[0], lastCellSet[1]);
+        }
+        copy.hash = ZobristHashing.hash(copy);
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getBoxRows() {
+        return geometry.getBoxRows();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getBoxColumns() {
+        return geometry.getBoxColumns();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumbers() {
+        return numberOfFieldsPerStructure;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setCell(Structure struct, int major, int minor, int number)
+            throws InvalidSudokuException {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to set the number "
+                    + number + "that is less than 1 or greater than "
+                    + numberOfFieldsPerStructure + ", the biggest number "
+                    + "that may be set!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        int box = geometry.getBox(cell);
+        int position = geometry.getPositionInBox(cell);
+        if (contents[box][position] != UNSET
+                && contents[box][position] != number) {
+            throw new InvalidSudokuException("Error! Tried to override the "
+                    + "content of an already set cell!");
+        }
+        if (contents[box][position] == UNSET
+                && (possibilities[box][position] & (1L << (number - 1))) == 0) {
+            throw new InvalidSudokuException("Error! Tried to set a number "
+                    + "in a cell that is not possible there anymore!");
+        }
+        if (assign(cell, number) == Outcome.CONTRADICTION) {
+            throw new InvalidSudokuException("Error! All possibilities "
+                    + "would be removed from an unset cell!");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Outcome assign(Structure struct, int major, int minor,
+                          int number) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to set the number "
+                    + number + "that is less than 1 or greater than "
+                    + numberOfFieldsPerStructure + ", the biggest number "
+                    + "that may be set!");
+        }
+        return assign(geometry.getCellIndex(struct, major, minor), number);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getLastCellSet() {
+        if (lastCellSet < 0) {
+            return null;
+        }
+        return new int[] {geometry.getRow(lastCellSet),
+                geometry.getColumn(lastCellSet)};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getCell(Structure struct, int major, int minor) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to get the "
+                    + "content of a cell that is not on the board!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        int content = contents[geometry.getBox(cell)]
+                [geometry.getPositionInBox(cell)];
+        return content == UNSET ? Board.UNSET_CELL : content;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSolution() {
+        return setCells == geometry.getCells();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfSetCells() {
+        return setCells;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getPossibilities(Structure struct, int major, int minor) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to get the "
+                    + "possibilities of a cell that is not on the board!");
+        }
+        if (getCell(struct, major, minor) != Board.UNSET_CELL) {
+            return null;
+        }
+        long mask = getPossibilityMask(struct, major, minor);
+        int[] result = new int[Long.bitCount(mask)];
+        for (int i = 0; mask != 0; i++) {
+            result[i] = Long.numberOfTrailingZeros(mask) + 1;
+            mask &= mask - 1;
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getPossibilityMask(Structure struct, int major, int minor) {
+        int cell = geometry.getCellIndex(struct, major, minor);
+        return possibilities[geometry.getBox(cell)]
+                [geometry.getPositionInBox(cell)];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPossibilityCount(Structure struct, int major, int minor) {
+        return Long.bitCount(getPossibilityMask(struct, major, minor));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNextPossibility(Structure struct, int major, int minor,
+                                  int number) {
+        if (number < 1) {
+            throw new IllegalArgumentException("Error! The numbers of a "
+                    + "Sudoku start with 1!");
+        }
+        long mask = getPossibilityMask(struct, major, minor);
+        if (number > numberOfFieldsPerStructure) {
+            return -1;
+        }
+        long left = mask & (-1L << (number - 1));
+        return left == 0 ? -1 : Long.numberOfTrailingZeros(left) + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachPossibility(Structure struct, int major, int minor,
+                                   IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the action!");
+        }
+        long mask = getPossibilityMask(struct, major, minor);
+        while (mask != 0) {
+            action.accept(Long.numberOfTrailingZeros(mask) + 1);
+            mask &= mask - 1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removePossibility(Structure struct, int major, int minor,
+                                  int number) throws InvalidSudokuException {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to remove the "
+                    + "possibility to set the number " + number + "that is less"
+                    + "than 1 or greater than " + numberOfFieldsPerStructure
+                    + ", the biggest number that may be set!");
+        }
+        if (removePossibility(geometry.getCellIndex(struct, major, minor),
+                1L << (number - 1)) == Outcome.CONTRADICTION) {
+            throw new InvalidSudokuException("Error! All possibilities "
+                    + "would be removed from an unset cell!");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Outcome eliminate(Structure struct, int major, int minor,
+                             int number) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to remove the "
+                    + "possibility to set the number " + number + "that is less"
+                    + "than 1 or greater than " + numberOfFieldsPerStructure
+                    + ", the biggest number that may be set!");
+        }
+        return removePossibility(geometry.getCellIndex(struct, major, minor),
+                1L << (number - 1));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getStateHash() {
+        return hash;
+    }
+
+    /**
+     * Creates a board sharing all chunks with this board. Afterwards neither
+     * this board nor the clone owns any chunk, so both copy a chunk before
+     * changing it.
+     *
+     * @return The cloned board.
+     */
+    @Override
+    public Board clone() {
+        PersistentSudokuBoard clone;
+        try {
+            clone = (PersistentSudokuBoard) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new Error("Error! Interface Cloneable not implemented in a "
+                    + "superclass of PersistentSudokuBoard!");
+        }
+        clone.contents = this.contents.clone();
+        clone.possibilities = this.possibilities.clone();
+        clone.owned = new boolean[numberOfFieldsPerStructure];
+        Arrays.fill(this.owned, false);
+        return clone;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Board
+                && ZobristHashing.equal(this, (Board) other);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return ZobristHashing.toHashCode(hash);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getStringRepresentation(" ");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(Board other) {
+        if (other == null || this.getNumbers() != other.getNumbers()) {
+            throw new IllegalArgumentException("Error! The other board has to "
+                    + "have the same size as this!");
+        }
+        for (int i = 0; i < numberOfFieldsPerStructure; i++) {
+            for (int j = 0; j < numberOfFieldsPerStructure; j++) {
+                int comparisonOfCells = compareCellsByContent(
+                        getCell(Structure.ROW, i, j),
+                        other.getCell(Structure.ROW, i, j));
+                if (comparisonOfCells != 0) {
+                    return comparisonOfCells;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String prettyPrint() {
+        return getStringRepresentation("\n");
+    }
+
+    /**
+     * Copies the chunk of box {@code box} if it is shared with another board.
+     *
+     * @param box The box which is about to be changed.
+     */
+    private void own(int box) {
+        if (!owned[box]) {
+            contents[box] = contents[box].clone();
+            possibilities[box] = possibilities[box].clone();
+            owned[box] = true;
+        }
+    }
+
+    /**
+     * Sets the cell with index {@code cell} to {@code number} and removes the
+     * number from the possibilities of all peers. The peers are not changed
+     * anymore once one of them ran out of possibilities.
+     *
+     * @param cell The index of the cell.
+     * @param number The number to set.
+     * @return {@link Outcome#UNCHANGED} if the cell already contained the
+     *         number, {@link Outcome#CONTRADICTION} if the cell contained
+     *         another number, the number was no possibility of the cell or
+     *         a peer ran out of possibilities, {@link Outcome#CHANGED}
+     *         otherwise.
+     */
+    private Outcome assign(int cell, int number) {
+        int box = geometry.getBox(cell);
+        int position = geometry.getPositionInBox(cell);
+        if (contents[box][position] != UNSET) {
+            return contents[box][position] == number ? Outcome.UNCHANGED
+                    : Outcome.CONTRADICTION;
+        }
+        long bit = 1L << (number - 1);
+        if ((possibilities[box][position] & bit) == 0) {
+            return Outcome.CONTRADICTION;
+        }
+        own(box);
+        hash ^= ZobristHashing.getContentKey(cell, number)
+                ^ ZobristHashing.getPossibilityKeys(cell,
+                        possibilities[box][position]);
+        contents[box][position] = (byte) number;
+        possibilities[box][position] = 0;
+        ++setCells;
+        lastCellSet = cell;
+        for (int i = 0; i < geometry.getPeerCount(); i++) {
+            if (removePossibility(geometry.getPeer(cell, i), bit)
+                    == Outcome.CONTRADICTION) {
+                return Outcome.CONTRADICTION;
+            }
+        }
+        return Outcome.CHANGED;
+    }
+
+    /**
+     * Removes the possibilities given as bit mask from the cell with index
+     * {@code cell}, copying its chunk first if it is shared. Nothing happens
+     * if the cell already lacks these possibilities.
+     *
+     * @param cell The index of the cell.
+     * @param bits The possibilities to remove.
+     * @return {@link Outcome#CONTRADICTION} if the last possibility of an
+     *         unset cell was removed, {@link Outcome#CHANGED} if a
+     *         possibility was removed, {@link Outcome#UNCHANGED} otherwise.
+     */
+    private Outcome removePossibility(int cell, long bits) {
+        int box = geometry.getBox(cell);
+        int position = geometry.getPositionInBox(cell);
+        long current = possibilities[box][position];
+        if ((current & bits) == 0) {
+            return Outcome.UNCHANGED;
+        }
+        own(box);
+        hash ^= ZobristHashing.getPossibilityKeys(cell, current & bits);
+        long remaining = current & ~bits;
+        possibilities[box][position] = remaining;
+        return remaining == 0 && contents[box][position] == UNSET
+                ? Outcome.CONTRADICTION : Outcome.CHANGED;
+    }
+
+    /**
+     * Returns whether a position specified by major coordinate {@code pos1} and
+     * minor coordinate {@code pos2} is identifying a cell within the Sudoku or
+     * not.
+     *
+     * @param pos1 The major coordinate.
+     * @param pos2 The minor coordinate.
+     * @return whether pos1 and pos2 specify the position of a cell or not.
+     */
+    private boolean isValidPosition(int pos1, int pos2) {
+        return pos1 >= 0 && pos1 < numberOfFieldsPerStructure && pos2 >= 0
+                && pos2 < numberOfFieldsPerStructure;
+    }
+
+    private String getStringRepresentation(String delimiter) {
+        assert delimiter != null;
+        StringJoiner boardAsString = new StringJoiner(delimiter);
+        for (int i = 0; i < numberOfFieldsPerStructure; i++) {
+            StringJoiner rowAsString = new StringJoiner(" ");
+            for (int j = 0; j < numberOfFieldsPerStructure; j++) {
+                int content = getCell(Structure.ROW, i, j);
+                rowAsString.add(content == Board.UNSET_CELL ? "."
+                        : Integer.toString(content));
+            }
+            boardAsString.add(rowAsString.toString());
+        }
+        return boardAsString.toString();
+    }
+
+    /**
+     * Compares two contents of cells according to ascending numbers. {@link
+     * #UNSET_CELL} is treated to be larger than any other number.
+     *
+     * @param content1 The content of the first cell.
+     * @param content2 The content of the second cell.
+     * @return -1 if content1 is smaller, 0 if equal, and 1 if bigger.
+     */
+    private static int compareCellsByContent(int content1, int content2) {
+        if (content1 == Board.UNSET_CELL) {
+            return content2 == content1 ? 0 : 1;
+        }
+        if (content2 == Board.UNSET_CELL) {
+            return -1;
+        }
+        if (content1 == content2) {
+            return 0;
+        }
+        return content1 < content2 ? -1 : 1;
+    }
+}
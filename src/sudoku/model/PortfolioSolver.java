@@ -0,0 +1,336 @@
+package sudoku.model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * A Sudoku solver racing several differently configured solvers, called its
+ * variants, on every search. Every variant searches on its own thread, the
+ * answer of the first one to finish is returned and the others are
+ * cancelled. As the runtimes of hard puzzles vary widely between solution
+ * strategies, branching orders and seeds, the fastest of several variants is
+ * far less likely to be stuck in an unlucky part of the search tree than any
+ * single one.
+ *
+ * Counting gives the same result for every variant. The single solution
+ * found for a Sudoku with several solutions, however, depends on which
+ * variant finishes first, so unlike for the other solvers it is not
+ * repeatable then. Finding all solutions is not raced, as every variant
+ * would have to enumerate the whole search tree and keep all solutions at
+ * the same time. Like the lexicographic iteration and the saturation, it is
+ * left to the first variant.
+ *
+ * The search limits apply to every variant on its own, e.g., each of them may
+ * visit as many nodes as the node limit allows. The race is aborted once all
+ * variants are. A portfolio must not search for several callers at the same
+ * time, as its variants are reconfigured for every race.
+ */
+public class PortfolioSolver implements SudokuSolver {
+
+    /**
+     * The number of variants with random branching created by {@link
+     * #createDefault(long)}.
+     */
+    private static final int RANDOM_VARIANTS = 2;
+
+    private final List<SudokuSolver> variants = new ArrayList<>();
+    private SearchLimits searchLimits;
+    private ExecutorService executor;
+
+    /**
+     * Creates a new PortfolioSolver without any variant.
+     */
+    public PortfolioSolver() {
+        searchLimits = SearchLimits.NONE;
+    }
+
+    /**
+     * Creates a PortfolioSolver with a set of variants differing in their
+     * search algorithm, their solution strategies and their branching order:
+     * a {@link SudokuBoardSolver} branching by {@link
+     * FewestPossibilitiesBranching}, one applying subset and locked candidate
+     * strategies and branching by {@link LeastConstrainingValueBranching}, a
+     * {@link DancingLinksSolver}, a {@link SatSudokuSolver} and two {@link
+     * SudokuBoardSolver}s branching by {@link RandomBranching}. Every {@link
+     * SudokuBoardSolver} applies the {@link EnforcedCellSaturator} and the
+     * {@link EnforcedNumberSaturator} in addition to its own strategies.
+     *
+     * On classic Sudokus with 3x3 boxes, only the first variant uses the
+     * specialized engine of {@link SudokuBoardSolver}, while the variants
+     * with other branching strategies take its general search, so their
+     * value orders and seeds still spread the race over the search tree.
+     *
+     * @param seed The seed of the first variant with random branching, the
+     *        other one uses the next seed.
+     * @return The new portfolio.
+     */
+    public static PortfolioSolver createDefault(long seed) {
+        PortfolioSolver portfolio = new PortfolioSolver();
+        portfolio.addVariant(createSinglesSolver());
+        SudokuBoardSolver reasoning = createSinglesSolver();
+        reasoning.addSaturator(new NakedSubsetSaturator(2));
+        reasoning.addSaturator(new HiddenSubsetSaturator(2));
+        reasoning.addSaturator(new LockedCandidatesSaturator());
+        reasoning.setBranchingStrategy(new LeastConstrainingValueBranching());
+        portfolio.addVariant(reasoning);
+        portfolio.addVariant(new DancingLinksSolver());
+        portfolio.addVariant(new SatSudokuSolver());
+        for (int i = 0; i < RANDOM_VARIANTS; i++) {
+            SudokuBoardSolver random = createSinglesSolver();
+            random.setBranchingStrategy(new RandomBranching(seed + i));
+            portfolio.addVariant(random);
+        }
+        return portfolio;
+    }
+
+    /**
+     * Creates a {@link SudokuBoardSolver} applying the {@link
+     * EnforcedCellSaturator} and the {@link EnforcedNumberSaturator}.
+     *
+     * @return The new solver.
+     */
+    private static SudokuBoardSolver createSinglesSolver() {
+        SudokuBoardSolver solver = new SudokuBoardSolver();
+        solver.addSaturator(new EnforcedCellSaturator());
+        solver.addSaturator(new EnforcedNumberSaturator());
+        return solver;
+    }
+
+    /**
+     * Adds a variant, which is raced against the others in all following
+     * searches. It should not be used on its own anymore, since its search
+     * limits are changed for every race.
+     *
+     * @param variant The solver to add.
+     */
+    public void addVariant(SudokuSolver variant) {
+        if (variant == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "variant of the portfolio!");
+        }
+        variants.add(variant);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The strategy is registered at every variant, in addition to the
+     * strategies they have been configured with.
+     */
+    @Override
+    public void addSaturator(Saturator saturator) {
+        for (SudokuSolver variant : variants) {
+            variant.addSaturator(saturator);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setSearchLimits(SearchLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "search limits!");
+        }
+        searchLimits = limits;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Board saturate(Board board) {
+        return getFirstVariant().saturate(board);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The solution of the variant finishing first is returned, which is only
+     * repeatable if {@code board} has at most one solution.
+     */
+    @Override
+    public Board findFirstSolution(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        return race(variant -> variant.findFirstSolution(board));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The solutions are found by the first variant alone.
+     */
+    @Override
+    public List<Board> findAllSolutions(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        SudokuSolver variant = getFirstVariant();
+        variant.setSearchLimits(searchLimits);
+        return variant.findAllSolutions(board);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The solutions are iterated by the first variant alone.
+     */
+    @Override
+    public Iterator<Board> iterateSolutions(Board board) {
+        SudokuSolver variant = getFirstVariant();
+        variant.setSearchLimits(searchLimits);
+        return variant.iterateSolutions(board);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long countSolutions(Board board, long limit) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Error! The limit of "
+                    + "solutions must not be negative!");
+        }
+        return race(variant -> variant.countSolutions(board, limit));
+    }
+
+    /**
+     * Gets the variant the searches which are not raced are left to.
+     *
+     * @return The first variant.
+     */
+    private SudokuSolver getFirstVariant() {
+        if (variants.isEmpty()) {
+            throw new IllegalStateException("Error! The portfolio has no "
+                    + "variant to solve Sudokus with!");
+        }
+        return variants.get(0);
+    }
+
+    /**
+     * Runs a search with every variant on its own thread and returns the
+     * result of the first variant which finishes. The other variants are
+     * cancelled, and the race ends once they have stopped, so the variants
+     * are idle afterwards.
+     *
+     * @param search The search to run with a variant.
+     * @param <T> The type of the result of the search.
+     * @return The result of the first finished search.
+     * @throws SearchAbortedException If all variants exceeded their limits,
+     *         if the caller is interrupted or if the race is cancelled.
+     */
+    private <T> T race(Function<SudokuSolver, T> search) {
+        getFirstVariant();
+        long start = System.nanoTime();
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "sudoku-portfolio");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        CancellationToken raceToken = new CancellationToken(
+                searchLimits.getCancellationToken());
+        SearchLimits variantLimits = searchLimits.withCancellationToken(
+                raceToken);
+        CompletionService<T> completion = new ExecutorCompletionService<>(
+                executor);
+        List<Future<T>> searches = new ArrayList<>();
+        for (SudokuSolver variant : variants) {
+            variant.setSearchLimits(variantLimits);
+            searches.add(completion.submit(() -> search.apply(variant)));
+        }
+        SearchAbortedException aborted = null;
+        long abortedNodes = 0;
+        long abortedSolutions = 0;
+        try {
+            for (int i = 0; i < searches.size(); i++) {
+                Future<T> finished = completion.take();
+                try {
+                    return finished.get();
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof SearchAbortedException)) {
+                        throw rethrow(e.getCause());
+                    }
+                    SearchAbortedException variantAborted =
+                            (SearchAbortedException) e.getCause();
+                    if (aborted == null) {
+                        aborted = variantAborted;
+                    }
+                    abortedNodes += variantAborted.getNodes();
+                    abortedSolutions = Math.max(abortedSolutions,
+                            variantAborted.getSolutions());
+                }
+            }
+            throw new SearchAbortedException(aborted.getReason(),
+                    abortedNodes, abortedSolutions, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SearchAbortedException(
+                    SearchAbortedException.Reason.INTERRUPTED, abortedNodes,
+                    abortedSolutions, System.nanoTime() - start);
+        } finally {
+            raceToken.cancel();
+            awaitAll(searches);
+        }
+    }
+
+    /**
+     * Waits until all searches have stopped, ignoring interrupts, which are
+     * restored afterwards. Cancelled searches stop after a few hundred nodes.
+     *
+     * @param searches The searches to wait for.
+     */
+    private static void awaitAll(List<? extends Future<?>> searches) {
+        boolean interrupted = false;
+        for (Future<?> search : searches) {
+            while (!search.isDone()) {
+                try {
+                    search.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    assert search.isDone();
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Converts a failure of a variant which is not caused by its limits into
+     * an unchecked exception to be thrown by the race.
+     *
+     * @param cause The failure of the variant.
+     * @return The exception to throw.
+     */
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException("Error! A variant of the portfolio "
+                + "failed!", cause);
+    }
+}
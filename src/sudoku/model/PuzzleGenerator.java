@@ -0,0 +1,440 @@
+package sudoku.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A generator of random Sudoku puzzles with a unique solution.
+ *
+ * Every puzzle starts from a random full grid: a random first row is
+ * completed by a solver branching by {@link RandomBranching}, and the rows
+ * within their bands, the bands, the columns within their stacks and the
+ * stacks of the solution are shuffled. Then the clues, or the orbits of
+ * clues of its {@link ClueSymmetry}, are removed in random order, and a clue
+ * is only kept if the puzzle would have a second solution without it. The
+ * uniqueness is checked by counting the solutions up to two, so a check
+ * stops at the second solution.
+ *
+ * Every puzzle only depends on its seed, so the puzzles are repeatable no
+ * matter how many threads generate them. Puzzles of a batch are generated in
+ * parallel on a fixed number of threads, each of which keeps its own solvers
+ * for all puzzles it generates.
+ */
+public class PuzzleGenerator {
+
+    private final int boxRows;
+    private final int boxCols;
+    private final int numbers;
+    private final int threads;
+    private final ThreadLocal<Solvers> solvers =
+            ThreadLocal.withInitial(Solvers::new);
+    private volatile ClueSymmetry symmetry;
+    private volatile int targetClues;
+    private volatile int attempts;
+    private volatile SearchLimits searchLimits;
+    private ExecutorService executor;
+
+    /**
+     * Creates a new PuzzleGenerator for the given size, which generates
+     * minimal puzzles without symmetry, one full grid per puzzle.
+     *
+     * @param boxRows The number of rows per box.
+     * @param boxCols The number of columns per box.
+     * @param threads The number of threads generating batches of puzzles.
+     */
+    public PuzzleGenerator(int boxRows, int boxCols, int threads) {
+        if (boxRows < 1 || boxCols < 1) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one row and one column per box!");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one thread to generate puzzles!");
+        }
+        this.boxRows = boxRows;
+        this.boxCols = boxCols;
+        this.numbers = boxRows * boxCols;
+        this.threads = threads;
+        this.symmetry = ClueSymmetry.NONE;
+        this.targetClues = 0;
+        this.attempts = 1;
+        this.searchLimits = SearchLimits.NONE;
+    }
+
+    /**
+     * Sets the symmetry pattern the given cells of all following puzzles
+     * follow.
+     *
+     * @param symmetry The symmetry of the given cells.
+     */
+    public void setSymmetry(ClueSymmetry symmetry) {
+        if (symmetry == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "symmetry!");
+        }
+        this.symmetry = symmetry;
+    }
+
+    /**
+     * Sets the number of clues at which the removal of clues stops. A puzzle
+     * keeps more clues if no further clue can be removed without losing the
+     * uniqueness of its solution or breaking its symmetry. With a target of
+     * 0, clues are removed as long as possible, which creates minimal
+     * puzzles.
+     *
+     * @param targetClues The number of clues to generate puzzles with.
+     */
+    public void setTargetClues(int targetClues) {
+        if (targetClues < 0 || targetClues > numbers * numbers) {
+            throw new IllegalArgumentException("Error! The target number of "
+                    + "clues must be between 0 and the number of cells!");
+        }
+        this.targetClues = targetClues;
+    }
+
+    /**
+     * Sets the number of full grids tried per puzzle. As long as a grid
+     * does not get down to the target number of clues, the next one is
+     * tried, and the puzzle with the fewest clues is kept.
+     *
+     * @param attempts The largest number of grids per puzzle.
+     */
+    public void setAttempts(int attempts) {
+        if (attempts < 1) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one attempt per puzzle!");
+        }
+        this.attempts = attempts;
+    }
+
+    /**
+     * Sets the limits of every single search, i.e., of completing a grid
+     * and of every check of uniqueness. A check exceeding its node or time
+     * limit keeps its clues, so the puzzle stays unique but has more clues.
+     * Cancellation and interrupts abort the generation.
+     *
+     * @param limits The limits of every search.
+     */
+    public void setSearchLimits(SearchLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "search limits!");
+        }
+        this.searchLimits = limits;
+    }
+
+    /**
+     * Generates a single puzzle on the calling thread.
+     *
+     * @param seed The seed of the puzzle.
+     * @return The puzzle, which has a unique solution.
+     * @throws SearchAbortedException If completing a grid exceeds the search
+     *         limits, or if the generation is cancelled or interrupted.
+     */
+    public Board generate(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] best = null;
+        int bestClues = Integer.MAX_VALUE;
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            int[] puzzle = removeClues(createGrid(random), random);
+            int clues = countClues(puzzle);
+            if (clues < bestClues) {
+                best = puzzle;
+                bestClues = clues;
+            }
+            if (clues <= targetClues) {
+                break;
+            }
+        }
+        return toBoard(best);
+    }
+
+    /**
+     * Generates a batch of puzzles in parallel. The seeds of the puzzles are
+     * drawn from {@code seed}, so the batch is repeatable.
+     *
+     * @param count The number of puzzles.
+     * @param seed The seed of the batch.
+     * @return The puzzles in the order of their seeds.
+     * @throws SearchAbortedException If completing a grid exceeds the search
+     *         limits, or if the generation is cancelled or interrupted.
+     */
+    public List<Board> generate(int count, long seed) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Error! The number of puzzles "
+                    + "must not be negative!");
+        }
+        ExecutorService executor = getExecutor();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<Future<Board>> puzzles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long puzzleSeed = seeds.nextLong();
+            puzzles.add(executor.submit(() -> generate(puzzleSeed)));
+        }
+        List<Board> result = new ArrayList<>(count);
+        try {
+            for (Future<Board> puzzle : puzzles) {
+                result.add(puzzle.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SearchAbortedException(
+                    SearchAbortedException.Reason.INTERRUPTED, 0, 0, 0);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        } finally {
+            for (Future<Board> puzzle : puzzles) {
+                puzzle.cancel(true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stops the threads once they have generated the puzzles handed to them.
+     * Following batches start new threads.
+     */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Gets the threads generating the puzzles, starting them if necessary.
+     *
+     * @return The executor of the threads.
+     */
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "sudoku-generator");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Creates a random full grid.
+     *
+     * @param random The source of randomness.
+     * @return The contents of the cells in row major order.
+     */
+    private int[] createGrid(SplittableRandom random) {
+        int[] firstRow = shuffle(numbers, random::nextInt);
+        int[] start = new int[numbers * numbers];
+        for (int col = 0; col < numbers; col++) {
+            start[col] = firstRow[col] + 1;
+        }
+        SudokuBoardSolver solver = solvers.get().completer;
+        solver.setSearchLimits(searchLimits);
+        solver.setBranchingStrategy(new RandomBranching(random.nextLong()));
+        Board solution = solver.findFirstSolution(toBoard(start));
+        if (solution == null) {
+            throw new IllegalStateException("Error! A valid first row could "
+                    + "not be completed!");
+        }
+        int[] rows = shuffleBlocks(boxRows, boxCols, random::nextInt);
+        int[] cols = shuffleBlocks(boxCols, boxRows, random::nextInt);
+        int[] grid = new int[numbers * numbers];
+        for (int row = 0; row < numbers; row++) {
+            for (int col = 0; col < numbers; col++) {
+                grid[row * numbers + col] = solution.getCell(Structure.ROW,
+                        rows[row], cols[col]);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Removes the orbits of clues in random order as long as the solution
+     * stays unique and the target number of clues is not undercut.
+     *
+     * @param grid The full grid to remove the clues from. Will be changed.
+     * @param random The source of randomness.
+     * @return The puzzle, i.e., {@code grid} with unset cells as 0.
+     */
+    private int[] removeClues(int[] grid, SplittableRandom random) {
+        int[] order = shuffle(grid.length, random::nextInt);
+        boolean[] visited = new boolean[grid.length];
+        int[] removed = new int[grid.length];
+        SudokuBoardSolver checker = solvers.get().checker;
+        checker.setSearchLimits(searchLimits);
+        int clues = grid.length;
+        for (int cell : order) {
+            if (visited[cell]) {
+                continue;
+            }
+            int[] orbit = symmetry.getOrbit(cell, numbers);
+            for (int member : orbit) {
+                visited[member] = true;
+            }
+            if (clues - orbit.length < targetClues) {
+                continue;
+            }
+            for (int i = 0; i < orbit.length; i++) {
+                removed[i] = grid[orbit[i]];
+                grid[orbit[i]] = 0;
+            }
+            if (isUnique(checker, grid)) {
+                clues -= orbit.length;
+            } else {
+                for (int i = 0; i < orbit.length; i++) {
+                    grid[orbit[i]] = removed[i];
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Checks whether a puzzle has a unique solution.
+     *
+     * @param checker The solver counting the solutions.
+     * @param puzzle The contents of the cells, 0 for unset cells.
+     * @return {@code true} if the puzzle has one solution, {@code false} if
+     *         it has more or the check exceeded its node or time limit.
+     */
+    private boolean isUnique(SudokuSolver checker, int[] puzzle) {
+        try {
+            return checker.countSolutions(toBoard(puzzle), 2) == 1;
+        } catch (SearchAbortedException e) {
+            if (e.getReason() == SearchAbortedException.Reason.DEADLINE
+                    || e.getReason()
+                    == SearchAbortedException.Reason.NODE_LIMIT) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a board with the given cells set.
+     *
+     * @param puzzle The contents of the cells in row major order, 0 for
+     *        unset cells.
+     * @return The new board.
+     */
+    private Board toBoard(int[] puzzle) {
+        Board board = BoardFactory.createBoard(boxRows, boxCols);
+        try {
+            for (int cell = 0; cell < puzzle.length; cell++) {
+                if (puzzle[cell] != 0) {
+                    board.setCell(Structure.ROW, cell / numbers,
+                            cell % numbers, puzzle[cell]);
+                }
+            }
+        } catch (InvalidSudokuException e) {
+            throw new IllegalStateException("Error! The clues of a "
+                    + "generated puzzle contradict each other!", e);
+        }
+        return board;
+    }
+
+    /**
+     * Counts the given cells of a puzzle.
+     *
+     * @param puzzle The contents of the cells, 0 for unset cells.
+     * @return The number of clues.
+     */
+    private static int countClues(int[] puzzle) {
+        int clues = 0;
+        for (int content : puzzle) {
+            if (content != 0) {
+                ++clues;
+            }
+        }
+        return clues;
+    }
+
+    /**
+     * Creates a permutation of {@code blockSize * blocks} lines that only
+     * moves lines within their block and whole blocks, which keeps a
+     * solution valid when applied to its rows within bands or its columns
+     * within stacks.
+     *
+     * @param blockSize The number of lines per block.
+     * @param blocks The number of blocks.
+     * @param random The source of randomness, returning a random number
+     *        from 0 to one less than its argument.
+     * @return The permutation.
+     */
+    public static int[] shuffleBlocks(int blockSize, int blocks,
+                                      IntUnaryOperator random) {
+        if (blockSize < 1 || blocks < 1 || random == null) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one block of at least one line and a source of "
+                    + "randomness!");
+        }
+        int[] blockOrder = shuffle(blocks, random);
+        int[] lines = new int[blockSize * blocks];
+        for (int block = 0; block < blocks; block++) {
+            int[] lineOrder = shuffle(blockSize, random);
+            for (int line = 0; line < blockSize; line++) {
+                lines[block * blockSize + line] =
+                        blockOrder[block] * blockSize + lineOrder[line];
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Creates a random permutation of the numbers from 0 to {@code size - 1}.
+     *
+     * @param size The number of elements.
+     * @param random The source of randomness, returning a random number
+     *        from 0 to one less than its argument.
+     * @return The permutation.
+     */
+    public static int[] shuffle(int size, IntUnaryOperator random) {
+        if (size < 0 || random == null) {
+            throw new IllegalArgumentException("Error! The size must not be "
+                    + "negative and there must be a source of randomness!");
+        }
+        int[] permutation = new int[size];
+        for (int i = 0; i < size; i++) {
+            permutation[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.applyAsInt(i + 1);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+        return permutation;
+    }
+
+    /**
+     * The solvers of a thread: one completing the grids and one checking
+     * the uniqueness of the puzzles. Only the checking solver schedules its
+     * solution strategies adaptively, as the number of solutions does not
+     * depend on the order of the strategies, but the random grids would.
+     */
+    private static final class Solvers {
+        private final SudokuBoardSolver completer = new SudokuBoardSolver();
+        private final SudokuBoardSolver checker = new SudokuBoardSolver();
+
+        /**
+         * Creates the solvers of a thread.
+         */
+        private Solvers() {
+            completer.addSaturator(new EnforcedCellSaturator());
+            completer.addSaturator(new EnforcedNumberSaturator());
+            checker.setAdaptiveScheduling(true);
+            checker.addSaturator(new EnforcedCellSaturator());
+            checker.addSaturator(new EnforcedNumberSaturator());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package sudoku.model;
+
+import java.util.Random;
+
+/**
+ * A branching strategy selecting a random cell among those with the fewest
+ * possibilities and trying its numbers in random order. Restarting searches
+ * with different seeds spreads them over the search tree, which avoids
+ * getting stuck in the same unlucky subtree.
+ *
+ * The results are repeatable for a given seed as long as the search runs on
+ * one thread only.
+ */
+public class RandomBranching implements BranchingStrategy {
+    private final Random random;
+
+    /**
+     * Creates a new RandomBranching with a random seed.
+     */
+    public RandomBranching() {
+        random = new Random();
+    }
+
+    /**
+     * Creates a new RandomBranching with a fixed seed.
+     *
+     * @param seed The seed of the random choices.
+     */
+    public RandomBranching(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int selectCell(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the board to branch on!");
+        }
+        SudokuGeometry geometry = board.getGeometry();
+        int selected = -1;
+        int fewest = board.getNumbers() + 1;
+        int candidates = 0;
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            int possibilities = board.getPossibilityCount(Structure.ROW,
+                    geometry.getRow(cell), geometry.getColumn(cell));
+            if (possibilities == 0 || possibilities > fewest) {
+                continue;
+            }
+            if (possibilities < fewest) {
+                fewest = possibilities;
+                candidates = 0;
+            }
+
+            /*
+             * Reservoir sampling keeps every candidate seen so far with equal
+             * probability.
+             */
+            ++candidates;
+            if (random.nextInt(candidates) == 0) {
+                selected = cell;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int orderNumbers(Board board, int cell, int[] numbers) {
+        int count = BranchingStrategy.super.orderNumbers(board, cell, numbers);
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = numbers[i];
+            numbers[i] = numbers[j];
+            numbers[j] = swap;
+        }
+        return count;
+    }
+}
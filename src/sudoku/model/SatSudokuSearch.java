@@ -0,0 +1,242 @@
+package sudoku.model;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The search for the solutions of a Sudoku by encoding it as satisfiability
+ * problem for a {@link CdclSolver}.
+ *
+ * There is one variable for every unset cell and every number that may still
+ * be set into it, except for the numbers already set into a peer. The clauses
+ * demand that every unset cell contains exactly one number and that every
+ * number missing in a structure occurs in exactly one of its cells. Small
+ * at-most-one constraints are encoded by one clause per pair of literals,
+ * larger ones by a sequential counter with a linear number of auxiliary
+ * variables and clauses.
+ *
+ * Solutions are enumerated by excluding every found one by a clause. These
+ * clauses are kept, so a further search continues after the solutions found
+ * before.
+ *
+ * Encoding large boards takes a noticeable share of the search, so the
+ * budget of the search is checked while encoding, once per cell and per
+ * structure.
+ */
+final class SatSudokuSearch implements SolutionSearch {
+
+    /**
+     * The largest number of literals whose at-most-one constraint is encoded
+     * pairwise.
+     */
+    private static final int MAX_PAIRWISE = 6;
+
+    private final SudokuGeometry geometry;
+    private final int[] givens;
+    private final CdclSolver solver = new CdclSolver();
+
+    /*
+     * The variable of every cell and number at index cell * numbers + number
+     * - 1, or 0 if there is none, and the cell and the number of every
+     * variable standing for one. These variables are created first, the
+     * auxiliary ones follow.
+     */
+    private final int[] variables;
+    private final int[] cellsOfVariables;
+    private final int[] numbersOfVariables;
+    private int cellVariables = 0;
+    private boolean solvable = true;
+
+    /**
+     * Creates the search for the solutions of {@code board}. The contents and
+     * the remaining possibilities of the board are taken over.
+     *
+     * @param board The Sudoku to solve. Will not be changed.
+     * @param budget The budget of the search, which already applies to the
+     *        encoding.
+     * @throws SearchAbortedException If the budget is exceeded while
+     *         encoding.
+     */
+    SatSudokuSearch(Board board, SearchBudget budget) {
+        assert board != null && budget != null;
+        geometry = board.getGeometry();
+        int numbers = geometry.getNumbers();
+        int cells = geometry.getCells();
+        givens = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            int content = board.getCell(Structure.ROW, geometry.getRow(cell),
+                    geometry.getColumn(cell));
+            givens[cell] = content == Board.UNSET_CELL ? 0 : content;
+        }
+
+        /*
+         * The numbers set in every structure, which conflicting contents
+         * make unsolvable.
+         */
+        boolean[] placed = new boolean[geometry.getUnits() * numbers];
+        for (int cell = 0; cell < cells && solvable; cell++) {
+            if (givens[cell] != 0) {
+                for (Structure struct : Structure.values()) {
+                    int index = geometry.getUnit(struct,
+                            geometry.getMajor(struct, cell)) * numbers
+                            + givens[cell] - 1;
+                    solvable &= !placed[index];
+                    placed[index] = true;
+                }
+            }
+        }
+        variables = new int[cells * numbers];
+        cellsOfVariables = new int[cells * numbers + 1];
+        numbersOfVariables = new int[cells * numbers + 1];
+        for (int cell = 0; cell < cells && solvable; cell++) {
+            if (givens[cell] != 0) {
+                continue;
+            }
+            budget.check();
+            int row = geometry.getRow(cell);
+            int col = geometry.getColumn(cell);
+            int number = board.getNextPossibility(Structure.ROW, row, col, 1);
+            while (number != -1) {
+                if (!isPlacedInStructure(placed, cell, number)) {
+                    variables[cell * numbers + number - 1] =
+                            newCellVariable(cell, number);
+                }
+                number = board.getNextPossibility(Structure.ROW, row, col,
+                        number + 1);
+            }
+        }
+        int[] literals = new int[numbers];
+        for (int cell = 0; cell < cells && solvable; cell++) {
+            if (givens[cell] == 0) {
+                budget.check();
+                int size = 0;
+                for (int number = 1; number <= numbers; number++) {
+                    int variable = variables[cell * numbers + number - 1];
+                    if (variable != 0) {
+                        literals[size++] = variable;
+                    }
+                }
+                addExactlyOne(literals, size);
+            }
+        }
+        for (int unit = 0; unit < geometry.getUnits() && solvable; unit++) {
+            budget.check();
+            for (int number = 1; number <= numbers && solvable; number++) {
+                if (!placed[unit * numbers + number - 1]) {
+                    int size = 0;
+                    for (int i = 0; i < numbers; i++) {
+                        int variable = variables[geometry.getUnitCell(unit, i)
+                                * numbers + number - 1];
+                        if (variable != 0) {
+                            literals[size++] = variable;
+                        }
+                    }
+                    addExactlyOne(literals, size);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long search(long limit, Consumer<int[]> solutions,
+                       SearchBudget budget) {
+        long found = 0;
+        while (solvable && found < limit && solver.solve(budget)) {
+            ++found;
+            budget.foundSolutions(1);
+            int[] contents = givens.clone();
+            int[] excluded = new int[cellVariables];
+            int size = 0;
+            for (int variable = 1; variable <= cellVariables; variable++) {
+                if (solver.getValue(variable)) {
+                    contents[cellsOfVariables[variable]] =
+                            numbersOfVariables[variable];
+                    excluded[size++] = -variable;
+                }
+            }
+            if (solutions != null) {
+                solutions.accept(contents);
+            }
+            solvable = solver.addClause(Arrays.copyOf(excluded, size));
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether a number is set into a peer of a cell.
+     *
+     * @param placed The numbers set in every structure.
+     * @param cell The index of the cell.
+     * @param number The number to check.
+     * @return {@code true} if the number is set into a peer, {@code false}
+     *         otherwise.
+     */
+    private boolean isPlacedInStructure(boolean[] placed, int cell,
+                                        int number) {
+        for (Structure struct : Structure.values()) {
+            if (placed[geometry.getUnit(struct, geometry.getMajor(struct,
+                    cell)) * geometry.getNumbers() + number - 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the variable standing for {@code number} being set into {@code
+     * cell}. These variables are created before all auxiliary ones.
+     *
+     * @param cell The index of the cell.
+     * @param number The number.
+     * @return The new variable.
+     */
+    private int newCellVariable(int cell, int number) {
+        int variable = solver.newVariable();
+        solver.setInitialValue(variable, true);
+        cellVariables = variable;
+        cellsOfVariables[variable] = cell;
+        numbersOfVariables[variable] = number;
+        return variable;
+    }
+
+    /**
+     * Adds the clauses demanding that exactly one of the given variables is
+     * true. The Sudoku becomes unsolvable if there is none.
+     *
+     * @param literals The variables.
+     * @param size The number of variables.
+     */
+    private void addExactlyOne(int[] literals, int size) {
+        solvable &= solver.addClause(Arrays.copyOf(literals, size));
+        if (size <= MAX_PAIRWISE) {
+            for (int i = 0; i < size && solvable; i++) {
+                for (int j = i + 1; j < size && solvable; j++) {
+                    solvable = solver.addClause(-literals[i], -literals[j]);
+                }
+            }
+            return;
+        }
+
+        /*
+         * The auxiliary variable of position i is true if one of the first
+         * i + 1 variables is true.
+         */
+        int previous = 0;
+        for (int i = 0; i < size && solvable; i++) {
+            if (i > 0) {
+                solvable &= solver.addClause(-literals[i], -previous);
+            }
+            if (i < size - 1) {
+                int counter = solver.newVariable();
+                solvable &= solver.addClause(-literals[i], counter);
+                if (i > 0) {
+                    solvable &= solver.addClause(-previous, counter);
+                }
+                previous = counter;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package sudoku.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A Sudoku solver which encodes the board as satisfiability problem and
+ * solves it by an in-process solver with conflict driven clause learning. The
+ * encoding is built from the contents and the remaining possibilities of the
+ * given board, so the solutions respect all possibilities removed before.
+ *
+ * Learning from conflicts keeps the search from running into the same dead
+ * ends over and over, which makes this solver suited for large boards like
+ * 25x25 and beyond, and for heavily constrained ones where backtracking by
+ * {@link SudokuBoardSolver} thrashes.
+ *
+ * The registered solution strategies are only used by {@link
+ * #saturate(Board)}, the search itself does not need them.
+ */
+public class SatSudokuSolver implements SudokuSolver {
+    private final SudokuBoardSolver saturationSolver;
+    private SearchLimits searchLimits;
+
+    /**
+     * Creates a new SatSudokuSolver with no solution strategy.
+     */
+    public SatSudokuSolver() {
+        saturationSolver = new SudokuBoardSolver();
+        searchLimits = SearchLimits.NONE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addSaturator(Saturator saturator) {
+        saturationSolver.addSaturator(saturator);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setSearchLimits(SearchLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "search limits!");
+        }
+        searchLimits = limits;
+        saturationSolver.setSearchLimits(limits);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Board saturate(Board board) {
+        return saturationSolver.saturate(board);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Board findFirstSolution(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        List<Board> solution = getSolvedSudokus(board, 1);
+        return solution.isEmpty() ? null : solution.get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Board> findAllSolutions(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        List<Board> solutions = getSolvedSudokus(board, Long.MAX_VALUE);
+        Collections.sort(solutions);
+        return solutions;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The lexicographic order requires branching on the cells in row major
+     * order, so the solutions are searched like by {@link
+     * SudokuBoardSolver} using the registered solution strategies.
+     */
+    @Override
+    public Iterator<Board> iterateSolutions(Board board) {
+        return saturationSolver.iterateSolutions(board);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long countSolutions(Board board, long limit) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Error! The limit of "
+                    + "solutions must not be negative!");
+        }
+        SearchBudget budget = new SearchBudget(searchLimits);
+        return new SatSudokuSearch(board, budget).search(limit, null, budget);
+    }
+
+    /**
+     * Returns a list containing at most {@code limit} solutions of {@code
+     * board} in the order they are found.
+     *
+     * @param board The board to be solved.
+     * @param limit The greatest number of solutions to find.
+     * @return A list containing solved boards.
+     */
+    private List<Board> getSolvedSudokus(Board board, long limit) {
+        assert board != null;
+        List<Board> solutions = new ArrayList<>();
+        SearchBudget budget = new SearchBudget(searchLimits);
+        new SatSudokuSearch(board, budget).search(limit,
+                contents -> solutions.add(
+                        SolutionSearch.toBoard(board, contents)),
+                budget);
+        return solutions;
+    }
+}
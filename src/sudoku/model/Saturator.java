@@ -25,4 +25,54 @@ public interface Saturator {
      */
     boolean saturate(Board board) throws UnsolvableSudokuException;
 
+    /**
+     * Applies the solution strategy like {@link #saturate(Board)}, but only
+     * where deductions may have become possible through the given changes.
+     * It is sufficient to consider the changed cells and structures, as long
+     * as the board was saturated with respect to this strategy before the
+     * changes happened. Changes made by this method are recorded by the board
+     * and processed in a later round.
+     *
+     * The default implementation ignores the changes and saturates the whole
+     * board.
+     *
+     * @param board The Sudoku to solve.
+     * @param changes The cells and structures changed since the last time the
+     *        strategy was applied on the board.
+     * @return {@code true} if the {@code board} was changed, {@code false}
+     *         otherwise.
+     * @throws UnsolvableSudokuException if the solution try resulted in an
+     *         invalid Sudoku. This means that the passed Sudoku was not
+     *         solvable.
+     */
+    default boolean saturate(Board board, ChangeSet changes)
+            throws UnsolvableSudokuException {
+        return saturate(board);
+    }
+
+    /**
+     * Applies the solution strategy like {@link #saturate(Board, ChangeSet)},
+     * but reports an unsolvable Sudoku by its result instead of an exception.
+     * Solvers use this method, since they run into unsolvable Sudokus on
+     * every dead end of their search.
+     *
+     * The default implementation calls {@link #saturate(Board, ChangeSet)}
+     * and translates its exception.
+     *
+     * @param board The Sudoku to solve.
+     * @param changes The cells and structures changed since the last time the
+     *        strategy was applied on the board.
+     * @return {@link Outcome#CHANGED} if the {@code board} was changed,
+     *         {@link Outcome#CONTRADICTION} if the solution try resulted in an
+     *         invalid Sudoku, {@link Outcome#UNCHANGED} otherwise.
+     */
+    default Outcome propagate(Board board, ChangeSet changes) {
+        try {
+            return saturate(board, changes) ? Outcome.CHANGED
+                    : Outcome.UNCHANGED;
+        } catch (UnsolvableSudokuException e) {
+            return Outcome.CONTRADICTION;
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package sudoku.model;
+
+/**
+ * The statistics a {@link SudokuBoardSolver} gathered about one of its
+ * solution strategies while saturating boards. They are a snapshot, i.e.,
+ * they do not change while the solver goes on.
+ */
+public final class SaturatorStatistics {
+    private final Saturator saturator;
+    private final long calls;
+    private final long changes;
+    private final long contradictions;
+    private final long nanos;
+    private final boolean skipped;
+
+    /**
+     * Creates the statistics of a solution strategy.
+     *
+     * @param saturator The solution strategy.
+     * @param calls The number of times the strategy has been applied.
+     * @param changes The number of times it changed the board.
+     * @param contradictions The number of times it found the board to be
+     *        unsolvable.
+     * @param nanos The time spent applying it in nanoseconds.
+     * @param skipped Indicator if the strategy is currently skipped.
+     */
+    SaturatorStatistics(Saturator saturator, long calls, long changes,
+                        long contradictions, long nanos, boolean skipped) {
+        assert saturator != null;
+        this.saturator = saturator;
+        this.calls = calls;
+        this.changes = changes;
+        this.contradictions = contradictions;
+        this.nanos = nanos;
+        this.skipped = skipped;
+    }
+
+    /**
+     * Gets the solution strategy the statistics are about.
+     *
+     * @return The solution strategy.
+     */
+    public Saturator getSaturator() {
+        return saturator;
+    }
+
+    /**
+     * Gets the number of times the strategy has been applied.
+     *
+     * @return The number of calls.
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Gets the number of times the strategy changed the board.
+     *
+     * @return The number of calls changing the board.
+     */
+    public long getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets the number of times the strategy found the board to be
+     * unsolvable.
+     *
+     * @return The number of calls finding a contradiction.
+     */
+    public long getContradictions() {
+        return contradictions;
+    }
+
+    /**
+     * Gets the time spent applying the strategy.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Gets the average time spent per application of the strategy.
+     *
+     * @return The average time in nanoseconds, or 0 if the strategy has not
+     *         been applied yet.
+     */
+    public double getAverageNanos() {
+        return calls == 0 ? 0 : (double) nanos / calls;
+    }
+
+    /**
+     * Gets the share of the applications of the strategy which changed the
+     * board or found it to be unsolvable.
+     *
+     * @return The yield between 0 and 1, or 0 if the strategy has not been
+     *         applied yet.
+     */
+    public double getYield() {
+        return calls == 0 ? 0 : (double) (changes + contradictions) / calls;
+    }
+
+    /**
+     * Checks whether the solver currently skips the strategy most of the
+     * time, since its yield was too low.
+     *
+     * @return {@code true} if the strategy is skipped, {@code false}
+     *         otherwise.
+     */
+    public boolean isSkipped() {
+        return skipped;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls, %d changes, %d contradictions, "
+                + "%.0f ns per call%s", saturator.getClass().getSimpleName(),
+                calls, changes, contradictions, getAverageNanos(),
+                skipped ? ", skipped" : "");
+    }
+}
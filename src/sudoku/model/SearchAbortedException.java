@@ -0,0 +1,101 @@
+package sudoku.model;
+
+/**
+ * Exception if a search exceeded its {@link SearchLimits}. It tells how far
+ * the search got, which helps to choose sensible limits.
+ *
+ * It is unchecked, as the searches of a {@link SudokuSolver} only throw it if
+ * limits have been set explicitly.
+ */
+public class SearchAbortedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The reasons to abort a search.
+     */
+    public enum Reason {
+
+        /**
+         * The search took longer than its time limit.
+         */
+        DEADLINE,
+
+        /**
+         * The search visited more nodes than its node limit.
+         */
+        NODE_LIMIT,
+
+        /**
+         * The cancellation token of the search has been cancelled.
+         */
+        CANCELLED,
+
+        /**
+         * The thread which started the search has been interrupted. Its
+         * interrupt status is kept.
+         */
+        INTERRUPTED
+    }
+
+    private final Reason reason;
+    private final long nodes;
+    private final long solutions;
+    private final long nanos;
+
+    /**
+     * Creates a new exception with the progress of the aborted search.
+     *
+     * @param reason The reason to abort the search.
+     * @param nodes The number of nodes visited.
+     * @param solutions The number of solutions found.
+     * @param nanos The time the search took in nanoseconds.
+     */
+    SearchAbortedException(Reason reason, long nodes, long solutions,
+                           long nanos) {
+        super("The search has been aborted (" + reason + ") after " + nodes
+                + " nodes, " + solutions + " solutions and "
+                + nanos / 1000000 + " ms.");
+        this.reason = reason;
+        this.nodes = nodes;
+        this.solutions = solutions;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Gets the reason to abort the search.
+     *
+     * @return The reason.
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Gets the number of nodes the search visited, i.e., of numbers tried in
+     * a cell while branching.
+     *
+     * @return The number of nodes.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Gets the number of solutions the search found before it was aborted.
+     *
+     * @return The number of solutions.
+     */
+    public long getSolutions() {
+        return solutions;
+    }
+
+    /**
+     * Gets the time the search took until it was aborted.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,177 @@
+package sudoku.model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The progress of a single search measured against its {@link SearchLimits}.
+ * The search reports every node and every found solution, and the budget
+ * throws a {@link SearchAbortedException} once a limit is exceeded. All
+ * threads of a parallel search share one budget.
+ *
+ * The node limit is checked at every node, the other limits only every
+ * {@link #CHECK_INTERVAL} nodes, which keeps the checks cheap compared to the
+ * work done per node.
+ *
+ * A part of a parallel search may use a view of the shared budget with an
+ * additional stop condition, which is checked together with the other
+ * limits. It ends just that part by a {@link SearchStoppedException}, e.g.,
+ * once the results of other parts make its own superfluous.
+ */
+final class SearchBudget {
+
+    /**
+     * The number of nodes between two checks of the time, the cancellation
+     * token and the interrupt status. Must be a power of two.
+     */
+    static final int CHECK_INTERVAL = 256;
+
+    private final long nodeLimit;
+    private final CancellationToken cancellationToken;
+    private final boolean timed;
+    private final long start;
+    private final long deadline;
+    private final Thread caller;
+    private final AtomicBoolean interrupted;
+    private final AtomicLong nodes;
+    private final AtomicLong solutions;
+    private final BooleanSupplier stopCondition;
+
+    /**
+     * Creates the budget of a search starting now on the calling thread.
+     *
+     * @param limits The limits of the search.
+     * @throws SearchAbortedException If the search is cancelled already.
+     */
+    SearchBudget(SearchLimits limits) {
+        assert limits != null;
+        nodeLimit = limits.getNodeLimit();
+        cancellationToken = limits.getCancellationToken();
+        timed = limits.getTimeLimit() != Long.MAX_VALUE;
+        start = System.nanoTime();
+        deadline = start + limits.getTimeLimit();
+        caller = Thread.currentThread();
+        interrupted = new AtomicBoolean();
+        nodes = new AtomicLong();
+        solutions = new AtomicLong();
+        stopCondition = null;
+        check();
+    }
+
+    /**
+     * Creates a view of a budget with an additional stop condition, which
+     * shares the limits, the counters and the interrupt status of the budget.
+     *
+     * @param budget The budget to share.
+     * @param stopCondition The condition to stop the search at.
+     */
+    private SearchBudget(SearchBudget budget, BooleanSupplier stopCondition) {
+        nodeLimit = budget.nodeLimit;
+        cancellationToken = budget.cancellationToken;
+        timed = budget.timed;
+        start = budget.start;
+        deadline = budget.deadline;
+        caller = budget.caller;
+        interrupted = budget.interrupted;
+        nodes = budget.nodes;
+        solutions = budget.solutions;
+        this.stopCondition = stopCondition;
+    }
+
+    /**
+     * Creates a view of this budget which additionally stops the search by a
+     * {@link SearchStoppedException} once {@code stopCondition} holds at a
+     * check of the limits.
+     *
+     * @param stopCondition The condition to stop the search at, which has to
+     *        be cheap and thread safe.
+     * @return The view of this budget.
+     */
+    SearchBudget withStopCondition(BooleanSupplier stopCondition) {
+        assert stopCondition != null;
+        return new SearchBudget(this, stopCondition);
+    }
+
+    /**
+     * Reports that the search visits a node, i.e., tries a number in a cell.
+     *
+     * @throws SearchAbortedException If a limit is exceeded.
+     * @throws SearchStoppedException If the stop condition holds.
+     */
+    void visitNode() {
+        long visited = nodes.incrementAndGet();
+        if (visited > nodeLimit) {
+            abort(SearchAbortedException.Reason.NODE_LIMIT);
+        }
+        if ((visited & (CHECK_INTERVAL - 1)) == 0) {
+            check();
+        }
+    }
+
+    /**
+     * Reports that the search found solutions.
+     *
+     * @param count The number of found solutions.
+     */
+    void foundSolutions(long count) {
+        solutions.addAndGet(count);
+    }
+
+    /**
+     * Reports that the thread which started the search has been interrupted
+     * while it waits for other threads searching, which do not see its
+     * interrupt status.
+     */
+    void interrupt() {
+        interrupted.set(true);
+    }
+
+    /**
+     * Checks the limits other than the node limit and the stop condition.
+     *
+     * @throws SearchAbortedException If a limit is exceeded.
+     * @throws SearchStoppedException If the stop condition holds.
+     */
+    void check() {
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            abort(SearchAbortedException.Reason.CANCELLED);
+        }
+        if (interrupted.get() || caller.isInterrupted()) {
+            abort(SearchAbortedException.Reason.INTERRUPTED);
+        }
+        if (timed && System.nanoTime() - deadline > 0) {
+            abort(SearchAbortedException.Reason.DEADLINE);
+        }
+        if (stopCondition != null && stopCondition.getAsBoolean()) {
+            throw new SearchStoppedException();
+        }
+    }
+
+    /**
+     * Aborts the search.
+     *
+     * @param reason The reason to abort the search.
+     * @throws SearchAbortedException Always.
+     */
+    private void abort(SearchAbortedException.Reason reason) {
+        throw new SearchAbortedException(reason, nodes.get(),
+                solutions.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * The signal ending a search whose stop condition holds. It is caught by
+     * whoever set the condition and never leaves a solver, so it carries no
+     * stack trace.
+     */
+    static final class SearchStoppedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Creates the signal.
+         */
+        SearchStoppedException() {
+            super(null, null, false, false);
+        }
+    }
+}
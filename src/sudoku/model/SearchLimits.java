@@ -0,0 +1,112 @@
+package sudoku.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The limits of every search of a {@link SudokuSolver}, i.e., of every call
+ * finding, counting or iterating solutions. A search exceeding them throws a
+ * {@link SearchAbortedException}. Limits are immutable, the {@code with}
+ * methods return changed copies.
+ *
+ * A search is also aborted if the thread which started it is interrupted.
+ * The limits are checked every few hundred nodes, so a search may run a bit
+ * beyond them.
+ */
+public final class SearchLimits {
+
+    /**
+     * The limits of a search which may run until it is finished.
+     */
+    public static final SearchLimits NONE = new SearchLimits(Long.MAX_VALUE,
+            Long.MAX_VALUE, null);
+
+    private final long timeLimit;
+    private final long nodeLimit;
+    private final CancellationToken cancellationToken;
+
+    /**
+     * Creates new limits.
+     *
+     * @param timeLimit The greatest time in nanoseconds a search may take.
+     * @param nodeLimit The greatest number of nodes a search may visit.
+     * @param cancellationToken The token stopping the search, or {@code
+     *        null}.
+     */
+    private SearchLimits(long timeLimit, long nodeLimit,
+                         CancellationToken cancellationToken) {
+        this.timeLimit = timeLimit;
+        this.nodeLimit = nodeLimit;
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Creates a copy of these limits with a wall clock deadline, which is
+     * {@code time} after the start of every search.
+     *
+     * @param time The greatest time a search may take.
+     * @param unit The unit of {@code time}.
+     * @return The changed limits.
+     */
+    public SearchLimits withTimeLimit(long time, TimeUnit unit) {
+        if (time < 0 || unit == null) {
+            throw new IllegalArgumentException("Error! The time limit must "
+                    + "not be negative and must have a unit!");
+        }
+        return new SearchLimits(unit.toNanos(time), nodeLimit,
+                cancellationToken);
+    }
+
+    /**
+     * Creates a copy of these limits with a greatest number of nodes of the
+     * search tree, i.e., of numbers tried in a cell while branching.
+     *
+     * @param nodes The greatest number of nodes a search may visit.
+     * @return The changed limits.
+     */
+    public SearchLimits withNodeLimit(long nodes) {
+        if (nodes < 0) {
+            throw new IllegalArgumentException("Error! The node limit must "
+                    + "not be negative!");
+        }
+        return new SearchLimits(timeLimit, nodes, cancellationToken);
+    }
+
+    /**
+     * Creates a copy of these limits with a token to cancel the searches.
+     *
+     * @param token The token stopping the searches, or {@code null} if they
+     *        cannot be cancelled.
+     * @return The changed limits.
+     */
+    public SearchLimits withCancellationToken(CancellationToken token) {
+        return new SearchLimits(timeLimit, nodeLimit, token);
+    }
+
+    /**
+     * Gets the greatest time a search may take.
+     *
+     * @return The time limit in nanoseconds, or {@link Long#MAX_VALUE} if
+     *         there is none.
+     */
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * Gets the greatest number of nodes a search may visit.
+     *
+     * @return The node limit, or {@link Long#MAX_VALUE} if there is none.
+     */
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * Gets the token to cancel the searches.
+     *
+     * @return The cancellation token, or {@code null} if there is none.
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+}
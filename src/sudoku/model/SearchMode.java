@@ -0,0 +1,34 @@
+package sudoku.model;
+
+/**
+ * The different ways a {@link SudokuBoardSolver} keeps track of the boards of
+ * the search tree while backtracking.
+ */
+public enum SearchMode {
+
+    /**
+     * Every branch works on a deep copy of the board it emerged from, which is
+     * created by {@link Board#clone()} of the given board.
+     */
+    CLONING,
+
+    /**
+     * Every branch works on a {@link PersistentSudokuBoard}, which shares all
+     * boxes with the board it emerged from and copies only the boxes it
+     * changes. This pays off for large boards, on which a branch changes only
+     * a small part of the board. Boards with more than
+     * {@link FlatSudokuBoard#MAX_NUMBERS} cells per structure are cloned as in
+     * {@link #CLONING}.
+     */
+    COPY_ON_WRITE,
+
+    /**
+     * The search works depth first on a single {@link FlatSudokuBoard}, which
+     * is marked before every branch and rolled back to the mark when
+     * backtracking, so no board is copied except for the found solutions.
+     * Boards with more than {@link FlatSudokuBoard#MAX_NUMBERS} cells per
+     * structure are searched on a {@link WideSudokuBoard} instead.
+     */
+    TRAIL
+
+}
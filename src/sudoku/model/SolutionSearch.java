@@ -0,0 +1,47 @@
+package sudoku.model;
+
+import java.util.function.Consumer;
+
+/**
+ * A search for the solutions of a fixed Sudoku which reports them as plain
+ * cell contents instead of boards. Implementations are set up for a single
+ * board and keep their own representation of it, which the board is not
+ * involved in while searching.
+ */
+interface SolutionSearch {
+
+    /**
+     * Searches depth first for solutions of the Sudoku. The search stops
+     * after {@code limit} solutions.
+     *
+     * @param limit The greatest number of solutions to search for.
+     * @param solutions The consumer of the contents of every cell of every
+     *        found solution in row major order, or {@code null} if the
+     *        solutions are only counted.
+     * @param budget The budget every node and solution is reported to.
+     * @return The number of found solutions, at most {@code limit}.
+     * @throws SearchAbortedException If the budget is exceeded.
+     */
+    long search(long limit, Consumer<int[]> solutions, SearchBudget budget);
+
+    /**
+     * Creates a solved board by setting the contents of a found solution into
+     * a clone of {@code board}.
+     *
+     * @param board The solved board. Will not be changed.
+     * @param contents The contents of all cells in row major order.
+     * @return The solved clone of {@code board}.
+     */
+    static Board toBoard(Board board, int[] contents) {
+        assert board != null && contents != null;
+        Board solution = board.clone();
+        SudokuGeometry geometry = solution.getGeometry();
+        for (int cell = 0; cell < contents.length; cell++) {
+            Outcome outcome = solution.assign(Structure.ROW,
+                    geometry.getRow(cell), geometry.getColumn(cell),
+                    contents[cell]);
+            assert outcome != Outcome.CONTRADICTION;
+        }
+        return solution;
+    }
+}
@@ -10,10 +10,12 @@ import java.util.StringJoiner;
  */
 public class SudokuBoard implements Board {
     private IntelligentSudokuCell[][] board;
+    private final SudokuGeometry geometry;
     private final int boxRows;
     private final int boxCols;
     private final int numberOfFieldsPerStructure;
     private int[] lastCellSet = null;
+    private long hash = 0;
 
     /**
      * Creates a new SudokuBoard that contains {@code boxRows} rows and {@code
@@ -30,6 +32,7 @@ public class SudokuBoard implements Board {
         }
         this.boxRows = boxRows;
         this.boxCols = boxCols;
+        geometry = SudokuGeometry.of(boxRows, boxCols);
         numberOfFieldsPerStructure = boxRows * boxCols;
         board = new IntelligentSudokuCell[numberOfFieldsPerStructure]
                 [numberOfFieldsPerStructure];
@@ -65,6 +68,14 @@ public class SudokuBoard implements Board {
         return numberOfFieldsPerStructure;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -81,20 +92,20 @@ public class SudokuBoard implements Board {
                     + numberOfFieldsPerStructure + ", the biggest number "
                     + "that may be set!");
         }
-        int row = getRow(struct, major, minor);
-        int col = getColumn(struct, major, minor);
-        board[row][col].setContent(number);
-        for (Structure structure : Structure.values()) {
-            for (IntelligentSudokuCell cell
-                    : getStructureContainingCell(structure, row, col)) {
-                cell.removePossibility(number);
-            }
+        IntelligentSudokuCell cell = getCell(geometry.getCellIndex(struct,
+                major, minor));
+        if (cell.isFixed() && cell.getContent() != number) {
+            throw new InvalidSudokuException("Error! Tried to override the "
+                    + "content of an already set cell!");
         }
-        if (lastCellSet == null) {
-            lastCellSet = new int[2];
+        if (!cell.isFixed() && cell.getNextPossibleContent(number) != number) {
+            throw new InvalidSudokuException("Error! Tried to set a number "
+                    + "in a cell that is not possible there anymore!");
+        }
+        if (assign(struct, major, minor, number) == Outcome.CONTRADICTION) {
+            throw new InvalidSudokuException("Error! All possibilities "
+                    + "would be removed from an unset cell!");
         }
-        lastCellSet[0] = row;
-        lastCellSet[1] = col;
     }
 
     /**
@@ -115,8 +126,8 @@ public class SudokuBoard implements Board {
             throw new IllegalArgumentException("Error! Tried to get the "
                     + "content of a cell that is not on the board!");
         }
-        return board[getRow(struct, major, minor)]
-                [getColumn(struct, major, minor)].getContent();
+        return getCell(geometry.getCellIndex(struct, major, minor))
+                .getContent();
     }
 
     /**
@@ -145,11 +156,33 @@ public class SudokuBoard implements Board {
             throw new IllegalArgumentException("Error! Tried to get the "
                     + "possibilities of a cell that is not on the board!");
         }
-        return board[getRow(struct, major, minor)]
-                [getColumn(struct, major, minor)]
+        return getCell(geometry.getCellIndex(struct, major, minor))
                 .getPossibleContent();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPossibilityCount(Structure struct, int major, int minor) {
+        return getCell(geometry.getCellIndex(struct, major, minor))
+                .getPossibilityCount();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNextPossibility(Structure struct, int major, int minor,
+                                  int number) {
+        if (number < 1) {
+            throw new IllegalArgumentException("Error! The numbers of a "
+                    + "Sudoku start with 1!");
+        }
+        return getCell(geometry.getCellIndex(struct, major, minor))
+                .getNextPossibleContent(number);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -166,9 +199,83 @@ public class SudokuBoard implements Board {
                     + "than 1 or greater than " + numberOfFieldsPerStructure
                     + ", the biggest number that may be set!");
         }
-        board[getRow(struct, major, minor)]
-                [getColumn(struct, major, minor)].
-                removePossibility(number);
+        if (eliminate(struct, major, minor, number) == Outcome.CONTRADICTION) {
+            throw new InvalidSudokuException("Error! All possibilities "
+                    + "would be removed from an unset cell!");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Outcome assign(Structure struct, int major, int minor,
+                          int number) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to set the number "
+                    + number + "that is less than 1 or greater than "
+                    + numberOfFieldsPerStructure + ", the biggest number "
+                    + "that may be set!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        int row = geometry.getRow(cell);
+        int col = geometry.getColumn(cell);
+        if (board[row][col].isFixed()) {
+            return board[row][col].getContent() == number ? Outcome.UNCHANGED
+                    : Outcome.CONTRADICTION;
+        }
+        long possibilityKeys = getPossibilityKeys(cell);
+        if (!board[row][col].setContentIfPossible(number)) {
+            return Outcome.CONTRADICTION;
+        }
+        hash ^= ZobristHashing.getContentKey(cell, number) ^ possibilityKeys;
+        if (lastCellSet == null) {
+            lastCellSet = new int[2];
+        }
+        lastCellSet[0] = row;
+        lastCellSet[1] = col;
+        for (int i = 0; i < geometry.getPeerCount(); i++) {
+            if (!removePossibility(geometry.getPeer(cell, i), number)) {
+                return Outcome.CONTRADICTION;
+            }
+        }
+        return Outcome.CHANGED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Outcome eliminate(Structure struct, int major, int minor,
+                             int number) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to remove the "
+                    + "possibility to set the number " + number + "that is less"
+                    + "than 1 or greater than " + numberOfFieldsPerStructure
+                    + ", the biggest number that may be set!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        if (getCell(cell).getNextPossibleContent(number) != number) {
+            return Outcome.UNCHANGED;
+        }
+        return removePossibility(cell, number) ? Outcome.CHANGED
+                : Outcome.CONTRADICTION;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getStateHash() {
+        return hash;
     }
 
     /**
@@ -197,6 +304,23 @@ public class SudokuBoard implements Board {
         return clone;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Board
+                && ZobristHashing.equal(this, (Board) other);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return ZobristHashing.toHashCode(hash);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -251,51 +375,49 @@ public class SudokuBoard implements Board {
     }
 
     /**
-     * Returns the position of the cell in the row depending on the given
-     * structure.
+     * Returns the cell with index {@code cell} according to the geometry of
+     * this board.
+     *
+     * @param cell The index of the cell.
+     * @return The cell with the given index.
+     */
+    private IntelligentSudokuCell getCell(int cell) {
+        return board[geometry.getRow(cell)][geometry.getColumn(cell)];
+    }
+
+    /**
+     * Gets the exclusive or of the Zobrist keys of all remaining
+     * possibilities of the cell with index {@code cell}.
      *
-     * @param struct The structure {@code major} and {@code minor} are given
-     * in.
-     * @param major The number of the structure.
-     * @param minor The position within the structure.
-     * @return The row of the position of the cell.
+     * @param cell The index of the cell.
+     * @return The combined key of the possibilities of the cell.
      */
-    private int getRow(Structure struct, int major, int minor) {
-        assert isValidPosition(major, minor);
-        switch (struct) {
-            case ROW:
-                return major;
-            case COL:
-                return minor;
-            case BOX:
-                return (major / boxRows) * boxRows + minor / boxCols;
-            default:
-                throw new Error("Reached a value that is not within the enum!");
+    private long getPossibilityKeys(int cell) {
+        IntelligentSudokuCell target = getCell(cell);
+        long keys = 0;
+        int number = target.getNextPossibleContent(1);
+        while (number != -1) {
+            keys ^= ZobristHashing.getPossibilityKey(cell, number);
+            number = target.getNextPossibleContent(number + 1);
         }
+        return keys;
     }
 
     /**
-     * Returns the position of the cell in the column depending on the given
-     * structure.
+     * Removes {@code number} from the possibilities of the cell with index
+     * {@code cell} and updates the hash accordingly.
      *
-     * @param struct The structure {@code major} and {@code minor} are given
-     * in.
-     * @param major The number of the structure.
-     * @param minor The position within the structure.
-     * @return The column of the position of the cell.
+     * @param cell The index of the cell.
+     * @param number The number to remove.
+     * @return {@code false} if the cell is not set and has no possibility
+     *         left, {@code true} otherwise.
      */
-    private int getColumn(Structure struct, int major, int minor) {
-        assert isValidPosition(major, minor);
-        switch (struct) {
-            case ROW:
-                return minor;
-            case COL:
-                return major;
-            case BOX:
-                return (major % boxRows) * boxCols + minor % boxCols;
-            default:
-                throw new Error("Reached a value that is not within the enum!");
+    private boolean removePossibility(int cell, int number) {
+        IntelligentSudokuCell target = getCell(cell);
+        if (target.getNextPossibleContent(number) == number) {
+            hash ^= ZobristHashing.getPossibilityKey(cell, number);
         }
+        return target.removePossibilityIfLeft(number);
     }
 
     private String getStringRepresentation(String delimiter) {
@@ -312,46 +434,6 @@ public class SudokuBoard implements Board {
         return boardAsString.toString();
     }
 
-    /**
-     * Returns an Array containing all the cells of the given structure that
-     * contains the cell specified by {@code row} and {@code col}.
-     *
-     * @param struct The structure that should be returned.
-     * @param row The row of a cell within the structure.
-     * @param col The column of a cell within the structure.
-     * @return The structure containing the cell in (row, col).
-     */
-    private IntelligentSudokuCell[] getStructureContainingCell(Structure struct,
-                                                               int row,
-                                                               int col) {
-        assert isValidPosition(row, col);
-        IntelligentSudokuCell[] structure = new
-                IntelligentSudokuCell[numberOfFieldsPerStructure];
-        switch (struct) {
-            case ROW:
-                structure = Arrays.copyOf(board[row], board[row].length);
-                break;
-            case COL:
-                for (int i = 0; i < numberOfFieldsPerStructure; i++) {
-                    structure[i] = board[i][col];
-                }
-                break;
-            case BOX:
-                int rowOfFirstCell = (row / boxRows) * boxRows;
-                int columnOfFirstCell = (col / boxCols) * boxCols;
-                for (int i = 0; i < boxRows; i++) {
-                    for (int j = 0; j < boxCols; j++) {
-                        structure[i * boxCols + j] = board[rowOfFirstCell + i]
-                                [columnOfFirstCell + j];
-                    }
-                }
-                break;
-            default:
-                throw new Error("Reached a value that is not within the enum!");
-        }
-        return structure;
-    }
-
     /**
      * Compares two contents of cells according to ascending numbers. {@link
      * #UNSET_CELL} is treated to be larger than any other number.
@@ -1,38 +1,288 @@
 package sudoku.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A class to administrate solution strategies and apply them to Sudokus.
+ *
+ * Classic Sudokus with 3x3 boxes are searched by a specialized engine working
+ * on bit masks, which finds the same solutions far faster, as long as the
+ * solver branches by the default {@link FewestPossibilitiesBranching}. The
+ * engine does its own propagation and branching, so the registered solution
+ * strategies and the search mode do not apply to it. Any other branching
+ * strategy makes classic Sudokus take the general search, so their branching
+ * order and seeds take effect there as well.
+ *
+ * With a parallelism greater than 1, the upper levels of the search tree are
+ * split into subtrees searched by a {@link ForkJoinPool}, and every subtree
+ * below the sequential cutoff depth is searched sequentially. The solution
+ * strategies are shared by all threads then, so they must not keep any state
+ * between their calls.
+ *
+ * The solution strategies are scheduled by their cost: a strategy is only
+ * applied once all strategies before it do not change the board anymore, so
+ * expensive strategies only run when the cheap ones are stuck. The solver
+ * measures the time and the yield of every strategy and, if adaptive
+ * scheduling is turned on, it orders them by their average time and skips
+ * strategies which hardly ever change the board most of the time. Adaptive
+ * scheduling is off by default, since the skipped strategies depend on the
+ * timing, which changes the branching cells and thereby the first solution
+ * found on boards with several solutions.
+ *
+ * An optional {@link TranspositionTable} remembers the boards which have been
+ * searched completely in {@link SearchMode#TRAIL} mode. Within one search a
+ * board is rarely reached twice, as every branch sets a different number in
+ * the same cell, but repeated searches of related boards, e.g., uniqueness
+ * checks, generators or restarts with another branching strategy, and the
+ * subtrees of a parallel search share their dead ends and solution counts.
  */
 public class SudokuBoardSolver implements SudokuSolver {
-    private List<Saturator> solutionStrategies;
 
     /**
-     * Creates a new SudokuBoardSolver with no solution strategy.
+     * The default depth of the search tree from which on subtrees are
+     * searched sequentially.
+     */
+    public static final int DEFAULT_SEQUENTIAL_CUTOFF = 4;
+
+    /**
+     * The number of saturations after which the order of the solution
+     * strategies and the skipped ones are reconsidered. Before the first
+     * interval has passed, they are reconsidered after every power of two
+     * saturations, so that even short searches get a sensible order.
+     */
+    private static final int RESCHEDULE_INTERVAL = 1024;
+
+    /**
+     * The number of applications of a solution strategy since it was last
+     * reconsidered which are needed to judge its yield.
+     */
+    private static final int MIN_JUDGED_CALLS = 32;
+
+    /**
+     * The share of the applications of a solution strategy which have to
+     * change the board or find a contradiction for it not to be skipped.
+     */
+    private static final double MIN_YIELD = 0.01;
+
+    /**
+     * A skipped solution strategy is still applied on every this many
+     * opportunities, which keeps its statistics current.
+     */
+    private static final int SKIP_PERIOD = 16;
+
+    private volatile ScheduledSaturator[] solutionStrategies;
+    private final AtomicLong saturations = new AtomicLong();
+    private final ThreadLocal<ClassicSudokuEngine> classicEngines =
+            ThreadLocal.withInitial(ClassicSudokuEngine::new);
+    private final ThreadLocal<SearchStack> searchStacks = new ThreadLocal<>();
+    private boolean adaptiveScheduling;
+    private BranchingStrategy branchingStrategy;
+    private TranspositionTable transpositionTable;
+    private SearchLimits searchLimits;
+    private SearchMode searchMode;
+    private int parallelism;
+    private int sequentialCutoff;
+    private ForkJoinPool pool;
+
+    /**
+     * Creates a new SudokuBoardSolver with no solution strategy, which
+     * searches sequentially in {@link SearchMode#TRAIL} mode, branches by
+     * {@link FewestPossibilitiesBranching} and applies its solution
+     * strategies in a fixed order.
      */
     public SudokuBoardSolver() {
-        solutionStrategies = new LinkedList<>();
+        solutionStrategies = new ScheduledSaturator[0];
+        adaptiveScheduling = false;
+        branchingStrategy = new FewestPossibilitiesBranching();
+        searchLimits = SearchLimits.NONE;
+        searchMode = SearchMode.TRAIL;
+        parallelism = 1;
+        sequentialCutoff = DEFAULT_SEQUENTIAL_CUTOFF;
+    }
+
+    /**
+     * Sets the way the boards of the search tree are kept track of in all
+     * following tries to find a solution.
+     *
+     * @param searchMode The search mode to use.
+     */
+    public void setSearchMode(SearchMode searchMode) {
+        if (searchMode == null) {
+            throw new IllegalArgumentException("Error! Null has been "
+                    + "given as search mode!");
+        }
+        this.searchMode = searchMode;
+    }
+
+    /**
+     * Sets the strategy deciding which cell is set next and in which order
+     * its numbers are tried in all following tries to find a solution. It
+     * is not used by {@link #iterateSolutions(Board)}, which has to branch in
+     * row major order.
+     *
+     * @param branchingStrategy The branching strategy to use.
+     */
+    public void setBranchingStrategy(BranchingStrategy branchingStrategy) {
+        if (branchingStrategy == null) {
+            throw new IllegalArgumentException("Error! Null has been "
+                    + "given as branching strategy!");
+        }
+        this.branchingStrategy = branchingStrategy;
+    }
+
+    /**
+     * Sets the table remembering completely searched boards in all following
+     * tries to find a solution. It is only used in {@link SearchMode#TRAIL}
+     * mode, and not by {@link #iterateSolutions(Board)}. The same table can
+     * be shared by several solvers, even if their solution strategies
+     * differ.
+     *
+     * @param transpositionTable The table to use, or {@code null} to search
+     *        without one.
+     */
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void addSaturator(Saturator saturator) {
+    public void setSearchLimits(SearchLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Error! Null has been "
+                    + "given as search limits!");
+        }
+        this.searchLimits = limits;
+    }
+
+    /**
+     * Sets the number of threads searching in all following tries to find a
+     * solution. With a parallelism of 1, the search runs on the calling
+     * thread only.
+     *
+     * @param parallelism The number of threads to search with.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Error! The parallelism must "
+                    + "be at least 1!");
+        }
+        if (pool != null && pool.getParallelism() != parallelism) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the depth of the search tree from which on subtrees are searched
+     * sequentially when searching in parallel. Deeper cutoffs split the
+     * search into more and smaller tasks.
+     *
+     * @param sequentialCutoff The depth of the sequentially searched
+     *        subtrees.
+     */
+    public void setSequentialCutoff(int sequentialCutoff) {
+        if (sequentialCutoff < 0) {
+            throw new IllegalArgumentException("Error! The sequential cutoff "
+                    + "must not be negative!");
+        }
+        this.sequentialCutoff = sequentialCutoff;
+    }
+
+    /**
+     * Sets whether the solution strategies are ordered by their average time
+     * and whether strategies with a low yield are skipped. Without adaptive
+     * scheduling, which is the default, the strategies are applied in the
+     * order they have been added, the last added first, and every search
+     * of a board branches the same way. Adaptive scheduling may make the
+     * searches faster, but the first solution found on a board with several
+     * solutions may then differ from call to call.
+     *
+     * @param adaptiveScheduling Indicator if the strategies are scheduled
+     *        adaptively.
+     */
+    public synchronized void setAdaptiveScheduling(
+            boolean adaptiveScheduling) {
+        this.adaptiveScheduling = adaptiveScheduling;
+        if (!adaptiveScheduling) {
+            ScheduledSaturator[] strategies = solutionStrategies.clone();
+            Arrays.sort(strategies, (first, second) ->
+                    Integer.compare(second.order, first.order));
+            for (ScheduledSaturator strategy : strategies) {
+                strategy.skipped = false;
+            }
+            solutionStrategies = strategies;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The strategy is applied first until the strategies are reordered.
+     */
+    @Override
+    public synchronized void addSaturator(Saturator saturator) {
         if (saturator == null) {
             throw new IllegalArgumentException("Error! Null has been "
                     + "given as a Saturator!");
         }
-        solutionStrategies.add(0, saturator);
+        ScheduledSaturator[] strategies =
+                new ScheduledSaturator[solutionStrategies.length + 1];
+        strategies[0] = new ScheduledSaturator(saturator,
+                solutionStrategies.length);
+        System.arraycopy(solutionStrategies, 0, strategies, 1,
+                solutionStrategies.length);
+        solutionStrategies = strategies;
+    }
+
+    /**
+     * Gets the statistics gathered about the registered solution strategies
+     * since they have been added or the statistics have been reset, in the
+     * order the strategies are currently applied.
+     *
+     * @return A list containing the statistics of every strategy.
+     */
+    public List<SaturatorStatistics> getSaturatorStatistics() {
+        List<SaturatorStatistics> statistics = new ArrayList<>();
+        for (ScheduledSaturator strategy : solutionStrategies) {
+            statistics.add(strategy.getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Resets the statistics of all registered solution strategies, which
+     * also stops skipping them until they have been judged anew.
+     */
+    public synchronized void resetSaturatorStatistics() {
+        for (ScheduledSaturator strategy : solutionStrategies) {
+            strategy.reset();
+        }
     }
 
     /**
      * {@inheritDoc}
+     *
+     * The strategies are applied to all cells and structures, not only to
+     * the changes pending on {@code board}, as the board may be the fix
+     * point of another solver with other strategies.
      */
     @Override
     public Board saturate(Board board) {
@@ -40,20 +290,8 @@ public class SudokuBoardSolver implements SudokuSolver {
             throw new IllegalArgumentException("Error! Null has been "
                     + "given to the Sudoku solver as the board!");
         }
-        boolean boardHasChanged = true;
         Board clone = board.clone();
-        while (boardHasChanged) {
-            boardHasChanged = false;
-            try {
-                for (Saturator strategy : solutionStrategies) {
-                    boardHasChanged |= strategy.saturate(clone);
-                }
-            } catch (UnsolvableSudokuException e) {
-                return null;
-            }
-            board = clone;
-        }
-        return board;
+        return new Saturation(true).applyToAll(clone) ? clone : null;
     }
 
     /**
@@ -65,7 +303,8 @@ public class SudokuBoardSolver implements SudokuSolver {
             throw new IllegalArgumentException("Null has been given to the "
                     + "Sudoku solver as a board!");
         }
-        List<Board> solution = getSolvedSudokus(board, true);
+        List<Board> solution = new ArrayList<>();
+        search(board, 1, solution);
         return solution.isEmpty() ? null : solution.get(0);
     }
 
@@ -78,95 +317,1082 @@ public class SudokuBoardSolver implements SudokuSolver {
             throw new IllegalArgumentException("Null has been given to the "
                     + "Sudoku solver as a board!");
         }
-        List<Board> solutions = getSolvedSudokus(board, false);
+        List<Board> solutions = new ArrayList<>();
+        search(board, Long.MAX_VALUE, solutions);
         Collections.sort(solutions);
         return solutions;
     }
 
     /**
-     * Returns the first cell going from upper left corner right and down in
-     * {@code board} that is not set yet and has the least numbers that it can
-     * be set with.
-     *
-     * @param board The board to search through.
-     * @return The coordinates of the cell with the least possibilities.
-     */
-    private int[] getCellWithLeastPossibilities(Board board) {
-        assert board != null && !board.isSolution();
-        int numberOfCellsPerStructure = board.getNumbers();
-        int leastPossibilities = board.getNumbers() + 1;
-        int[] coordinatesOfCellWithLeastPossibilities = new int[2];
-        for (int i = 0; i < numberOfCellsPerStructure; i++) {
-            for (int j = 0; j < numberOfCellsPerStructure; j++) {
-                int[] possibilities = board.getPossibilities(Structure.ROW, i,
-                        j);
-                if (possibilities != null) {
-                    if (possibilities.length < leastPossibilities) {
-                        leastPossibilities = possibilities.length;
-                        coordinatesOfCellWithLeastPossibilities[0] = i;
-                        coordinatesOfCellWithLeastPossibilities[1] = j;
-                    }
-                }
-            }
+     * {@inheritDoc}
+     *
+     * The search always branches on the first unset cell in row major order
+     * and tries its numbers in ascending order, which visits the solutions in
+     * ascending order without sorting them. It changes a copy of {@code
+     * board} in place and rolls it back on backtracking like the {@link
+     * SearchMode#TRAIL} mode.
+     */
+    @Override
+    public Iterator<Board> iterateSolutions(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        return new SolutionIterator(board.getNumbers()
+                <= FlatSudokuBoard.MAX_NUMBERS ? FlatSudokuBoard.copyOf(board)
+                : WideSudokuBoard.copyOf(board),
+                new SearchBudget(searchLimits));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long countSolutions(Board board, long limit) {
+        if (board == null) {
+            throw new IllegalArgumentException("Null has been given to the "
+                    + "Sudoku solver as a board!");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Error! The limit of "
+                    + "solutions must not be negative!");
         }
-        return coordinatesOfCellWithLeastPossibilities;
+        return search(board, limit, null);
+    }
+
+    /**
+     * Judges the yield of every solution strategy applied often enough since
+     * it was last judged, and orders the strategies by their average time.
+     * The first strategy is never skipped, since skipping the cheapest one
+     * does not save anything.
+     */
+    private synchronized void reschedule() {
+        if (!adaptiveScheduling || solutionStrategies.length == 0) {
+            return;
+        }
+        ScheduledSaturator[] strategies = solutionStrategies.clone();
+        for (ScheduledSaturator strategy : strategies) {
+            strategy.judge();
+        }
+        Arrays.sort(strategies, (first, second) -> Double.compare(
+                first.getAverageNanos(), second.getAverageNanos()));
+        strategies[0].skipped = false;
+        solutionStrategies = strategies;
     }
 
     /**
      * Adds all boards to the stack {@code boards} that come from filling the
-     * cell with the least possibilities with all the numbers that still may be
-     * inserted into them.
+     * cell selected by the branching strategy with all the numbers that still
+     * may be inserted into them, such that they are popped in the order the
+     * branching strategy tries the numbers.
      *
      * @param boards The stack the boards should be pushed onto.
      * @param currentBoard The board that should be processed.
+     * @param budget The budget every created board is reported to as node.
      */
-    private void addPossibleBoards(Stack<Board> boards, Board currentBoard) {
+    private void addPossibleBoards(Stack<Board> boards, Board currentBoard,
+                                   SearchBudget budget) {
         assert boards != null && currentBoard != null;
-        int[] cellWithLeastPossibilities =
-                getCellWithLeastPossibilities(currentBoard);
-        int row = cellWithLeastPossibilities[0];
-        int col = cellWithLeastPossibilities[1];
-        int[] possibleContent = currentBoard.getPossibilities(Structure.ROW,
-                row, col);
-        for (int i = possibleContent.length - 1; i >= 0; i--) {
+        SudokuGeometry geometry = currentBoard.getGeometry();
+        int cell = branchingStrategy.selectCell(currentBoard);
+        int row = geometry.getRow(cell);
+        int col = geometry.getColumn(cell);
+        int[] possibleContent = new int[currentBoard.getNumbers()];
+        int count = branchingStrategy.orderNumbers(currentBoard, cell,
+                possibleContent);
+        for (int i = count - 1; i >= 0; i--) {
+            budget.visitNode();
             Board newBoard = currentBoard.clone();
-            try {
-                newBoard.setCell(Structure.ROW, row, col, possibleContent[i]);
-            } catch (InvalidSudokuException e) {
-                continue;
+            if (newBoard.assign(Structure.ROW, row, col, possibleContent[i])
+                    != Outcome.CONTRADICTION) {
+                boards.push(newBoard);
             }
-            boards.push(newBoard);
         }
     }
 
     /**
-     * Returns a list containing either just the first found or all solutions
-     * depending on {@code firstOnly}
+     * Searches for at most {@code limit} solutions of {@code board}.
      *
-     * @param board The board to be solved
-     * @param firstOnly Indicator if only the first solution is needed.
-     * @return A list containing solved boards.
+     * @param board The board to be solved.
+     * @param limit The greatest number of solutions to search for.
+     * @param solutions The list the found solutions are added to, or {@code
+     *        null} if they are only counted.
+     * @return The number of found solutions, at most {@code limit}.
+     * @throws SearchAbortedException If the search exceeds its limits.
      */
-    private List<Board> getSolvedSudokus(Board board, boolean firstOnly) {
+    private long search(Board board, long limit, List<Board> solutions) {
         assert board != null;
-        List<Board> solutions = new ArrayList<>();
+        if (limit <= 0) {
+            return 0;
+        }
+        SearchBudget budget = new SearchBudget(searchLimits);
+        if (parallelism > 1) {
+            return searchInParallel(board, limit, solutions, budget);
+        }
+        return searchSequentially(board, limit, solutions, budget);
+    }
+
+    /**
+     * Checks whether a board is searched by the {@link ClassicSudokuEngine},
+     * i.e., whether it has 3x3 boxes and the solver branches by the default
+     * {@link FewestPossibilitiesBranching}, which the engine's own branching
+     * stands in for.
+     *
+     * @param board The board to be solved.
+     * @return {@code true} if the engine searches the board, {@code false}
+     *         otherwise.
+     */
+    private boolean usesClassicEngine(Board board) {
+        return board.getBoxRows() == ClassicSudokuEngine.BOX_SIZE
+                && board.getBoxColumns() == ClassicSudokuEngine.BOX_SIZE
+                && branchingStrategy.getClass()
+                == FewestPossibilitiesBranching.class;
+    }
+
+    /**
+     * Searches for at most {@code limit} solutions of {@code board} on the
+     * calling thread.
+     *
+     * @param board The board to be solved.
+     * @param limit The greatest number of solutions to search for.
+     * @param solutions The list the found solutions are added to, or {@code
+     *        null} if they are only counted.
+     * @param budget The budget of the search.
+     * @return The number of found solutions, at most {@code limit}.
+     */
+    private long searchSequentially(Board board, long limit,
+                                    List<Board> solutions,
+                                    SearchBudget budget) {
+        assert board != null && limit > 0;
+        if (usesClassicEngine(board)) {
+            ClassicSudokuEngine engine = classicEngines.get();
+            engine.load(board);
+            return engine.search(limit,
+                    solutions == null ? null : contents -> solutions.add(
+                            SolutionSearch.toBoard(board, contents)),
+                    budget);
+        }
+        if (searchMode == SearchMode.TRAIL) {
+            if (board.getNumbers() <= FlatSudokuBoard.MAX_NUMBERS) {
+                return searchInPlace(FlatSudokuBoard.copyOf(board), limit,
+                        solutions, budget);
+            } else {
+                return searchInPlace(WideSudokuBoard.copyOf(board), limit,
+                        solutions, budget);
+            }
+        }
         Stack<Board> trackedBoards = new Stack<>();
-        trackedBoards.push(board.clone());
+        if (searchMode == SearchMode.COPY_ON_WRITE
+                && board.getNumbers() <= FlatSudokuBoard.MAX_NUMBERS) {
+            trackedBoards.push(PersistentSudokuBoard.copyOf(board));
+        } else {
+            trackedBoards.push(board.clone());
+        }
+        Saturation saturation = new Saturation(false);
+        long found = 0;
+        boolean root = true;
         while (!trackedBoards.isEmpty()) {
-            Board saturatedBoard = saturate(trackedBoards.pop());
-            if (saturatedBoard == null) {
+            Board saturatedBoard = trackedBoards.pop();
+            boolean solvable = root ? saturation.applyToAll(saturatedBoard)
+                    : saturation.apply(saturatedBoard);
+            root = false;
+            if (!solvable) {
                 continue;
             }
             if (saturatedBoard.isSolution()) {
-                solutions.add(saturatedBoard);
-                if (firstOnly) {
-                    return solutions;
+                ++found;
+                budget.foundSolutions(1);
+                if (solutions != null) {
+                    solutions.add(saturatedBoard);
+                }
+                if (found == limit) {
+                    return found;
                 }
             }
             if (!saturatedBoard.isSolution()) {
-                addPossibleBoards(trackedBoards, saturatedBoard);
+                addPossibleBoards(trackedBoards, saturatedBoard, budget);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Searches for at most {@code limit} solutions of {@code board}, searching
+     * the subtrees of the search tree in parallel. If just the first solution
+     * is searched, it is the one of the leftmost subtree, which does not
+     * depend on the timing of the threads.
+     *
+     * The calling thread waits interruptibly for the search, and an interrupt
+     * aborts the search like on a single thread.
+     *
+     * @param board The board to be solved.
+     * @param limit The greatest number of solutions to search for.
+     * @param solutions The list the found solutions are added to, or {@code
+     *        null} if they are only counted.
+     * @param budget The budget of the search, shared by all threads.
+     * @return The number of found solutions, at most {@code limit}.
+     * @throws SearchAbortedException If the search exceeds its limits.
+     */
+    private long searchInParallel(Board board, long limit,
+                                  List<Board> solutions, SearchBudget budget) {
+        assert board != null && limit > 0;
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        Board copy = board.getNumbers() <= FlatSudokuBoard.MAX_NUMBERS
+                ? FlatSudokuBoard.copyOf(board) : WideSudokuBoard.copyOf(board);
+        SubtreeSearch root = new SubtreeSearch(copy, limit,
+                solutions != null, budget);
+        pool.execute(root);
+        boolean interrupted = false;
+        while (!root.isDone()) {
+            try {
+                root.get();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                budget.interrupt();
+            } catch (ExecutionException e) {
+                assert root.isDone();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        root.join();
+        if (limit == 1 && solutions != null) {
+            FoundSolution first = root.first.get();
+            if (first == null) {
+                return 0;
+            }
+            solutions.add(first.board);
+            return 1;
+        }
+        if (solutions != null) {
+            solutions.addAll(root.solutions);
+        }
+        return Math.min(root.found.get(), limit);
+    }
+
+    /**
+     * A solution together with the branches leading to it in the search
+     * tree.
+     */
+    private static final class FoundSolution {
+        private final Board board;
+        private final int[] path;
+
+        /**
+         * Creates a found solution.
+         *
+         * @param board The solved board.
+         * @param path The index of the tried number on every level of the
+         *        search tree.
+         */
+        private FoundSolution(Board board, int[] path) {
+            this.board = board;
+            this.path = path;
+        }
+    }
+
+    /**
+     * The search of a subtree of the search tree. Above the sequential cutoff
+     * depth, it splits into one task per number possible in the branching
+     * cell, below it searches sequentially.
+     *
+     * All tasks share one lock free counter and, if the solutions are kept,
+     * one lock free collector of the found solutions, and they stop once the
+     * limit of solutions is reached. If just the first solution is searched,
+     * they share the leftmost solution found so far instead, and tasks right
+     * of it stop. Sequentially searched subtrees check this whenever the
+     * budget checks its limits, so they stop while they are running as well
+     * and drop their results, which are not needed anymore.
+     */
+    private final class SubtreeSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Board board;
+        private final int[] path;
+        private final long limit;
+        private final Queue<Board> solutions;
+        private final AtomicLong found;
+        private final AtomicReference<FoundSolution> first;
+        private final SearchBudget budget;
+
+        /**
+         * Creates the search of the whole search tree.
+         *
+         * @param board The board at the root, which is changed by the search.
+         * @param limit The greatest number of solutions to search for.
+         * @param keep Indicator if the solutions are kept or only counted.
+         * @param budget The budget of the search.
+         */
+        private SubtreeSearch(Board board, long limit, boolean keep,
+                              SearchBudget budget) {
+            this(board, new int[0], limit,
+                    keep ? new ConcurrentLinkedQueue<>() : null,
+                    new AtomicLong(), new AtomicReference<>(), budget);
+        }
+
+        /**
+         * Creates the search of a subtree.
+         *
+         * @param board The board at the root of the subtree, which is changed
+         *        by the search.
+         * @param path The index of the tried number on every level of the
+         *        search tree leading to {@code board}.
+         * @param limit The greatest number of solutions to search for.
+         * @param solutions The collector of all found solutions, or {@code
+         *        null} if they are only counted.
+         * @param found The number of solutions found so far.
+         * @param first The leftmost solution found so far.
+         * @param budget The budget of the search.
+         */
+        private SubtreeSearch(Board board, int[] path, long limit,
+                              Queue<Board> solutions, AtomicLong found,
+                              AtomicReference<FoundSolution> first,
+                              SearchBudget budget) {
+            this.board = board;
+            this.path = path;
+            this.limit = limit;
+            this.solutions = solutions;
+            this.found = found;
+            this.first = first;
+            this.budget = budget;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void compute() {
+            if (isUnnecessary()) {
+                return;
+            }
+            Saturation saturation = new Saturation(false);
+            if (!(path.length == 0 ? saturation.applyToAll(board)
+                    : saturation.apply(board))) {
+                return;
+            }
+            if (board.isSolution()) {
+                budget.foundSolutions(1);
+                found(Collections.singletonList(board), 1);
+                return;
+            }
+            if (path.length >= sequentialCutoff) {
+                List<Board> subtreeSolutions = solutions == null ? null
+                        : new ArrayList<>();
+                long count;
+                try {
+                    count = searchSequentially(board, limit, subtreeSolutions,
+                            budget.withStopCondition(this::isUnnecessary));
+                } catch (SearchBudget.SearchStoppedException e) {
+                    return;
+                }
+                found(subtreeSolutions, count);
+                return;
+            }
+            SudokuGeometry geometry = board.getGeometry();
+            int cell = branchingStrategy.selectCell(board);
+            int row = geometry.getRow(cell);
+            int col = geometry.getColumn(cell);
+            int[] possibleContent = new int[board.getNumbers()];
+            int count = branchingStrategy.orderNumbers(board, cell,
+                    possibleContent);
+            List<SubtreeSearch> subtrees = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                budget.visitNode();
+                Board child = board.clone();
+                if (child.assign(Structure.ROW, row, col, possibleContent[i])
+                        != Outcome.CONTRADICTION) {
+                    int[] childPath = Arrays.copyOf(path, path.length + 1);
+                    childPath[path.length] = i;
+                    subtrees.add(new SubtreeSearch(child, childPath, limit,
+                            solutions, found, first, budget));
+                }
+            }
+            invokeAll(subtrees);
+        }
+
+        /**
+         * Records the solutions found in this subtree.
+         *
+         * @param subtreeSolutions The found solutions, which are ignored if
+         *        they are only counted.
+         * @param count The number of found solutions.
+         */
+        private void found(List<Board> subtreeSolutions, long count) {
+            if (count == 0) {
+                return;
+            }
+            found.addAndGet(count);
+            if (solutions == null) {
+                return;
+            }
+            if (limit != 1) {
+                solutions.addAll(subtreeSolutions);
+                return;
+            }
+            FoundSolution candidate = new FoundSolution(
+                    subtreeSolutions.get(0), path);
+            FoundSolution current = first.get();
+            while ((current == null || compare(path, current.path) < 0)
+                    && !first.compareAndSet(current, candidate)) {
+                current = first.get();
+            }
+        }
+
+        /**
+         * Checks whether searching this subtree is unnecessary, because
+         * enough solutions are found or, if just the first solution is
+         * searched, a solution left of this subtree is found.
+         *
+         * @return {@code true} if this subtree can be skipped, {@code false}
+         *         otherwise.
+         */
+        private boolean isUnnecessary() {
+            if (limit == 1 && solutions != null) {
+                FoundSolution current = first.get();
+                return current != null && compare(path, current.path) > 0;
+            }
+            return found.get() >= limit;
+        }
+    }
+
+    /**
+     * Compares two paths of the search tree lexicographically, where a path is
+     * less than all paths it is a prefix of.
+     *
+     * @param path The first path.
+     * @param other The second path.
+     * @return A negative number if {@code path} is left of {@code other}, 0
+     *         if they are equal, a positive number otherwise.
+     */
+    private static int compare(int[] path, int[] other) {
+        for (int i = 0; i < Math.min(path.length, other.length); i++) {
+            if (path[i] != other[i]) {
+                return Integer.compare(path[i], other[i]);
+            }
+        }
+        return Integer.compare(path.length, other.length);
+    }
+
+    /**
+     * A registered solution strategy together with its statistics, which are
+     * shared by all threads applying it.
+     */
+    private static final class ScheduledSaturator {
+        private final Saturator saturator;
+        private final int order;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder changes = new LongAdder();
+        private final LongAdder contradictions = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicInteger deferrals = new AtomicInteger();
+        private volatile boolean skipped = false;
+
+        /*
+         * The number of calls and of calls changing the board or finding a
+         * contradiction when the strategy was last judged.
+         */
+        private long judgedCalls = 0;
+        private long judgedYield = 0;
+
+        /**
+         * Creates a scheduled solution strategy without statistics.
+         *
+         * @param saturator The solution strategy.
+         * @param order The number of strategies added before it.
+         */
+        private ScheduledSaturator(Saturator saturator, int order) {
+            this.saturator = saturator;
+            this.order = order;
+        }
+
+        /**
+         * Applies the strategy to {@code board} and records the time taken
+         * and the outcome.
+         *
+         * @param board The board to saturate.
+         * @param changes The changes of the board since the strategy was
+         *        last applied, or {@code null} if the board does not record
+         *        its changes.
+         * @return The outcome of the strategy.
+         */
+        private Outcome apply(Board board, ChangeSet changes) {
+            long start = System.nanoTime();
+            Outcome outcome;
+            if (changes != null) {
+                outcome = saturator.propagate(board, changes);
+            } else {
+                try {
+                    outcome = saturator.saturate(board) ? Outcome.CHANGED
+                            : Outcome.UNCHANGED;
+                } catch (UnsolvableSudokuException e) {
+                    outcome = Outcome.CONTRADICTION;
+                }
+            }
+            nanos.add(System.nanoTime() - start);
+            calls.increment();
+            if (outcome == Outcome.CHANGED) {
+                this.changes.increment();
+            } else if (outcome == Outcome.CONTRADICTION) {
+                contradictions.increment();
+            }
+            return outcome;
+        }
+
+        /**
+         * Checks whether the strategy is skipped at the current opportunity,
+         * which is the case for all but every {@link #SKIP_PERIOD}-th
+         * opportunity while it is skipped.
+         *
+         * @return {@code true} if the strategy is not applied now, {@code
+         *         false} otherwise.
+         */
+        private boolean isDeferred() {
+            return skipped && deferrals.incrementAndGet() % SKIP_PERIOD != 0;
+        }
+
+        /**
+         * Gets the average time spent per application of the strategy.
+         *
+         * @return The average time in nanoseconds, or 0 if the strategy has
+         *         not been applied yet.
+         */
+        private double getAverageNanos() {
+            long count = calls.sum();
+            return count == 0 ? 0 : (double) nanos.sum() / count;
+        }
+
+        /**
+         * Decides whether the strategy is skipped by its yield since it was
+         * last judged, if it has been applied often enough since then. Must
+         * only be called while holding the lock of the solver.
+         */
+        private void judge() {
+            long count = calls.sum();
+            long yield = changes.sum() + contradictions.sum();
+            if (count - judgedCalls >= MIN_JUDGED_CALLS) {
+                skipped = yield - judgedYield < MIN_YIELD
+                        * (count - judgedCalls);
+                judgedCalls = count;
+                judgedYield = yield;
+            }
+        }
+
+        /**
+         * Discards the statistics of the strategy and stops skipping it.
+         * Must only be called while holding the lock of the solver.
+         */
+        private void reset() {
+            calls.reset();
+            changes.reset();
+            contradictions.reset();
+            nanos.reset();
+            skipped = false;
+            judgedCalls = 0;
+            judgedYield = 0;
+        }
+
+        /**
+         * Creates a snapshot of the statistics of the strategy.
+         *
+         * @return The statistics.
+         */
+        private SaturatorStatistics getStatistics() {
+            return new SaturatorStatistics(saturator, calls.sum(),
+                    changes.sum(), contradictions.sum(), nanos.sum(),
+                    skipped);
+        }
+    }
+
+    /**
+     * The application of the registered solution strategies to the boards of
+     * one search until a fix point is reached. Every search uses its own
+     * saturation, which keeps the changes not yet seen by the expensive
+     * strategies.
+     */
+    private final class Saturation {
+        private final boolean complete;
+        private ChangeSet backlog = null;
+
+        /**
+         * Creates the saturation of a search.
+         *
+         * @param complete Indicator if all strategies are applied, even the
+         *        skipped ones.
+         */
+        private Saturation(boolean complete) {
+            this.complete = complete;
+        }
+
+        /**
+         * Applies the solution strategies to all cells and structures of
+         * {@code board} until none of them changes it anymore, like {@link
+         * #apply(Board)}. The changes pending on the board are drained and
+         * widened to the whole board, so this starts every search and
+         * saturates boards whose last fix point may be the one of other
+         * strategies.
+         *
+         * @param board The board to saturate, which is changed.
+         * @return {@code true} if the saturated board may still be solvable,
+         *         {@code false} if it is not solvable.
+         */
+        private boolean applyToAll(Board board) {
+            assert board != null;
+            ChangeSet changes = board.drainChanges();
+            if (changes != null) {
+                changes.addAll();
+            }
+            return apply(board, changes);
+        }
+
+        /**
+         * Applies the solution strategies to {@code board} until none of
+         * them changes it anymore. A strategy is only applied once all
+         * strategies before it did not change the board, and whenever a
+         * strategy changes the board, the strategies are applied anew from
+         * the first one on.
+         *
+         * If the board records its changes, every strategy is only applied
+         * to the cells and structures changed since it was last applied,
+         * which requires the board to be a fix point of this solver before
+         * these changes. Otherwise the strategies are applied to the whole
+         * board.
+         *
+         * @param board The board to saturate, which is changed.
+         * @return {@code true} if the saturated board may still be solvable,
+         *         {@code false} if it is not solvable.
+         */
+        private boolean apply(Board board) {
+            assert board != null;
+            return apply(board, board.drainChanges());
+        }
+
+        /**
+         * Applies the solution strategies to {@code board} starting with the
+         * given changes until none of them changes it anymore.
+         *
+         * @param board The board to saturate, which is changed.
+         * @param changes The changes drained from the board, or {@code null}
+         *        if the board does not record its changes.
+         * @return {@code true} if the saturated board may still be solvable,
+         *         {@code false} if it is not solvable.
+         */
+        private boolean apply(Board board, ChangeSet changes) {
+            if (!complete) {
+                long count = saturations.incrementAndGet();
+                if (count % RESCHEDULE_INTERVAL == 0
+                        || (count & (count - 1)) == 0) {
+                    reschedule();
+                }
+            }
+            ScheduledSaturator[] strategies = solutionStrategies;
+            if (changes == null) {
+                return applyToWholeBoard(board, strategies);
+            }
+
+            /*
+             * The strategies from the backlog level on have not seen the
+             * changes in the backlog yet. They see them together with the
+             * current changes once they are reached.
+             */
+            int backlogLevel = strategies.length;
+            int i = 0;
+            while (i < strategies.length) {
+                if (i == backlogLevel) {
+                    backlog.add(changes);
+                    changes = backlog;
+                    backlogLevel = strategies.length;
+                }
+                if (changes.isEmpty()) {
+                    if (backlogLevel == strategies.length) {
+                        break;
+                    }
+                    i = backlogLevel;
+                    continue;
+                }
+                if (isSkipped(strategies[i])) {
+                    ++i;
+                    continue;
+                }
+                Outcome outcome = strategies[i].apply(board, changes);
+                if (outcome == Outcome.CONTRADICTION) {
+                    clearBacklog();
+                    return false;
+                }
+                if (outcome == Outcome.UNCHANGED) {
+                    ++i;
+                    continue;
+                }
+                if (i + 1 < strategies.length) {
+                    if (backlog == null) {
+                        backlog = changes.copy();
+                    } else if (changes != backlog) {
+                        backlog.add(changes);
+                    }
+                    backlogLevel = Math.min(backlogLevel, i + 1);
+                }
+                changes = board.drainChanges();
+                i = 0;
+            }
+            clearBacklog();
+            return true;
+        }
+
+        /**
+         * Applies the solution strategies to the whole {@code board} until
+         * none of them changes it anymore, in the same order as {@link
+         * #apply(Board)}.
+         *
+         * @param board The board to saturate, which is changed.
+         * @param strategies The strategies in the order to apply them.
+         * @return {@code true} if the saturated board may still be solvable,
+         *         {@code false} if it is not solvable.
+         */
+        private boolean applyToWholeBoard(Board board,
+                                          ScheduledSaturator[] strategies) {
+            int i = 0;
+            while (i < strategies.length) {
+                if (isSkipped(strategies[i])) {
+                    ++i;
+                    continue;
+                }
+                Outcome outcome = strategies[i].apply(board, null);
+                if (outcome == Outcome.CONTRADICTION) {
+                    return false;
+                }
+                i = outcome == Outcome.CHANGED ? 0 : i + 1;
+            }
+            return true;
+        }
+
+        /**
+         * Checks whether a strategy is skipped at the current opportunity.
+         *
+         * @param strategy The strategy to check.
+         * @return {@code true} if the strategy is not applied now, {@code
+         *         false} otherwise.
+         */
+        private boolean isSkipped(ScheduledSaturator strategy) {
+            return !complete && strategy.isDeferred();
+        }
+
+        /**
+         * Empties the backlog, which is kept for the next saturation.
+         */
+        private void clearBacklog() {
+            if (backlog != null) {
+                backlog.clear();
+            }
+        }
+    }
+
+    /**
+     * An iterator searching the solutions of a board in lexicographic order
+     * step by step. Every call of {@link #hasNext()} resumes the depth first
+     * search where the last solution was found.
+     */
+    private final class SolutionIterator implements Iterator<Board> {
+        private final Board board;
+
+        /*
+         * For every level of the search tree the mark before branching, the
+         * index of the branching cell and the number last tried.
+         */
+        private final int[] marks;
+        private final int[] cells;
+        private final int[] triedNumbers;
+        private final Saturation saturation = new Saturation(false);
+        private final SearchBudget budget;
+        private int depth = 0;
+        private boolean started = false;
+        private boolean exhausted = false;
+        private Board next = null;
+
+        /**
+         * Creates an iterator over the solutions of {@code board}.
+         *
+         * @param board The board to be solved, which must support rolling
+         *        back and is changed while iterating.
+         * @param budget The budget of the whole iteration.
+         */
+        private SolutionIterator(Board board, SearchBudget budget) {
+            this.board = board;
+            this.budget = budget;
+            int cellCount = board.getGeometry().getCells();
+            marks = new int[cellCount];
+            cells = new int[cellCount];
+            triedNumbers = new int[cellCount];
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            if (next == null && !exhausted) {
+                next = searchNext();
+                exhausted = next == null;
+            }
+            return next != null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Board next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Error! There are no more "
+                        + "solutions!");
+            }
+            Board solution = next;
+            next = null;
+            return solution;
+        }
+
+        /**
+         * Continues the search up to the next solution.
+         *
+         * @return A clone of the next solution, or {@code null} if there is
+         *         none.
+         */
+        private Board searchNext() {
+            SudokuGeometry geometry = board.getGeometry();
+            boolean solvable = !started && saturation.applyToAll(board);
+            started = true;
+            while (true) {
+                if (solvable) {
+                    if (board.isSolution()) {
+                        budget.foundSolutions(1);
+                        return board.clone();
+                    }
+                    int cell = depth == 0 ? 0 : cells[depth - 1];
+                    while (board.getCell(Structure.ROW, geometry.getRow(cell),
+                            geometry.getColumn(cell)) != Board.UNSET_CELL) {
+                        ++cell;
+                    }
+                    marks[depth] = board.mark();
+                    cells[depth] = cell;
+                    triedNumbers[depth] = 0;
+                    ++depth;
+                }
+                solvable = false;
+                while (!solvable && depth > 0) {
+                    int level = depth - 1;
+                    int row = geometry.getRow(cells[level]);
+                    int col = geometry.getColumn(cells[level]);
+                    board.rollback(marks[level]);
+                    board.drainChanges();
+                    int number = board.getNextPossibility(Structure.ROW, row,
+                            col, triedNumbers[level] + 1);
+                    if (number == -1) {
+                        --depth;
+                        continue;
+                    }
+                    budget.visitNode();
+                    triedNumbers[level] = number;
+                    solvable = board.assign(Structure.ROW, row, col, number)
+                            != Outcome.CONTRADICTION && saturation.apply(board);
+                }
+                if (!solvable) {
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * The arrays an in place search keeps the levels of the search tree in.
+     * Every thread keeps the stack of its last search and reuses it for the
+     * next search on a board with as many cells.
+     */
+    private static final class SearchStack {
+
+        /*
+         * For every level of the search tree the mark before branching, the
+         * coordinates of the branching cell, the numbers to try in their
+         * order, their count and the index of the number last tried. The
+         * arrays of numbers are allocated when a level is first reached and
+         * reused afterwards. With a transposition table, for every level the
+         * key of the board branched on and the numbers of solutions and nodes
+         * before it.
+         */
+        private final int[] marks;
+        private final int[] rows;
+        private final int[] cols;
+        private final int[][] numbers;
+        private final int[] numberCounts;
+        private final int[] tried;
+        private final long[] keys;
+        private final long[] foundBefore;
+        private final long[] nodesBefore;
+        private boolean inUse = false;
+
+        /**
+         * Creates the stack for a search on boards with {@code cells} cells.
+         *
+         * @param cells The number of cells, which is the greatest depth of
+         *        the search tree.
+         */
+        private SearchStack(int cells) {
+            marks = new int[cells];
+            rows = new int[cells];
+            cols = new int[cells];
+            numbers = new int[cells][];
+            numberCounts = new int[cells];
+            tried = new int[cells];
+            keys = new long[cells];
+            foundBefore = new long[cells];
+            nodesBefore = new long[cells];
+        }
+    }
+
+    /**
+     * Searches depth first for solutions of {@code board} by changing {@code
+     * board} in place. Before a cell is set, the state of the board is marked,
+     * and every backtracking step rolls the board back to that mark. Found
+     * solutions are added as clones to {@code solutions}. The boards are
+     * visited in the same order as by the stack of cloned boards.
+     *
+     * The search stack of the calling thread is reused, unless it is still
+     * used by a search on the same thread, e.g., if a solution strategy
+     * calls this solver.
+     *
+     * @param board The board to be solved, which must support rolling back.
+     * @param limit The greatest number of solutions to search for.
+     * @param solutions The list the found solutions are added to, or {@code
+     *        null} if they are only counted.
+     * @param budget The budget of the search.
+     * @return The number of found solutions, at most {@code limit}.
+     */
+    private long searchInPlace(Board board, long limit,
+                               List<Board> solutions, SearchBudget budget) {
+        assert board != null && limit > 0;
+        int cells = board.getGeometry().getCells();
+        SearchStack stack = searchStacks.get();
+        if (stack == null || stack.marks.length != cells) {
+            stack = new SearchStack(cells);
+            searchStacks.set(stack);
+        } else if (stack.inUse) {
+            stack = new SearchStack(cells);
+        }
+        stack.inUse = true;
+        try {
+            return searchInPlace(board, limit, solutions, budget, stack);
+        } finally {
+            stack.inUse = false;
+        }
+    }
+
+    /**
+     * Searches depth first for solutions of {@code board} in place on the
+     * levels of {@code stack}.
+     *
+     * With a transposition table, the number of solutions of every board
+     * branched on is stored once its subtree is exhausted. Boards stored
+     * without solutions are skipped, and if the solutions are only counted,
+     * the stored count of a board is added instead of searching it.
+     *
+     * @param board The board to be solved, which must support rolling back.
+     * @param limit The greatest number of solutions to search for.
+     * @param solutions The list the found solutions are added to, or {@code
+     *        null} if they are only counted.
+     * @param budget The budget of the search.
+     * @param stack The stack to keep the levels of the search tree in.
+     * @return The number of found solutions, at most {@code limit}.
+     */
+    private long searchInPlace(Board board, long limit,
+                               List<Board> solutions, SearchBudget budget,
+                               SearchStack stack) {
+        SudokuGeometry geometry = board.getGeometry();
+        int[] marks = stack.marks;
+        int[] rows = stack.rows;
+        int[] cols = stack.cols;
+        int[][] numbers = stack.numbers;
+        int[] numberCounts = stack.numberCounts;
+        int[] tried = stack.tried;
+        long[] keys = stack.keys;
+        long[] foundBefore = stack.foundBefore;
+        long[] nodesBefore = stack.nodesBefore;
+        int depth = 0;
+        long found = 0;
+        Saturation saturation = new Saturation(false);
+        boolean solvable = saturation.applyToAll(board);
+        TranspositionTable table = transpositionTable;
+        long shapeKey = ZobristHashing.getGeometryKey(board.getBoxRows(),
+                board.getBoxColumns());
+        long nodes = 0;
+        while (true) {
+            if (solvable && table != null && !board.isSolution()) {
+                long key = board.getStateHash() ^ shapeKey;
+                long count = table.get(key);
+                if (count == 0) {
+                    solvable = false;
+                } else if (count > 0 && solutions == null) {
+                    budget.foundSolutions(count);
+                    found = Math.min(found + count, limit);
+                    if (found == limit) {
+                        return found;
+                    }
+                    solvable = false;
+                } else {
+                    keys[depth] = key;
+                    foundBefore[depth] = found;
+                    nodesBefore[depth] = nodes;
+                }
+            }
+            if (solvable) {
+                if (board.isSolution()) {
+                    ++found;
+                    budget.foundSolutions(1);
+                    if (solutions != null) {
+                        solutions.add(board.clone());
+                    }
+                    if (found == limit) {
+                        return found;
+                    }
+                } else {
+                    int cell = branchingStrategy.selectCell(board);
+                    if (numbers[depth] == null) {
+                        numbers[depth] = new int[board.getNumbers()];
+                    }
+                    marks[depth] = board.mark();
+                    rows[depth] = geometry.getRow(cell);
+                    cols[depth] = geometry.getColumn(cell);
+                    numberCounts[depth] = branchingStrategy.orderNumbers(
+                            board, cell, numbers[depth]);
+                    tried[depth] = -1;
+                    ++depth;
+                }
+            }
+            solvable = false;
+            while (!solvable && depth > 0) {
+                int level = depth - 1;
+                board.rollback(marks[level]);
+
+                /*
+                 * The board was saturated when it was marked, so the cells
+                 * restored by the rollback need not be revisited.
+                 */
+                board.drainChanges();
+                if (++tried[level] == numberCounts[level]) {
+                    if (table != null) {
+                        table.put(keys[level], found - foundBefore[level],
+                                nodes - nodesBefore[level]);
+                    }
+                    --depth;
+                    continue;
+                }
+                budget.visitNode();
+                ++nodes;
+                solvable = board.assign(Structure.ROW, rows[level],
+                        cols[level], numbers[level][tried[level]])
+                        != Outcome.CONTRADICTION && saturation.apply(board);
+            }
+            if (!solvable) {
+                return found;
             }
         }
-        return solutions;
     }
-}
\ No newline at end of file
+}
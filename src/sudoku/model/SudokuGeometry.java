@@ -0,0 +1,334 @@
+package sudoku.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The immutable shape of a Sudoku with a given box size. It precomputes the
+ * translation of the (structure, major, minor) coordinates of {@link Board}
+ * into flat cell indices as well as the cells of every structure and the
+ * peers of every cell, i.e., all other cells sharing a row, a column or a box
+ * with it.
+ *
+ * Cells are indexed in row major order from 0 to {@code getCells() - 1}.
+ * Structures (units) are indexed from 0 to {@code getUnits() - 1}, first all
+ * rows, then all columns, then all boxes, each in ascending major order.
+ *
+ * Instances are obtained by {@link #of(int, int)} and shared by all boards of
+ * the same shape.
+ */
+public final class SudokuGeometry {
+
+    /**
+     * The greatest length of an array the virtual machines reliably
+     * allocate.
+     */
+    private static final long MAX_TABLE_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final ConcurrentMap<Long, SudokuGeometry> GEOMETRIES =
+            new ConcurrentHashMap<>();
+    private final int boxRows;
+    private final int boxCols;
+    private final int numbers;
+    private final int cells;
+    private final int peerCount;
+    private final int[] unitCells;
+    private final int[] rows;
+    private final int[] cols;
+    private final int[] boxes;
+    private final int[] positionsInBox;
+    private final int[] peers;
+
+    /**
+     * Creates the geometry of a Sudoku with {@code boxRows} rows and {@code
+     * boxCols} columns per box.
+     *
+     * @param boxRows The number of rows per box.
+     * @param boxCols The number of columns per box.
+     */
+    private SudokuGeometry(int boxRows, int boxCols) {
+        long longNumbers = (long) boxRows * boxCols;
+        if (longNumbers > MAX_TABLE_SIZE / Structure.values().length
+                / longNumbers || longNumbers * longNumbers
+                * (3 * longNumbers - 1 - boxRows - boxCols) > MAX_TABLE_SIZE) {
+            throw new IllegalArgumentException("Error! The tables of the "
+                    + "cells and their peers of a Sudoku with "
+                    + longNumbers + " cells per structure are too large!");
+        }
+        this.boxRows = boxRows;
+        this.boxCols = boxCols;
+        numbers = boxRows * boxCols;
+        cells = numbers * numbers;
+        peerCount = 3 * numbers - 1 - boxRows - boxCols;
+        rows = new int[cells];
+        cols = new int[cells];
+        boxes = new int[cells];
+        positionsInBox = new int[cells];
+        unitCells = new int[Structure.values().length * cells];
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / numbers;
+            int col = cell % numbers;
+            rows[cell] = row;
+            cols[cell] = col;
+            boxes[cell] = (row / boxRows) * boxRows + col / boxCols;
+            positionsInBox[cell] = (row % boxRows) * boxCols + col % boxCols;
+            unitCells[getUnit(Structure.ROW, row) * numbers + col] = cell;
+            unitCells[getUnit(Structure.COL, col) * numbers + row] = cell;
+            unitCells[getUnit(Structure.BOX, boxes[cell]) * numbers
+                    + positionsInBox[cell]] = cell;
+        }
+        peers = new int[cells * peerCount];
+        for (int cell = 0; cell < cells; cell++) {
+            int next = cell * peerCount;
+            int row = getUnit(Structure.ROW, rows[cell]);
+            int col = getUnit(Structure.COL, cols[cell]);
+            int box = getUnit(Structure.BOX, boxes[cell]);
+            for (int i = 0; i < numbers; i++) {
+                int inRow = getUnitCell(row, i);
+                int inCol = getUnitCell(col, i);
+                int inBox = getUnitCell(box, i);
+                if (inRow != cell) {
+                    peers[next++] = inRow;
+                }
+                if (inCol != cell) {
+                    peers[next++] = inCol;
+                }
+                if (rows[inBox] != rows[cell] && cols[inBox] != cols[cell]) {
+                    peers[next++] = inBox;
+                }
+            }
+            assert next == (cell + 1) * peerCount;
+        }
+    }
+
+    /**
+     * Gets the shared geometry of Sudokus with {@code boxRows} rows and {@code
+     * boxCols} columns per box.
+     *
+     * @param boxRows The number of rows per box.
+     * @param boxCols The number of columns per box.
+     * @return The geometry for the given box size.
+     */
+    public static SudokuGeometry of(int boxRows, int boxCols) {
+        if (boxRows <= 0 || boxCols <= 0) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one row and one column per box!");
+        }
+        Long key = ((long) boxRows << Integer.SIZE) | boxCols;
+        SudokuGeometry geometry = GEOMETRIES.get(key);
+        if (geometry == null) {
+            geometry = GEOMETRIES.computeIfAbsent(key,
+                    k -> new SudokuGeometry(boxRows, boxCols));
+        }
+        return geometry;
+    }
+
+    /**
+     * Gets the number of rows in a box.
+     *
+     * @return The number of rows per box.
+     */
+    public int getBoxRows() {
+        return boxRows;
+    }
+
+    /**
+     * Gets the number of columns in a box.
+     *
+     * @return The number of columns per box.
+     */
+    public int getBoxColumns() {
+        return boxCols;
+    }
+
+    /**
+     * Gets the number of cells in each structure.
+     *
+     * @return The number of cells in each structure.
+     */
+    public int getNumbers() {
+        return numbers;
+    }
+
+    /**
+     * Gets the number of cells of the whole Sudoku.
+     *
+     * @return The number of cells.
+     */
+    public int getCells() {
+        return cells;
+    }
+
+    /**
+     * Gets the number of structures of the whole Sudoku, i.e., three times the
+     * number of cells per structure.
+     *
+     * @return The number of structures.
+     */
+    public int getUnits() {
+        return Structure.values().length * numbers;
+    }
+
+    /**
+     * Gets the number of peers every cell has.
+     *
+     * @return The number of peers per cell.
+     */
+    public int getPeerCount() {
+        return peerCount;
+    }
+
+    /**
+     * Translates the coordinates of a cell into its index.
+     *
+     * @param struct The coordinate type of the cell.
+     * @param major The major coordinate component of the cell.
+     * @param minor The minor coordinate component of the cell.
+     * @return The index of the cell.
+     */
+    public int getCellIndex(Structure struct, int major, int minor) {
+        if (struct == null || major < 0 || major >= numbers || minor < 0
+                || minor >= numbers) {
+            throw new IllegalArgumentException("Error! The coordinates do not "
+                    + "describe a cell on the board!");
+        }
+        return unitCells[(struct.ordinal() * numbers + major) * numbers
+                + minor];
+    }
+
+    /**
+     * Gets the index of the structure {@code struct} with number {@code
+     * major}.
+     *
+     * @param struct The type of the structure.
+     * @param major The number of the structure.
+     * @return The index of the structure.
+     */
+    public int getUnit(Structure struct, int major) {
+        return struct.ordinal() * numbers + major;
+    }
+
+    /**
+     * Gets the type of the structure with index {@code unit}.
+     *
+     * @param unit The index of the structure.
+     * @return The type of the structure.
+     */
+    public Structure getUnitStructure(int unit) {
+        return Structure.values()[unit / numbers];
+    }
+
+    /**
+     * Gets the number of the structure with index {@code unit} among the
+     * structures of its type.
+     *
+     * @param unit The index of the structure.
+     * @return The number of the structure.
+     */
+    public int getUnitMajor(int unit) {
+        return unit % numbers;
+    }
+
+    /**
+     * Gets the index of the cell at position {@code minor} of the structure
+     * with index {@code unit}.
+     *
+     * @param unit The index of the structure.
+     * @param minor The position within the structure.
+     * @return The index of the cell.
+     */
+    public int getUnitCell(int unit, int minor) {
+        return unitCells[unit * numbers + minor];
+    }
+
+    /**
+     * Gets the row of a cell.
+     *
+     * @param cell The index of the cell.
+     * @return The row of the cell.
+     */
+    public int getRow(int cell) {
+        return rows[cell];
+    }
+
+    /**
+     * Gets the column of a cell.
+     *
+     * @param cell The index of the cell.
+     * @return The column of the cell.
+     */
+    public int getColumn(int cell) {
+        return cols[cell];
+    }
+
+    /**
+     * Gets the box of a cell.
+     *
+     * @param cell The index of the cell.
+     * @return The box of the cell.
+     */
+    public int getBox(int cell) {
+        return boxes[cell];
+    }
+
+    /**
+     * Gets the position of a cell within its box.
+     *
+     * @param cell The index of the cell.
+     * @return The position of the cell in its box.
+     */
+    public int getPositionInBox(int cell) {
+        return positionsInBox[cell];
+    }
+
+    /**
+     * Gets the major coordinate of a cell in the given coordinate type.
+     *
+     * @param struct The coordinate type.
+     * @param cell The index of the cell.
+     * @return The major coordinate of the cell.
+     */
+    public int getMajor(Structure struct, int cell) {
+        switch (struct) {
+            case ROW:
+                return rows[cell];
+            case COL:
+                return cols[cell];
+            case BOX:
+                return boxes[cell];
+            default:
+                throw new Error("Reached a value that is not within the enum!");
+        }
+    }
+
+    /**
+     * Gets the minor coordinate of a cell in the given coordinate type.
+     *
+     * @param struct The coordinate type.
+     * @param cell The index of the cell.
+     * @return The minor coordinate of the cell.
+     */
+    public int getMinor(Structure struct, int cell) {
+        switch (struct) {
+            case ROW:
+                return cols[cell];
+            case COL:
+                return rows[cell];
+            case BOX:
+                return positionsInBox[cell];
+            default:
+                throw new Error("Reached a value that is not within the enum!");
+        }
+    }
+
+    /**
+     * Gets the {@code i}-th peer of a cell.
+     *
+     * @param cell The index of the cell.
+     * @param i The number of the peer, from 0 to {@code getPeerCount() - 1}.
+     * @return The index of the peer.
+     */
+    public int getPeer(int cell, int i) {
+        return peers[cell * peerCount + i];
+    }
+}
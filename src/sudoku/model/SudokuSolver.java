@@ -1,6 +1,11 @@
 package sudoku.model;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An interface for solving Sudoku puzzles.
@@ -8,6 +13,11 @@ import java.util.List;
  * This interface implements solving Sudokus by backtracking. For speeding up
  * the computation of a solution, additional strategies in the form of
  * {@link Saturator} objects can be added.
+ *
+ * The searches for solutions run until they are finished unless {@link
+ * SearchLimits} are set, which bound their time and their number of nodes
+ * or allow to cancel them. A search exceeding its limits throws a {@link
+ * SearchAbortedException}.
  */
 public interface SudokuSolver {
 
@@ -19,6 +29,16 @@ public interface SudokuSolver {
      */
     void addSaturator(Saturator saturator);
 
+    /**
+     * Sets the limits of all following searches for solutions. The time
+     * limit applies to every single call, and to every iterator from its
+     * creation on.
+     *
+     * @param limits The limits of the searches, {@link SearchLimits#NONE} if
+     *        they may run until they are finished.
+     */
+    void setSearchLimits(SearchLimits limits);
+
     /**
      * Applies all registered solution strategies on the game board
      * {@code board} until a global fix point will be reached.
@@ -45,6 +65,7 @@ public interface SudokuSolver {
      * @param board The Sudoku to find a solution for. Will not be changed.
      * @return A solution of {@code board} or {@code null}, if it is not
      *         solvable.
+     * @throws SearchAbortedException If the search exceeds its limits.
      */
     Board findFirstSolution(Board board);
 
@@ -56,7 +77,65 @@ public interface SudokuSolver {
      *
      * @param board The Sudoku to find the solutions for. Will not be changed.
      * @return A list of all solutions of {@code board}.
+     * @throws SearchAbortedException If the search exceeds its limits.
      */
     List<Board> findAllSolutions(Board board);
 
+    /**
+     * Returns an iterator over all solutions of a given Sudoku puzzle in
+     * ascending order by {@link Board#compareTo(Board)}. The solutions are
+     * searched lazily, i.e., only as far as they are requested, and only the
+     * current path of the search is kept in memory.
+     *
+     * The iterator throws a {@link SearchAbortedException} when searching
+     * the next solution exceeds the limits of the search.
+     *
+     * @param board The Sudoku to find the solutions for. Will not be changed,
+     *        also not while iterating.
+     * @return An iterator over the solutions of {@code board}.
+     */
+    Iterator<Board> iterateSolutions(Board board);
+
+    /**
+     * Returns a sequential stream of all solutions of a given Sudoku puzzle
+     * in ascending order by {@link Board#compareTo(Board)}. The solutions are
+     * searched lazily like by {@link #iterateSolutions(Board)}, so taking the
+     * first solutions of the stream only searches as far as needed.
+     *
+     * @param board The Sudoku to find the solutions for. Will not be changed.
+     * @return A stream of the solutions of {@code board}.
+     */
+    default Stream<Board> streamSolutions(Board board) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                iterateSolutions(board), Spliterator.ORDERED
+                        | Spliterator.SORTED | Spliterator.DISTINCT
+                        | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Counts the solutions of a given Sudoku puzzle, but stops searching as
+     * soon as {@code limit} solutions are found. The solutions are only
+     * counted, no boards are kept for them.
+     *
+     * @param board The Sudoku to count the solutions of. Will not be changed.
+     * @param limit The greatest number of solutions to count.
+     * @return The number of solutions of {@code board}, or {@code limit} if
+     *         it has at least {@code limit} solutions.
+     * @throws SearchAbortedException If the search exceeds its limits.
+     */
+    long countSolutions(Board board, long limit);
+
+    /**
+     * Checks whether a given Sudoku puzzle has exactly one solution. The
+     * search stops at the second solution.
+     *
+     * @param board The Sudoku to check. Will not be changed.
+     * @return {@code true} if {@code board} has exactly one solution, {@code
+     *         false} if it has none or more than one.
+     * @throws SearchAbortedException If the search exceeds its limits.
+     */
+    default boolean isUnique(Board board) {
+        return countSolutions(board, 2) == 1;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+package sudoku.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded table remembering the number of solutions of the boards a search
+ * has completely explored, keyed by their {@link Board#getStateHash()}. A
+ * {@link SudokuBoardSolver} using the table skips the subtrees of boards
+ * known to be unsolvable and, if it only counts solutions, adds the known
+ * count of a board instead of searching it again.
+ *
+ * The table is shared by all threads of a parallel search without any locks.
+ * Every entry is stored as two 64 bit words, the key combined with the value
+ * by exclusive or and the value itself, so an entry torn by concurrent writes
+ * does not match its key anymore and is just a miss. Boards of different
+ * shapes can share the same table.
+ *
+ * The number of entries is fixed, and the {@link EvictionPolicy} decides
+ * which entry a new one replaces. Different boards only share a key by rare
+ * coincidence of their 64 bit hashes.
+ */
+public final class TranspositionTable {
+
+    /**
+     * The ways to decide which entry is replaced by a new one.
+     */
+    public enum EvictionPolicy {
+
+        /**
+         * Every board has exactly one slot, and a new entry always replaces
+         * the entry in it. This is the cheapest policy and keeps the most
+         * recent entries.
+         */
+        REPLACE_ALWAYS,
+
+        /**
+         * Every board has two slots, and a new entry replaces the one of them
+         * with the smaller subtree, i.e., the one that took fewer nodes to
+         * search. Entries saving much work survive longer this way.
+         */
+        KEEP_LARGER_SUBTREES
+    }
+
+    /**
+     * The default number of entries of a table.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /**
+     * The greatest number of entries of a table.
+     */
+    public static final int MAX_CAPACITY = 1 << 28;
+
+    /**
+     * The number of low bits of a value holding the number of solutions plus
+     * one, so that a stored value is never 0. The high bits hold the size of
+     * the subtree.
+     */
+    private static final int COUNT_BITS = 40;
+
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private static final long MAX_NODES = (1L << Long.SIZE - COUNT_BITS) - 1;
+
+    private final EvictionPolicy policy;
+    private final int mask;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray values;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Creates a new TranspositionTable with {@link #DEFAULT_CAPACITY} entries
+     * which keeps the larger subtrees.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_CAPACITY, EvictionPolicy.KEEP_LARGER_SUBTREES);
+    }
+
+    /**
+     * Creates a new TranspositionTable. It takes 16 bytes per entry.
+     *
+     * @param capacity The least number of entries, which is rounded up to
+     *        the next power of two. Must be between 2 and {@link
+     *        #MAX_CAPACITY}.
+     * @param policy The policy deciding which entry a new one replaces.
+     */
+    public TranspositionTable(int capacity, EvictionPolicy policy) {
+        if (capacity < 2 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Error! The capacity of the "
+                    + "transposition table must be between 2 and "
+                    + MAX_CAPACITY + "!");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "eviction policy!");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.policy = policy;
+        this.mask = size - 1;
+        this.keys = new AtomicLongArray(size);
+        this.values = new AtomicLongArray(size);
+    }
+
+    /**
+     * Gets the number of entries of the table.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Gets the eviction policy of the table.
+     *
+     * @return The eviction policy.
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the number of lookups since the table was created or last
+     * cleared.
+     *
+     * @return The number of lookups.
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * Gets the number of lookups finding their board since the table was
+     * created or last cleared.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Removes all entries and resets the statistics. It must not be called
+     * while a search uses the table.
+     */
+    public void clear() {
+        for (int i = 0; i <= mask; i++) {
+            keys.set(i, 0);
+            values.set(i, 0);
+        }
+        lookups.reset();
+        hits.reset();
+    }
+
+    /**
+     * Gets the number of solutions of a board.
+     *
+     * @param key The key of the board.
+     * @return The number of solutions, or -1 if the board is not stored.
+     */
+    long get(long key) {
+        lookups.increment();
+        int slot = (int) key & mask;
+        long count = get(key, slot);
+        if (count < 0 && policy == EvictionPolicy.KEEP_LARGER_SUBTREES) {
+            count = get(key, slot ^ 1);
+        }
+        if (count >= 0) {
+            hits.increment();
+        }
+        return count;
+    }
+
+    /**
+     * Stores the number of solutions of a completely searched board. Counts
+     * too large to be stored are ignored.
+     *
+     * @param key The key of the board.
+     * @param count The number of solutions of the board.
+     * @param nodes The number of nodes of the subtree searched below the
+     *        board.
+     */
+    void put(long key, long count, long nodes) {
+        assert count >= 0 && nodes >= 0;
+        if (count >= COUNT_MASK) {
+            return;
+        }
+        long value = Math.min(nodes, MAX_NODES) << COUNT_BITS | count + 1;
+        int slot = (int) key & mask;
+        if (policy == EvictionPolicy.KEEP_LARGER_SUBTREES
+                && get(key, slot) < 0) {
+            int other = slot ^ 1;
+            if (get(key, other) >= 0
+                    || values.get(other) >>> COUNT_BITS
+                    < values.get(slot) >>> COUNT_BITS) {
+                slot = other;
+            }
+        }
+        keys.set(slot, key ^ value);
+        values.set(slot, value);
+    }
+
+    /**
+     * Gets the number of solutions stored in a slot.
+     *
+     * @param key The key of the board.
+     * @param slot The index of the slot.
+     * @return The number of solutions, or -1 if the slot does not hold the
+     *         board.
+     */
+    private long get(long key, int slot) {
+        long value = values.get(slot);
+        if (value == 0 || (keys.get(slot) ^ value) != key) {
+            return -1;
+        }
+        return (value & COUNT_MASK) - 1;
+    }
+}
@@ -0,0 +1,963 @@
+package sudoku.model;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+
+/**
+ * A board storing its cells in flat primitive arrays like {@link
+ * FlatSudokuBoard}, but for boards with more than {@link
+ * FlatSudokuBoard#MAX_NUMBERS} numbers per structure. The remaining
+ * possibilities of every cell are packed into several consecutive {@code long}
+ * words, where bit {@code (number - 1) % 64} of word {@code (number - 1) / 64}
+ * is set if {@code number} may still be set into the cell.
+ *
+ * Like {@link FlatSudokuBoard} it keeps the positions of every number in every
+ * structure as multi-word bit masks, the number of set cells and the Zobrist
+ * hash up to date, supports rolling back by an undo trail and records its
+ * changes for saturation.
+ */
+public class WideSudokuBoard implements Board {
+
+    /**
+     * The greatest number of cells per structure this board can hold. Up to
+     * this size, the peers of all cells in the {@link SudokuGeometry} fit
+     * into one array for every shape of the boxes.
+     */
+    public static final int MAX_NUMBERS = 900;
+
+    /**
+     * The value stored in {@link #contents} for a cell which is not yet set.
+     */
+    private static final short UNSET = 0;
+
+    /**
+     * The cell entry on the trail recording a change of the last set cell.
+     */
+    private static final int LAST_CELL_SET_ENTRY = Integer.MIN_VALUE;
+
+    private final SudokuGeometry geometry;
+    private final int numberOfFieldsPerStructure;
+
+    /*
+     * The number of words of the bit masks of the possibilities of a cell and
+     * of the positions of a number in a structure.
+     */
+    private final int words;
+    private short[] contents;
+
+    /*
+     * Indexed by cell * words + (number - 1) / 64.
+     */
+    private long[] possibilities;
+
+    /*
+     * Indexed by (unit * numbers + number - 1) * words + minor / 64, the bit
+     * minor % 64 is set if the cell at minor in the unit contains number or
+     * may be set to it.
+     */
+    private long[] positions;
+    private int setCells = 0;
+    private long hash = 0;
+    private int lastCellSet = -1;
+
+    /*
+     * The undo trail. Each entry consists of a cell and its former value. A
+     * word index i = cell * words + word denotes a change of a word of the
+     * possibilities, ~cell a change of the content of the cell, and
+     * LAST_CELL_SET_ENTRY a change of lastCellSet.
+     */
+    private boolean trailing = false;
+    private int trailSize = 0;
+    private int[] trailCells = new int[0];
+    private long[] trailValues = new long[0];
+
+    /*
+     * The changes recorded since the last call of drainChanges() and the set
+     * handed out by it, which is reused for recording after the next call.
+     * Both are null as long as the changes are not asked for.
+     */
+    private ChangeSet changes = null;
+    private ChangeSet drainedChanges = null;
+
+    /**
+     * Creates a new empty WideSudokuBoard that contains {@code boxRows} rows
+     * and {@code boxCols} columns per box resulting in {@code boxRows *
+     * boxCols} cells per row and per column.
+     *
+     * @param boxRows The number of rows of a box.
+     * @param boxCols The number of columns of a box.
+     */
+    public WideSudokuBoard(int boxRows, int boxCols) {
+        if (boxRows <= 0 || boxCols <= 0) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one row and one column per box!");
+        }
+        if ((long) boxRows * boxCols > MAX_NUMBERS) {
+            throw new IllegalArgumentException("Error! A WideSudokuBoard "
+                    + "supports at most " + MAX_NUMBERS + " cells per "
+                    + "structure!");
+        }
+        geometry = SudokuGeometry.of(boxRows, boxCols);
+        numberOfFieldsPerStructure = boxRows * boxCols;
+        words = (numberOfFieldsPerStructure + Long.SIZE - 1) / Long.SIZE;
+        contents = new short[geometry.getCells()];
+        possibilities = new long[geometry.getCells() * words];
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            fillAll(possibilities, cell * words);
+        }
+        positions = new long[geometry.getUnits() * numberOfFieldsPerStructure
+                * words];
+        for (int i = 0; i < positions.length; i += words) {
+            fillAll(positions, i);
+        }
+    }
+
+    /**
+     * Creates a WideSudokuBoard with the same size, contents and possibilities
+     * as {@code board}.
+     *
+     * @param board The board to copy.
+     * @return A new board equal to {@code board}.
+     */
+    public static WideSudokuBoard copyOf(Board board) {
+        if (board == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the board to copy!");
+        }
+        WideSudokuBoard copy = new WideSudokuBoard(board.getBoxRows(),
+                board.getBoxColumns());
+        SudokuGeometry geometry = copy.geometry;
+        Arrays.fill(copy.possibilities, 0);
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            int row = geometry.getRow(cell);
+            int col = geometry.getColumn(cell);
+            int content = board.getCell(Structure.ROW, row, col);
+            if (content != Board.UNSET_CELL) {
+                copy.contents[cell] = (short) content;
+            }
+            int number = board.getNextPossibility(Structure.ROW, row, col, 1);
+            while (number != -1) {
+                copy.possibilities[copy.getWordIndex(cell, number)] |=
+                        getBit(number);
+                number = board.getNextPossibility(Structure.ROW, row, col,
+                        number + 1);
+            }
+        }
+        copy.recount();
+        int[] lastCellSet = board.getLastCellSet();
+        if (lastCellSet != null) {
+            copy.lastCellSet = geometry.getCellIndex(Structure.ROW,
+                    lastCellSet[0], lastCellSet[1]);
+        }
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getBoxRows() {
+        return geometry.getBoxRows();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getBoxColumns() {
+        return geometry.getBoxColumns();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumbers() {
+        return numberOfFieldsPerStructure;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setCell(Structure struct, int major, int minor, int number)
+            throws InvalidSudokuException {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to set the number "
+                    + number + "that is less than 1 or greater than "
+                    + numberOfFieldsPerStructure + ", the biggest number "
+                    + "that may be set!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        if (contents[cell] != UNSET && contents[cell] != number) {
+            throw new InvalidSudokuException("Error! Tried to override the "
+                    + "content of an already set cell!");
+        }
+        if (contents[cell] == UNSET && (possibilities[getWordIndex(cell,
+                number)] & getBit(number)) == 0) {
+            throw new InvalidSudokuException("Error! Tried to set a number "
+                    + "in a cell that is not possible there anymore!");
+        }
+        if (assign(cell, number) == Outcome.CONTRADICTION) {
+            throw new InvalidSudokuException("Error! All possibilities "
+                    + "would be removed from an unset cell!");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Outcome assign(Structure struct, int major, int minor,
+                          int number) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to set the number "
+                    + number + "that is less than 1 or greater than "
+                    + numberOfFieldsPerStructure + ", the biggest number "
+                    + "that may be set!");
+        }
+        return assign(geometry.getCellIndex(struct, major, minor), number);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getLastCellSet() {
+        if (lastCellSet < 0) {
+            return null;
+        }
+        return new int[] {geometry.getRow(lastCellSet),
+                geometry.getColumn(lastCellSet)};
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getCell(Structure struct, int major, int minor) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to get the "
+                    + "content of a cell that is not on the board!");
+        }
+        int content = contents[geometry.getCellIndex(struct, major, minor)];
+        return content == UNSET ? Board.UNSET_CELL : content;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSolution() {
+        return setCells == contents.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfSetCells() {
+        return setCells;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] getPossibilities(Structure struct, int major, int minor) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to get the "
+                    + "possibilities of a cell that is not on the board!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        if (contents[cell] != UNSET) {
+            return null;
+        }
+        int[] result = new int[getPossibilityCount(cell)];
+        int next = 0;
+        for (int w = 0; w < words; w++) {
+            long mask = possibilities[cell * words + w];
+            while (mask != 0) {
+                result[next++] = w * Long.SIZE
+                        + Long.numberOfTrailingZeros(mask) + 1;
+                mask &= mask - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPossibilityCount(Structure struct, int major, int minor) {
+        return getPossibilityCount(geometry.getCellIndex(struct, major,
+                minor));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNextPossibility(Structure struct, int major, int minor,
+                                  int number) {
+        if (number < 1) {
+            throw new IllegalArgumentException("Error! The numbers of a "
+                    + "Sudoku start with 1!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        if (number > numberOfFieldsPerStructure) {
+            return -1;
+        }
+        int next = getNextBit(possibilities, cell * words, number - 1);
+        return next == -1 ? -1 : next + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachPossibility(Structure struct, int major, int minor,
+                                   IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "the action!");
+        }
+        int cell = geometry.getCellIndex(struct, major, minor);
+        for (int w = 0; w < words; w++) {
+            long mask = possibilities[cell * words + w];
+            while (mask != 0) {
+                action.accept(w * Long.SIZE + Long.numberOfTrailingZeros(mask)
+                        + 1);
+                mask &= mask - 1;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPossiblePositionCount(Structure struct, int major,
+                                        int number) {
+        int offset = getPositionIndex(struct, major, number);
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(positions[offset + w]);
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNextPossiblePosition(Structure struct, int major, int number,
+                                       int minor) {
+        int offset = getPositionIndex(struct, major, number);
+        if (minor < 0) {
+            throw new IllegalArgumentException("Error! The positions within a "
+                    + "structure start with 0!");
+        }
+        if (minor >= numberOfFieldsPerStructure) {
+            return -1;
+        }
+        return getNextBit(positions, offset, minor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removePossibility(Structure struct, int major, int minor,
+                                  int number) throws InvalidSudokuException {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to remove the "
+                    + "possibility to set the number " + number + "that is less"
+                    + "than 1 or greater than " + numberOfFieldsPerStructure
+                    + ", the biggest number that may be set!");
+        }
+        if (removePossibility(geometry.getCellIndex(struct, major, minor),
+                number) == Outcome.CONTRADICTION) {
+            throw new InvalidSudokuException("Error! All possibilities "
+                    + "would be removed from an unset cell!");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Outcome eliminate(Structure struct, int major, int minor,
+                             int number) {
+        if (!isValidPosition(major, minor)) {
+            throw new IllegalArgumentException("Error! Tried to set a cell "
+                    + "that is not on the board!");
+        }
+        if (number < 1 || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to remove the "
+                    + "possibility to set the number " + number + "that is less"
+                    + "than 1 or greater than " + numberOfFieldsPerStructure
+                    + ", the biggest number that may be set!");
+        }
+        return removePossibility(geometry.getCellIndex(struct, major, minor),
+                number);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getStateHash() {
+        return hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int mark() {
+        trailing = true;
+        return trailSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void rollback(int mark) {
+        if (mark < 0 || mark > trailSize) {
+            throw new IllegalArgumentException("Error! The mark " + mark
+                    + " is not valid for this board!");
+        }
+        while (trailSize > mark) {
+            --trailSize;
+            int entry = trailCells[trailSize];
+            long value = trailValues[trailSize];
+            if (entry == LAST_CELL_SET_ENTRY) {
+                lastCellSet = (int) value;
+            } else if (entry < 0) {
+                restoreContent(~entry, (short) value);
+            } else {
+                int cell = entry / words;
+                int word = entry % words;
+                long former = getHeldWord(contents[cell], cell, word);
+                hash ^= getPossibilityKeys(cell, word,
+                        possibilities[entry] ^ value);
+                possibilities[entry] = value;
+                updatePositions(cell, word, former,
+                        getHeldWord(contents[cell], cell, word));
+                if (changes != null) {
+                    changes.add(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ChangeSet drainChanges() {
+        if (changes == null) {
+            changes = new ChangeSet(geometry);
+            changes.addAll();
+        }
+        if (drainedChanges == null) {
+            drainedChanges = new ChangeSet(geometry);
+        } else {
+            drainedChanges.clear();
+        }
+        ChangeSet drained = changes;
+        changes = drainedChanges;
+        drainedChanges = drained;
+        return drained;
+    }
+
+    /**
+     * Deep copies the board. The clone starts without any marks but with the
+     * pending changes of this board.
+     *
+     * @return The cloned board.
+     */
+    @Override
+    public Board clone() {
+        WideSudokuBoard clone;
+        try {
+            clone = (WideSudokuBoard) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new Error("Error! Interface Cloneable not implemented in a "
+                    + "superclass of WideSudokuBoard!");
+        }
+        clone.contents = this.contents.clone();
+        clone.possibilities = this.possibilities.clone();
+        clone.positions = this.positions.clone();
+        clone.trailing = false;
+        clone.trailSize = 0;
+        clone.trailCells = new int[0];
+        clone.trailValues = new long[0];
+        clone.changes = changes == null ? null : changes.copy();
+        clone.drainedChanges = null;
+        return clone;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Board
+                && ZobristHashing.equal(this, (Board) other);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return ZobristHashing.toHashCode(hash);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getStringRepresentation(" ");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(Board other) {
+        if (other == null || this.getNumbers() != other.getNumbers()) {
+            throw new IllegalArgumentException("Error! The other board has to "
+                    + "have the same size as this!");
+        }
+        for (int i = 0; i < numberOfFieldsPerStructure; i++) {
+            for (int j = 0; j < numberOfFieldsPerStructure; j++) {
+                int comparisonOfCells = compareCellsByContent(
+                        getCell(Structure.ROW, i, j),
+                        other.getCell(Structure.ROW, i, j));
+                if (comparisonOfCells != 0) {
+                    return comparisonOfCells;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String prettyPrint() {
+        return getStringRepresentation("\n");
+    }
+
+    /**
+     * Sets the cell with index {@code cell} to {@code number} and removes the
+     * number from the possibilities of all peers. The peers are not changed
+     * anymore once one of them ran out of possibilities.
+     *
+     * @param cell The index of the cell.
+     * @param number The number to set.
+     * @return {@link Outcome#UNCHANGED} if the cell already contained the
+     *         number, {@link Outcome#CONTRADICTION} if the cell contained
+     *         another number, the number was no possibility of the cell or
+     *         a peer ran out of possibilities, {@link Outcome#CHANGED}
+     *         otherwise.
+     */
+    private Outcome assign(int cell, int number) {
+        if (contents[cell] != UNSET) {
+            return contents[cell] == number ? Outcome.UNCHANGED
+                    : Outcome.CONTRADICTION;
+        }
+        long bit = getBit(number);
+        if ((possibilities[getWordIndex(cell, number)] & bit) == 0) {
+            return Outcome.CONTRADICTION;
+        }
+        int numberWord = (number - 1) / Long.SIZE;
+        record(~cell, contents[cell]);
+        for (int w = 0; w < words; w++) {
+            int index = cell * words + w;
+            long former = possibilities[index];
+            if (former != 0) {
+                record(index, former);
+                possibilities[index] = 0;
+                hash ^= getPossibilityKeys(cell, w, former);
+                updatePositions(cell, w, former, w == numberWord ? bit : 0);
+            }
+        }
+        contents[cell] = (short) number;
+        ++setCells;
+        hash ^= ZobristHashing.getContentKey(cell, number);
+        record(LAST_CELL_SET_ENTRY, lastCellSet);
+        lastCellSet = cell;
+        if (changes != null) {
+            changes.add(cell);
+        }
+        for (int i = 0; i < geometry.getPeerCount(); i++) {
+            if (removePossibility(geometry.getPeer(cell, i), number)
+                    == Outcome.CONTRADICTION) {
+                return Outcome.CONTRADICTION;
+            }
+        }
+        return Outcome.CHANGED;
+    }
+
+    /**
+     * Removes {@code number} from the possibilities of the cell with index
+     * {@code cell}. Nothing happens if the cell is already set.
+     *
+     * @param cell The index of the cell.
+     * @param number The possibility to remove.
+     * @return {@link Outcome#CONTRADICTION} if the last possibility of an
+     *         unset cell was removed, {@link Outcome#CHANGED} if the
+     *         possibility was removed, {@link Outcome#UNCHANGED} otherwise.
+     */
+    private Outcome removePossibility(int cell, int number) {
+        int index = getWordIndex(cell, number);
+        long bit = getBit(number);
+        long current = possibilities[index];
+        if ((current & bit) == 0) {
+            return Outcome.UNCHANGED;
+        }
+        record(index, current);
+        possibilities[index] = current & ~bit;
+        hash ^= ZobristHashing.getPossibilityKey(cell, number);
+        if (changes != null) {
+            changes.add(cell);
+        }
+        if (contents[cell] == UNSET) {
+            updatePositions(cell, index - cell * words, bit, 0);
+            if (possibilities[index] == 0 && getPossibilityCount(cell) == 0) {
+                return Outcome.CONTRADICTION;
+            }
+        }
+        return Outcome.CHANGED;
+    }
+
+    /**
+     * Restores the content of the cell with index {@code cell} while rolling
+     * back.
+     *
+     * @param cell The index of the cell.
+     * @param content The former content of the cell.
+     */
+    private void restoreContent(int cell, short content) {
+        short current = contents[cell];
+        if (current != UNSET) {
+            --setCells;
+            hash ^= ZobristHashing.getContentKey(cell, current);
+        }
+        contents[cell] = content;
+        if (content != UNSET) {
+            ++setCells;
+            hash ^= ZobristHashing.getContentKey(cell, content);
+        }
+        for (int w = 0; w < words; w++) {
+            updatePositions(cell, w, getHeldWord(current, cell, w),
+                    getHeldWord(content, cell, w));
+        }
+    }
+
+    /**
+     * Returns the number of possibilities of the cell with index {@code
+     * cell}.
+     *
+     * @param cell The index of the cell.
+     * @return The number of possibilities of the cell.
+     */
+    private int getPossibilityCount(int cell) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(possibilities[cell * words + w]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns one word of the numbers a cell contains or may still be set to,
+     * assuming its content is {@code content}.
+     *
+     * @param content The content of the cell or {@link #UNSET}.
+     * @param cell The index of the cell.
+     * @param word The number of the word.
+     * @return The word of the bit mask of the content or the possibilities of
+     *         the cell.
+     */
+    private long getHeldWord(int content, int cell, int word) {
+        if (content == UNSET) {
+            return possibilities[cell * words + word];
+        }
+        return (content - 1) / Long.SIZE == word ? getBit(content) : 0;
+    }
+
+    /**
+     * Updates the position masks of the structures containing {@code cell}
+     * after one word of the numbers it contains or may be set to changed from
+     * {@code former} to {@code current}.
+     *
+     * @param cell The index of the changed cell.
+     * @param word The number of the changed word.
+     * @param former The word of the numbers held before the change.
+     * @param current The word of the numbers held after the change.
+     */
+    private void updatePositions(int cell, int word, long former,
+                                 long current) {
+        long changed = former ^ current;
+        if (changed == 0) {
+            return;
+        }
+        int row = geometry.getRow(cell);
+        int col = geometry.getColumn(cell);
+        int position = geometry.getPositionInBox(cell);
+        int rowUnit = geometry.getUnit(Structure.ROW, row);
+        int colUnit = geometry.getUnit(Structure.COL, col);
+        int boxUnit = geometry.getUnit(Structure.BOX, geometry.getBox(cell));
+        while (changed != 0) {
+            int number = word * Long.SIZE
+                    + Long.numberOfTrailingZeros(changed) + 1;
+            changed &= changed - 1;
+            togglePosition(rowUnit, number, col);
+            togglePosition(colUnit, number, row);
+            togglePosition(boxUnit, number, position);
+        }
+    }
+
+    /**
+     * Toggles the bit of position {@code minor} in the position mask of
+     * {@code number} in the structure with index {@code unit}.
+     *
+     * @param unit The index of the structure.
+     * @param number The number.
+     * @param minor The position within the structure.
+     */
+    private void togglePosition(int unit, int number, int minor) {
+        positions[(unit * numberOfFieldsPerStructure + number - 1) * words
+                + minor / Long.SIZE] ^= 1L << minor;
+    }
+
+    /**
+     * Recomputes the number of set cells, the position masks and the hash from
+     * the contents and possibilities of all cells.
+     */
+    private void recount() {
+        setCells = 0;
+        hash = 0;
+        Arrays.fill(positions, 0);
+        for (int cell = 0; cell < contents.length; cell++) {
+            if (contents[cell] != UNSET) {
+                ++setCells;
+                hash ^= ZobristHashing.getContentKey(cell, contents[cell]);
+            }
+            for (int w = 0; w < words; w++) {
+                long all = w == words - 1 ? getLastWordMask() : -1L;
+                hash ^= getPossibilityKeys(cell, w,
+                        all & ~possibilities[cell * words + w]);
+                updatePositions(cell, w, 0,
+                        getHeldWord(contents[cell], cell, w));
+            }
+        }
+    }
+
+    /**
+     * Gets the exclusive or of the Zobrist keys of the numbers in one word of
+     * a bit mask of possibilities.
+     *
+     * @param cell The index of the cell.
+     * @param word The number of the word.
+     * @param numbers The word of the bit mask.
+     * @return The combined key of the numbers.
+     */
+    private static long getPossibilityKeys(int cell, int word, long numbers) {
+        long keys = 0;
+        while (numbers != 0) {
+            keys ^= ZobristHashing.getPossibilityKey(cell, word * Long.SIZE
+                    + Long.numberOfTrailingZeros(numbers) + 1);
+            numbers &= numbers - 1;
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the smallest set bit not smaller than {@code from} in the
+     * multi-word bit mask starting at {@code offset}.
+     *
+     * @param masks The array holding the bit mask.
+     * @param offset The index of the first word of the bit mask.
+     * @param from The first bit to consider.
+     * @return The next set bit or -1 if there is none.
+     */
+    private int getNextBit(long[] masks, int offset, int from) {
+        int word = from / Long.SIZE;
+        long left = masks[offset + word] & (-1L << from);
+        while (left == 0) {
+            if (++word == words) {
+                return -1;
+            }
+            left = masks[offset + word];
+        }
+        return word * Long.SIZE + Long.numberOfTrailingZeros(left);
+    }
+
+    /**
+     * Sets all bits standing for a number in the multi-word bit mask
+     * starting at {@code offset}.
+     *
+     * @param masks The array holding the bit mask.
+     * @param offset The index of the first word of the bit mask.
+     */
+    private void fillAll(long[] masks, int offset) {
+        Arrays.fill(masks, offset, offset + words - 1, -1L);
+        masks[offset + words - 1] = getLastWordMask();
+    }
+
+    /**
+     * Returns the bits of the last word of a bit mask which stand for a
+     * number.
+     *
+     * @return The mask of the valid bits of the last word.
+     */
+    private long getLastWordMask() {
+        int bits = numberOfFieldsPerStructure - (words - 1) * Long.SIZE;
+        return bits == Long.SIZE ? -1L : (1L << bits) - 1;
+    }
+
+    /**
+     * Returns the index of the word of the possibilities of {@code cell}
+     * which holds the bit of {@code number}.
+     *
+     * @param cell The index of the cell.
+     * @param number The number.
+     * @return The index within {@link #possibilities}.
+     */
+    private int getWordIndex(int cell, int number) {
+        return cell * words + (number - 1) / Long.SIZE;
+    }
+
+    /**
+     * Returns the bit standing for {@code number} within its word.
+     *
+     * @param number The number.
+     * @return The bit of the number.
+     */
+    private static long getBit(int number) {
+        return 1L << (number - 1);
+    }
+
+    /**
+     * Returns the index of the first word of the position mask of {@code
+     * number} in the given structure.
+     *
+     * @param struct The type of the structure.
+     * @param major The number of the structure.
+     * @param number The number whose positions are requested.
+     * @return The index within {@link #positions}.
+     */
+    private int getPositionIndex(Structure struct, int major, int number) {
+        if (struct == null || major < 0
+                || major >= numberOfFieldsPerStructure || number < 1
+                || number > numberOfFieldsPerStructure) {
+            throw new IllegalArgumentException("Error! Tried to access a "
+                    + "structure that is not on the board or a number that "
+                    + "may not be set!");
+        }
+        return (geometry.getUnit(struct, major) * numberOfFieldsPerStructure
+                + number - 1) * words;
+    }
+
+    /**
+     * Records the former value of a cell entry on the undo trail if a mark has
+     * been taken.
+     *
+     * @param entry The encoded cell entry.
+     * @param value The value before the change.
+     */
+    private void record(int entry, long value) {
+        if (!trailing) {
+            return;
+        }
+        if (trailSize == trailCells.length) {
+            int capacity = Math.max(16, 2 * trailSize);
+            trailCells = Arrays.copyOf(trailCells, capacity);
+            trailValues = Arrays.copyOf(trailValues, capacity);
+        }
+        trailCells[trailSize] = entry;
+        trailValues[trailSize] = value;
+        ++trailSize;
+    }
+
+    /**
+     * Returns whether a position specified by major coordinate {@code pos1} and
+     * minor coordinate {@code pos2} is identifying a cell within the Sudoku or
+     * not.
+     *
+     * @param pos1 The major coordinate.
+     * @param pos2 The minor coordinate.
+     * @return whether pos1 and pos2 specify the position of a cell or not.
+     */
+    private boolean isValidPosition(int pos1, int pos2) {
+        return pos1 >= 0 && pos1 < numberOfFieldsPerStructure && pos2 >= 0
+                && pos2 < numberOfFieldsPerStructure;
+    }
+
+    private String getStringRepresentation(String delimiter) {
+        assert delimiter != null;
+        StringJoiner boardAsString = new StringJoiner(delimiter);
+        for (int i = 0; i < numberOfFieldsPerStructure; i++) {
+            StringJoiner rowAsString = new StringJoiner(" ");
+            for (int j = 0; j < numberOfFieldsPerStructure; j++) {
+                int content = contents[i * numberOfFieldsPerStructure + j];
+                rowAsString.add(content == UNSET ? "."
+                        : Integer.toString(content));
+            }
+            boardAsString.add(rowAsString.toString());
+        }
+        return boardAsString.toString();
+    }
+
+    /**
+     * Compares two contents of cells according to ascending numbers. {@link
+     * #UNSET_CELL} is treated to be larger than any other number.
+     *
+     * @param content1 The content of the first cell.
+     * @param content2 The content of the second cell.
+     * @return -1 if content1 is smaller, 0 if equal, and 1 if bigger.
+     */
+    private static int compareCellsByContent(int content1, int content2) {
+        if (content1 == Board.UNSET_CELL) {
+            return content2 == content1 ? 0 : 1;
+        }
+        if (content2 == Board.UNSET_CELL) {
+            return -1;
+        }
+        if (content1 == content2) {
+            return 0;
+        }
+        return content1 < content2 ? -1 : 1;
+    }
+}
@@ -0,0 +1,189 @@
+package sudoku.model;
+
+/**
+ * This class provides the Zobrist hash shared by all boards, which allows
+ * boards to keep their hash up to date with every change instead of scanning
+ * the board.
+ *
+ * Every cell and number has a random 64 bit key for the cell being set to the
+ * number and one for the number being removed from the possibilities of the
+ * cell. The hash of a board is the exclusive or of the keys of all set
+ * contents and all removed possibilities, where set cells have no
+ * possibilities left. Thus, an empty board has the hash 0, and every change
+ * of a cell toggles the keys of its changed numbers.
+ *
+ * The keys are derived from the cell and the number by a fixed mixing
+ * function instead of being stored in a table, so boards of every size and
+ * every implementation agree on them without any memory overhead.
+ */
+final class ZobristHashing {
+
+    /**
+     * The increment of the SplitMix64 generator, which spreads consecutive
+     * indices over the whole range.
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private ZobristHashing() {
+        throw new UnsupportedOperationException(
+                "Illegal call of utility class constructor.");
+    }
+
+    /**
+     * Gets the key for the cell with index {@code cell} being set to {@code
+     * number}.
+     *
+     * @param cell The index of the cell.
+     * @param number The content of the cell.
+     * @return The key of the content.
+     */
+    static long getContentKey(int cell, int number) {
+        return mix(((long) cell << Integer.SIZE | (long) number << 1)
+                * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Gets the key for {@code number} being removed from the possibilities of
+     * the cell with index {@code cell}.
+     *
+     * @param cell The index of the cell.
+     * @param number The removed possibility.
+     * @return The key of the removed possibility.
+     */
+    static long getPossibilityKey(int cell, int number) {
+        return mix(((long) cell << Integer.SIZE | (long) number << 1 | 1)
+                * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Gets the key of the shape of a board. Combined with the hash of a board
+     * it tells apart boards of different shapes, which otherwise share the
+     * keys of their common cells, e.g., all empty boards have the hash 0.
+     * The highest bit of the mixed value keeps it apart from the keys of the
+     * cells.
+     *
+     * @param boxRows The number of rows per box.
+     * @param boxCols The number of columns per box.
+     * @return The key of the shape.
+     */
+    static long getGeometryKey(int boxRows, int boxCols) {
+        return mix((Long.MIN_VALUE | (long) boxRows << Integer.SIZE
+                | (long) boxCols << 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Gets the exclusive or of the keys of all possibilities given as bit
+     * mask, in which bit {@code number - 1} stands for {@code number}.
+     *
+     * @param cell The index of the cell.
+     * @param numbers The bit mask of the possibilities.
+     * @return The combined key of the possibilities.
+     */
+    static long getPossibilityKeys(int cell, long numbers) {
+        long keys = 0;
+        while (numbers != 0) {
+            keys ^= getPossibilityKey(cell,
+                    Long.numberOfTrailingZeros(numbers) + 1);
+            numbers &= numbers - 1;
+        }
+        return keys;
+    }
+
+    /**
+     * Computes the hash of {@code board} by scanning all of its cells.
+     *
+     * @param board The board to hash.
+     * @return The Zobrist hash of the board.
+     */
+    static long hash(Board board) {
+        assert board != null;
+        SudokuGeometry geometry = board.getGeometry();
+        int numbers = geometry.getNumbers();
+        long hash = 0;
+        for (int cell = 0; cell < geometry.getCells(); cell++) {
+            int row = geometry.getRow(cell);
+            int col = geometry.getColumn(cell);
+            int content = board.getCell(Structure.ROW, row, col);
+            if (content != Board.UNSET_CELL) {
+                hash ^= getContentKey(cell, content);
+            }
+            int next = board.getNextPossibility(Structure.ROW, row, col, 1);
+            for (int number = 1; number <= numbers; number++) {
+                if (number == next) {
+                    next = board.getNextPossibility(Structure.ROW, row, col,
+                            number + 1);
+                } else {
+                    hash ^= getPossibilityKey(cell, number);
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Checks whether two boards have the same size, contents and
+     * possibilities, regardless of their implementation. Boards with
+     * different hashes are told apart without scanning them.
+     *
+     * @param board The first board.
+     * @param other The second board.
+     * @return {@code true} if both boards are equal, {@code false} otherwise.
+     */
+    static boolean equal(Board board, Board other) {
+        assert board != null;
+        if (board == other) {
+            return true;
+        }
+        if (other == null || board.getBoxRows() != other.getBoxRows()
+                || board.getBoxColumns() != other.getBoxColumns()
+                || board.getStateHash() != other.getStateHash()) {
+            return false;
+        }
+        int numbers = board.getNumbers();
+        for (int row = 0; row < numbers; row++) {
+            for (int col = 0; col < numbers; col++) {
+                if (board.getCell(Structure.ROW, row, col)
+                        != other.getCell(Structure.ROW, row, col)) {
+                    return false;
+                }
+                int number = 1;
+                int next;
+                do {
+                    next = board.getNextPossibility(Structure.ROW, row, col,
+                            number);
+                    if (next != other.getNextPossibility(Structure.ROW, row,
+                            col, number)) {
+                        return false;
+                    }
+                    number = next + 1;
+                } while (next != -1 && number <= numbers);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Folds a 64 bit hash into a hash code for {@link Object#hashCode()}.
+     *
+     * @param hash The 64 bit hash.
+     * @return The hash code.
+     */
+    static int toHashCode(long hash) {
+        return (int) (hash ^ (hash >>> Integer.SIZE));
+    }
+
+    /**
+     * Scrambles the bits of {@code z} by the finalizer of SplitMix64.
+     *
+     * @param z The value to scramble.
+     * @return The scrambled value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
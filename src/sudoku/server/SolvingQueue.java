@@ -0,0 +1,295 @@
+package sudoku.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import sudoku.model.SearchLimits;
+import sudoku.model.SudokuSolver;
+
+/**
+ * A queue of searches solved by a fixed number of threads, each of which
+ * keeps its own solver for all searches it runs.
+ *
+ * While every thread is busy, a thread finishing a search takes a batch of
+ * up to {@link #MAX_BATCH} queued searches at once and runs them back to
+ * back, so a burst of small requests costs one hand-over per batch instead
+ * of one per request. The batch stays open to the other threads: a thread
+ * running out of work takes searches from the batches of the others before
+ * it goes to sleep, and a thread which sees an idle thread right after
+ * taking a batch hands it back to the queue. So a long search never delays
+ * a queued one while another thread is free.
+ */
+final class SolvingQueue {
+
+    /**
+     * The largest number of searches a thread takes from the queue at once.
+     */
+    private static final int MAX_BATCH = 8;
+
+    private final BlockingQueue<Search<?>> searches;
+    private final List<Worker> workers = new ArrayList<>();
+    private final Supplier<? extends SudokuSolver> solverFactory;
+    private final AtomicInteger idle = new AtomicInteger();
+    private volatile SearchLimits searchLimits = SearchLimits.NONE;
+    private volatile boolean stopped = false;
+
+    /**
+     * Creates a new SolvingQueue and starts its threads.
+     *
+     * @param threads The number of threads solving the searches.
+     * @param capacity The largest number of searches waiting in the queue,
+     *        not counting the batches taken by the threads.
+     * @param solverFactory The factory creating the solver of every thread.
+     *        It is called once per thread.
+     */
+    SolvingQueue(int threads, int capacity,
+                 Supplier<? extends SudokuSolver> solverFactory) {
+        assert threads > 0 && capacity > 0 && solverFactory != null;
+        this.searches = new LinkedBlockingQueue<>(capacity);
+        this.solverFactory = solverFactory;
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Worker(i));
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Sets the limits of every single search, which apply from the moment a
+     * thread starts it.
+     *
+     * @param limits The limits of the search per request.
+     */
+    void setSearchLimits(SearchLimits limits) {
+        assert limits != null;
+        searchLimits = limits;
+    }
+
+    /**
+     * Queues a search.
+     *
+     * @param search The search to run with the solver of a thread.
+     * @param <T> The type of the result of the search.
+     * @return The future result of the search. It fails with the exception
+     *         thrown by the search, e.g., if the search exceeded its limits.
+     * @throws RejectedExecutionException If the queue is full or stopped.
+     */
+    <T> CompletableFuture<T> submit(Function<SudokuSolver, T> search) {
+        assert search != null;
+        Search<T> queued = new Search<>(search);
+        if (stopped || !searches.offer(queued)) {
+            throw new RejectedExecutionException("Error! Too many requests "
+                    + "are waiting to be solved!");
+        }
+        if (stopped) {
+            failQueuedSearches(new RejectedExecutionException("Error! The "
+                    + "server has been stopped!"));
+        }
+        return queued.result;
+    }
+
+    /**
+     * Stops the threads. Running searches are aborted as interrupted, queued
+     * ones fail.
+     */
+    void stop() {
+        stop(new RejectedExecutionException("Error! The server has been "
+                + "stopped!"));
+    }
+
+    /**
+     * Stops the threads and fails the queued searches.
+     *
+     * @param failure The exception the queued searches fail with.
+     */
+    private void stop(RejectedExecutionException failure) {
+        stopped = true;
+        for (Worker worker : workers) {
+            worker.thread.interrupt();
+        }
+        failQueuedSearches(failure);
+    }
+
+    /**
+     * Fails all searches which have not been started by a thread, including
+     * the ones in the batches of the threads.
+     *
+     * @param failure The exception the searches fail with.
+     */
+    private void failQueuedSearches(RejectedExecutionException failure) {
+        fail(searches, failure);
+        for (Worker worker : workers) {
+            fail(worker.batch, failure);
+        }
+    }
+
+    /**
+     * Fails all searches of a queue.
+     *
+     * @param queue The searches to fail, which are removed.
+     * @param failure The exception the searches fail with.
+     */
+    private void fail(Queue<Search<?>> queue,
+                      RejectedExecutionException failure) {
+        Search<?> search;
+        while ((search = queue.poll()) != null) {
+            search.result.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * A thread of the queue together with its current batch of searches,
+     * which the other threads may take searches from as well.
+     */
+    private final class Worker implements Runnable {
+        private final Queue<Search<?>> batch = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+
+        /**
+         * Creates a thread of the queue, which is not started yet.
+         *
+         * @param index The number of the thread.
+         */
+        private Worker(int index) {
+            thread = new Thread(this, "sudoku-solver-" + index);
+            thread.setDaemon(true);
+        }
+
+        /**
+         * Runs the searches until the queue is stopped. If the solver of the
+         * thread cannot be created, the whole queue is stopped and the queued
+         * searches fail with the cause, instead of waiting for a thread which
+         * has died.
+         */
+        @Override
+        public void run() {
+            SudokuSolver solver;
+            try {
+                solver = solverFactory.get();
+            } catch (RuntimeException | Error e) {
+                stop(new RejectedExecutionException("Error! The solver of a "
+                        + "thread could not be created!", e));
+                return;
+            }
+            while (!stopped) {
+                Search<?> search;
+                try {
+                    search = next();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                solver.setSearchLimits(searchLimits);
+                search.run(solver);
+            }
+            fail(batch, new RejectedExecutionException("Error! The server "
+                    + "has been stopped!"));
+        }
+
+        /**
+         * Takes the next search to run, preferring the own batch, then the
+         * queue and then the batches of the other threads, and waits for one
+         * if there is none.
+         *
+         * The queue is only drained into a batch while no thread is idle. A
+         * thread becomes idle before it looks at the queue and the batches a
+         * last time, and a thread which sees an idle thread after draining
+         * hands its batch back, so no search stays in a batch while a thread
+         * sleeps. If the queue has filled up in the meantime, the thread runs
+         * the search it cannot hand back itself, as the idle threads find
+         * enough work in the queue then.
+         *
+         * @return The search.
+         * @throws InterruptedException If the thread has been interrupted
+         *         while waiting.
+         */
+        private Search<?> next() throws InterruptedException {
+            Search<?> search = batch.poll();
+            if (search != null) {
+                return search;
+            }
+            if (idle.get() == 0 && !searches.isEmpty()
+                    && searches.drainTo(batch, MAX_BATCH) > 0) {
+                if (idle.get() > 0) {
+                    while ((search = batch.poll()) != null) {
+                        if (!searches.offer(search)) {
+                            return search;
+                        }
+                    }
+                }
+                search = batch.poll();
+                if (search != null) {
+                    return search;
+                }
+            }
+            idle.incrementAndGet();
+            try {
+                search = steal();
+                return search != null ? search : searches.take();
+            } finally {
+                idle.decrementAndGet();
+            }
+        }
+
+        /**
+         * Takes the oldest search from the batch of another thread.
+         *
+         * @return The search, or {@code null} if all batches are empty.
+         */
+        private Search<?> steal() {
+            for (Worker worker : workers) {
+                Search<?> search = worker.batch.poll();
+                if (search != null) {
+                    return search;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A queued search together with its future result.
+     *
+     * @param <T> The type of the result of the search.
+     */
+    private static final class Search<T> {
+        private final Function<SudokuSolver, T> search;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        /**
+         * Creates a queued search.
+         *
+         * @param search The search to run.
+         */
+        private Search(Function<SudokuSolver, T> search) {
+            this.search = search;
+        }
+
+        /**
+         * Runs the search and completes its result.
+         *
+         * @param solver The solver to run the search with.
+         */
+        private void run(SudokuSolver solver) {
+            try {
+                result.complete(search.apply(solver));
+            } catch (RuntimeException | Error e) {
+
+                /*
+                 * The failure is passed to the waiting request, the thread
+                 * goes on with the next search.
+                 */
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package sudoku.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import sudoku.gui.SudokuFieldFactory;
+import sudoku.model.Board;
+import sudoku.model.EnforcedCellSaturator;
+import sudoku.model.EnforcedNumberSaturator;
+import sudoku.model.InvalidSudokuException;
+import sudoku.model.SearchAbortedException;
+import sudoku.model.SearchLimits;
+import sudoku.model.SudokuBoardSolver;
+import sudoku.model.SudokuSolver;
+
+/**
+ * A headless HTTP service solving Sudokus, so a single running process
+ * answers any number of requests instead of starting a program per Sudoku.
+ *
+ * Every endpoint takes a Sudoku in the format of the Sudoku files as body of
+ * a {@code POST} request and answers in plain text:
+ * <ul>
+ *     <li>{@code /solve} returns the first solution in the same format, or
+ *     status 422 if there is none.</li>
+ *     <li>{@code /count} returns the number of solutions. The optional query
+ *     parameter {@code limit} stops counting at that many solutions.</li>
+ *     <li>{@code /validate} returns {@code unique}, {@code ambiguous},
+ *     {@code unsolvable} or, if the given numbers contradict each other,
+ *     {@code invalid}.</li>
+ * </ul>
+ * Malformed Sudokus are answered with status 400 and searches exceeding the
+ * search limits or arriving while too many are waiting with status 503.
+ *
+ * Every request is handled on its own virtual thread if the runtime provides
+ * them, and on a thread of a cached pool otherwise. The searches themselves
+ * are queued to a fixed number of solver threads, which keep their solvers
+ * for all requests. Under load they take the queued searches in small
+ * batches, which idle threads may still take searches from.
+ */
+public class SudokuServer {
+
+    /**
+     * The largest accepted size of a request body in bytes.
+     */
+    private static final int MAX_REQUEST_BYTES = 1 << 20;
+
+    /**
+     * The largest number of searches waiting for a solver thread.
+     */
+    private static final int QUEUE_CAPACITY = 4096;
+
+    /**
+     * The port listened on by {@link #main(String[])} by default.
+     */
+    private static final int DEFAULT_PORT = 8080;
+
+    /**
+     * The time limit of a single search set by {@link #main(String[])} by
+     * default in milliseconds.
+     */
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 10000;
+
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int PAYLOAD_TOO_LARGE = 413;
+    private static final int UNPROCESSABLE = 422;
+    private static final int INTERNAL_ERROR = 500;
+    private static final int UNAVAILABLE = 503;
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final SolvingQueue solvingQueue;
+
+    /**
+     * Creates a new SudokuServer, which does not accept requests before it
+     * is started.
+     *
+     * @param address The address to listen on.
+     * @param solverThreads The number of threads running searches.
+     * @param solverFactory The factory creating the solver of every solver
+     *        thread, including its solution strategies. It is called once
+     *        per thread.
+     * @throws IOException If the address cannot be bound.
+     */
+    public SudokuServer(InetSocketAddress address, int solverThreads,
+                        Supplier<? extends SudokuSolver> solverFactory)
+            throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "address of the server!");
+        }
+        if (solverThreads < 1) {
+            throw new IllegalArgumentException("Error! There must be at least "
+                    + "one thread to solve Sudokus!");
+        }
+        if (solverFactory == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "solver factory!");
+        }
+        server = HttpServer.create(address, 0);
+        requestExecutor = createRequestExecutor();
+        server.setExecutor(requestExecutor);
+        server.createContext("/solve", exchange -> handle(exchange,
+                this::solve));
+        server.createContext("/count", exchange -> handle(exchange,
+                this::count));
+        server.createContext("/validate", exchange -> handle(exchange,
+                this::validate));
+        solvingQueue = new SolvingQueue(solverThreads, QUEUE_CAPACITY,
+                solverFactory);
+    }
+
+    /**
+     * Sets the limits of the search of every single request. A request whose
+     * search exceeds them is answered with status 503.
+     *
+     * @param limits The limits of the search per request.
+     */
+    public void setSearchLimits(SearchLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Error! Null has been given as "
+                    + "search limits!");
+        }
+        solvingQueue.setSearchLimits(limits);
+    }
+
+    /**
+     * Gets the address the server listens on, which tells the port chosen
+     * if the server was created for port 0.
+     *
+     * @return The address of the server.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and stops the server once the running
+     * requests are answered, but at most after {@code delaySeconds}. Searches
+     * still running then are aborted.
+     *
+     * @param delaySeconds The longest time to wait for running requests.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        solvingQueue.stop();
+        requestExecutor.shutdown();
+    }
+
+    /**
+     * Starts a server on the loopback address.
+     *
+     * @param args Optionally the port, the number of solver threads and the
+     *        time limit of a single search in milliseconds. The solver
+     *        threads default to the number of processors.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        long timeLimit = args.length > 2 ? Long.parseLong(args[2])
+                : DEFAULT_TIME_LIMIT_MILLIS;
+        SudokuServer server = new SudokuServer(new InetSocketAddress(
+                InetAddress.getLoopbackAddress(), port), threads,
+                SudokuServer::createSolver);
+        server.setSearchLimits(SearchLimits.NONE.withTimeLimit(timeLimit,
+                TimeUnit.MILLISECONDS));
+        server.start();
+        System.out.println("Solving Sudokus at http://"
+                + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + "/");
+    }
+
+    /**
+     * Creates a solver with the enforced cell and enforced number strategies
+     * like the user interface uses.
+     *
+     * @return The new solver.
+     */
+    private static SudokuSolver createSolver() {
+        SudokuSolver solver = new SudokuBoardSolver();
+        solver.addSaturator(new EnforcedCellSaturator());
+        solver.addSaturator(new EnforcedNumberSaturator());
+        return solver;
+    }
+
+    /**
+     * Creates the executor running every request on a new virtual thread.
+     * As virtual threads are only available on newer runtimes, they are
+     * looked up reflectively, and a cached pool of daemon threads is used
+     * where they are missing.
+     *
+     * @return The executor of the requests.
+     */
+    private static ExecutorService createRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod(
+                    "newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException
+                | InvocationTargetException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "sudoku-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Answers a request to an endpoint: checks it, reads the Sudoku of its
+     * body and sends the answer of the endpoint, or the matching error.
+     *
+     * @param exchange The request and its response.
+     * @param endpoint The answer of the endpoint to the Sudoku and the
+     *        request.
+     * @throws IOException If the answer cannot be sent.
+     */
+    private void handle(HttpExchange exchange, Endpoint endpoint)
+            throws IOException {
+        try {
+            if (!exchange.getRequestURI().getPath().equals(
+                    exchange.getHttpContext().getPath())) {
+                respond(exchange, NOT_FOUND, "Error! There is no such "
+                        + "endpoint!");
+            } else if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, METHOD_NOT_ALLOWED, "Error! The Sudoku "
+                        + "must be posted!");
+            } else {
+                String body = readBody(exchange.getRequestBody());
+                if (body == null) {
+                    respond(exchange, PAYLOAD_TOO_LARGE, "Error! The Sudoku "
+                            + "is too large!");
+                } else {
+                    respond(exchange, endpoint, body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Parses the Sudoku of a request and sends the answer of the endpoint.
+     *
+     * @param exchange The request and its response.
+     * @param endpoint The answer of the endpoint.
+     * @param body The body of the request.
+     * @throws IOException If the answer cannot be sent.
+     */
+    private void respond(HttpExchange exchange, Endpoint endpoint,
+                         String body) throws IOException {
+
+        /*
+         * Every row takes two characters per cell, so this bounds the memory
+         * of the Sudoku by the size of the body before it is created.
+         */
+        int maxNumbers = (int) Math.sqrt(body.length() / 2.0) + 1;
+        Board sudoku;
+        try {
+            sudoku = SudokuFieldFactory.parse(new StringReader(body),
+                    maxNumbers).getSudoku();
+        } catch (ParseException e) {
+            respond(exchange, BAD_REQUEST, e.getMessage());
+            return;
+        } catch (InvalidSudokuException e) {
+            sudoku = null;
+        }
+        try {
+            Response response = endpoint.answer(sudoku,
+                    exchange.getRequestURI().getRawQuery());
+            respond(exchange, response.status, response.text);
+        } catch (IllegalArgumentException e) {
+            respond(exchange, BAD_REQUEST, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            respond(exchange, UNAVAILABLE, e.getMessage());
+        } catch (SearchAbortedException e) {
+            respond(exchange, UNAVAILABLE, "Error! The search has been "
+                    + "aborted: " + e.getReason() + "!");
+        } catch (RuntimeException e) {
+            respond(exchange, INTERNAL_ERROR, "Error! The search failed!");
+        }
+    }
+
+    /**
+     * Answers a request for the first solution of a Sudoku.
+     *
+     * @param sudoku The Sudoku, or {@code null} if it is invalid.
+     * @param query The query of the request.
+     * @return The answer to the request.
+     */
+    private Response solve(Board sudoku, String query) {
+        if (sudoku == null) {
+            return new Response(UNPROCESSABLE, "Error! The given numbers "
+                    + "contradict each other!");
+        }
+        Board solution = await(solvingQueue.submit(
+                solver -> solver.findFirstSolution(sudoku)));
+        if (solution == null) {
+            return new Response(UNPROCESSABLE, "Error! The Sudoku is not "
+                    + "solvable!");
+        }
+        return new Response(OK, solution.getBoxRows() + " "
+                + solution.getBoxColumns() + "\n" + solution.prettyPrint());
+    }
+
+    /**
+     * Answers a request for the number of solutions of a Sudoku.
+     *
+     * @param sudoku The Sudoku, or {@code null} if it is invalid.
+     * @param query The query of the request, which may contain the limit of
+     *        solutions to count.
+     * @return The answer to the request.
+     */
+    private Response count(Board sudoku, String query) {
+        long limit = parseLimit(query);
+        if (sudoku == null) {
+            return new Response(OK, "0");
+        }
+        return new Response(OK, Long.toString(await(solvingQueue.submit(
+                solver -> solver.countSolutions(sudoku, limit)))));
+    }
+
+    /**
+     * Answers a request whether a Sudoku has a unique solution.
+     *
+     * @param sudoku The Sudoku, or {@code null} if it is invalid.
+     * @param query The query of the request.
+     * @return The answer to the request.
+     */
+    private Response validate(Board sudoku, String query) {
+        if (sudoku == null) {
+            return new Response(OK, "invalid");
+        }
+        long solutions = await(solvingQueue.submit(
+                solver -> solver.countSolutions(sudoku, 2)));
+        return new Response(OK, solutions == 0 ? "unsolvable"
+                : solutions == 1 ? "unique" : "ambiguous");
+    }
+
+    /**
+     * Reads the limit of solutions to count from the query of a request.
+     *
+     * @param query The query of the request, or {@code null} if it has none.
+     * @return The limit, or {@link Long#MAX_VALUE} if none is given.
+     */
+    private static long parseLimit(String query) {
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("limit=")) {
+                    String limit = parameter.substring("limit=".length());
+                    if (!limit.matches("[0-9]{1,18}")) {
+                        throw new IllegalArgumentException("Error! The limit "
+                                + "of solutions must be a non-negative "
+                                + "number!");
+                    }
+                    return Long.parseLong(limit);
+                }
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Waits for the result of a queued search on the thread of the request.
+     *
+     * @param result The future result of the search.
+     * @param <T> The type of the result.
+     * @return The result of the search.
+     * @throws SearchAbortedException If the search exceeded its limits.
+     * @throws RejectedExecutionException If the search was not run.
+     */
+    private static <T> T await(Future<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Error! The request has "
+                    + "been interrupted!");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * Reads the body of a request unless it is too large.
+     *
+     * @param input The body of the request.
+     * @return The body, or {@code null} if it exceeds {@link
+     *         #MAX_REQUEST_BYTES}.
+     * @throws IOException If the body cannot be read.
+     */
+    private static String readBody(InputStream input) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            if (body.size() + read > MAX_REQUEST_BYTES) {
+                return null;
+            }
+            body.write(buffer, 0, read);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sends a plain text answer.
+     *
+     * @param exchange The request and its response.
+     * @param status The status code of the response.
+     * @param text The text of the response, which is ended by a line break.
+     * @throws IOException If the answer cannot be sent.
+     */
+    private static void respond(HttpExchange exchange, int status,
+                                String text) throws IOException {
+        byte[] bytes = (text + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type",
+                "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * The answer of an endpoint to a Sudoku.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+
+        /**
+         * Answers a request.
+         *
+         * @param sudoku The Sudoku of the request, or {@code null} if the
+         *        given numbers contradict each other.
+         * @param query The raw query of the request, or {@code null}.
+         * @return The answer to the request.
+         */
+        Response answer(Board sudoku, String query);
+    }
+
+    /**
+     * The status and the text of an answer.
+     */
+    private static final class Response {
+        private final int status;
+        private final String text;
+
+        /**
+         * Creates an answer.
+         *
+         * @param status The status code.
+         * @param text The text of the answer.
+         */
+        private Response(int status, String text) {
+            this.status = status;
+            this.text = text;
+        }
+    }
+}